@@ -0,0 +1,72 @@
+package br.unirio.visualnrp.benchmark;
+
+import br.unirio.visualnrp.model.Instance;
+import br.unirio.visualnrp.model.Project;
+import br.unirio.visualnrp.reader.RequirementReader;
+import br.unirio.visualnrp.support.PseudoRandom;
+
+/**
+ * Class that loads instances and prepares customer selections for the benchmarks
+ * 
+ * @author marciobarros
+ */
+public class BenchmarkData
+{
+	/**
+	 * Fixed seed, so that every run benchmarks the same selections
+	 */
+	private static final long SEED = 253958446296927L;
+	
+	/**
+	 * Number of prepared selections and customer indices (must be a power of two)
+	 */
+	public static final int SAMPLES = 1024;
+
+	/**
+	 * Loads a project, given the name of its instance
+	 */
+	public static Project loadProject(String instanceName)
+	{
+		Instance instance = Instance.get(instanceName);
+		
+		if (instance == null)
+			throw new IllegalArgumentException("Instance '" + instanceName + "' not found.");
+		
+		Project project = new RequirementReader().execute(instance);
+		
+		if (project == null)
+			throw new IllegalStateException("Could not load instance '" + instanceName + "'. Benchmarks must run from the project directory.");
+		
+		return project;
+	}
+
+	/**
+	 * Creates a set of random customer selections with a given density
+	 */
+	public static boolean[][] createSelections(Project project, double density)
+	{
+		PseudoRandom random = new PseudoRandom(SEED);
+		int customerCount = project.getCustomerCount();
+		boolean[][] selections = new boolean[SAMPLES][customerCount];
+		
+		for (int i = 0; i < SAMPLES; i++)
+			for (int j = 0; j < customerCount; j++)
+				selections[i][j] = random.nextDouble() < density;
+		
+		return selections;
+	}
+
+	/**
+	 * Creates a random sequence of customer indices
+	 */
+	public static int[] createCustomerSequence(Project project)
+	{
+		PseudoRandom random = new PseudoRandom(SEED + 1);
+		int[] customers = new int[SAMPLES];
+		
+		for (int i = 0; i < SAMPLES; i++)
+			customers[i] = random.nextInt(0, project.getCustomerCount() - 1);
+		
+		return customers;
+	}
+}
@@ -0,0 +1,142 @@
+package br.unirio.visualnrp.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import br.unirio.visualnrp.algorithm.search.Solution;
+import br.unirio.visualnrp.algorithm.search.SolutionBackend;
+import br.unirio.visualnrp.calc.fitness.CostCapFitnessCalculator;
+import br.unirio.visualnrp.calc.fitness.CostRiskFitnessCalculator;
+import br.unirio.visualnrp.calc.fitness.CostRiskOnlyFitnessCalculator;
+import br.unirio.visualnrp.calc.fitness.IFitnessCalculator;
+import br.unirio.visualnrp.calc.fitness.ProfitFitnessCalculator;
+import br.unirio.visualnrp.calc.fitness.ProfitRiskFitnessCalculator;
+import br.unirio.visualnrp.calc.fitness.ProfitRiskOnlyFitnessCalculator;
+import br.unirio.visualnrp.model.MaximumValues;
+import br.unirio.visualnrp.model.Project;
+import br.unirio.visualnrp.reader.MaximumValuesReader;
+
+/**
+ * Benchmarks for the fitness calculators, using a 30% budget
+ * 
+ * @author marciobarros
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class FitnessCalculatorBenchmark
+{
+	private static final int BUDGET_FACTOR = 30;
+	private static final int RISK_IMPORTANCE = 20;
+
+	@Param({ "nrp1", "nrp2", "nrp3", "nrp4", "nrp5", "nrp-e1", "nrp-g1", "nrp-m1" })
+	public String instance;
+
+	@Param({ "profit", "cost-risk", "cost-risk-only", "profit-risk", "profit-risk-only", "cost-cap" })
+	public String calculatorName;
+
+	@Param({ "0.5" })
+	public double density;
+
+	@Param({ "COUNTER", "BITSET" })
+	public SolutionBackend backend;
+
+	private Solution solution;
+	private IFitnessCalculator calculator;
+	private int[] customers;
+	private int position;
+
+	@Setup(Level.Trial)
+	public void setup()
+	{
+		Project project = BenchmarkData.loadProject(instance);
+		this.solution = new Solution(project, backend, BenchmarkData.createSelections(project, density)[0]);
+		this.customers = BenchmarkData.createCustomerSequence(project);
+		this.calculator = createCalculator(project);
+		this.position = 0;
+	}
+
+	/**
+	 * Creates the calculator under benchmark
+	 */
+	private IFitnessCalculator createCalculator(Project project)
+	{
+		int availableBudget = (int) (project.getTotalCost() * (BUDGET_FACTOR / 100.0));
+		MaximumValues values = new MaximumValuesReader().execute().getMaximumValues(project.getInstance(), BUDGET_FACTOR);
+		int maximumProfit = (values != null) ? values.getMaximumProfit() : project.getTotalProfit();
+		double maximumCostRisk = (values != null && values.getMaximumCostRisk() > 0) ? values.getMaximumCostRisk() : project.getTotalCostRisk();
+		double maximumProfitRisk = (values != null && values.getMaximumProfitRisk() > 0) ? values.getMaximumProfitRisk() : project.getTotalProfitRisk();
+		
+		if (calculatorName.equals("profit"))
+			return new ProfitFitnessCalculator(project, availableBudget);
+		
+		if (calculatorName.equals("cost-risk"))
+			return new CostRiskFitnessCalculator(project, availableBudget, RISK_IMPORTANCE, maximumProfit, maximumCostRisk);
+		
+		if (calculatorName.equals("cost-risk-only"))
+			return new CostRiskOnlyFitnessCalculator(project, availableBudget);
+		
+		if (calculatorName.equals("profit-risk"))
+			return new ProfitRiskFitnessCalculator(project, availableBudget, RISK_IMPORTANCE, maximumProfit, maximumProfitRisk);
+		
+		if (calculatorName.equals("profit-risk-only"))
+			return new ProfitRiskOnlyFitnessCalculator(project, availableBudget);
+		
+		if (calculatorName.equals("cost-cap"))
+			return new CostCapFitnessCalculator(project, availableBudget, RISK_IMPORTANCE);
+		
+		throw new IllegalArgumentException("Calculator '" + calculatorName + "' not found.");
+	}
+
+	/**
+	 * Returns the next customer from the prepared sequence
+	 */
+	private int nextCustomer()
+	{
+		position = (position + 1) & (BenchmarkData.SAMPLES - 1);
+		return customers[position];
+	}
+
+	@Benchmark
+	public double evaluate()
+	{
+		return calculator.evaluate(solution);
+	}
+
+	/**
+	 * Scores a neighbor by flipping a customer, evaluating and flipping it back
+	 */
+	@Benchmark
+	public double flipEvaluateAndRestore()
+	{
+		int customer = nextCustomer();
+		solution.flipCustomer(customer);
+		double fitness = calculator.evaluate(solution);
+		solution.flipCustomer(customer);
+		return fitness;
+	}
+
+	/**
+	 * Scores a neighbor without changing the solution
+	 */
+	@Benchmark
+	public double deltaEvaluate()
+	{
+		return calculator.deltaEvaluate(solution, nextCustomer());
+	}
+}
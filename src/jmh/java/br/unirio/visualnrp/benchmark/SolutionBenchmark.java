@@ -0,0 +1,117 @@
+package br.unirio.visualnrp.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import br.unirio.visualnrp.algorithm.search.Solution;
+import br.unirio.visualnrp.algorithm.search.SolutionBackend;
+import br.unirio.visualnrp.model.Project;
+
+/**
+ * Benchmarks for the solution representation and the cost calculations of the project
+ * 
+ * @author marciobarros
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class SolutionBenchmark
+{
+	@Param({ "nrp1", "nrp2", "nrp3", "nrp4", "nrp5", "nrp-e1", "nrp-g1", "nrp-m1" })
+	public String instance;
+
+	@Param({ "0.3", "0.5", "0.7" })
+	public double density;
+
+	@Param({ "COUNTER", "BITSET" })
+	public SolutionBackend backend;
+
+	private Project project;
+	private Solution solution;
+	private boolean[][] selections;
+	private int[] customers;
+	private int position;
+
+	@Setup(Level.Trial)
+	public void setup()
+	{
+		this.project = BenchmarkData.loadProject(instance);
+		this.selections = BenchmarkData.createSelections(project, density);
+		this.customers = BenchmarkData.createCustomerSequence(project);
+		this.solution = new Solution(project, backend, selections[0]);
+		this.position = 0;
+	}
+
+	/**
+	 * Returns the next customer from the prepared sequence
+	 */
+	private int nextCustomer()
+	{
+		position = (position + 1) & (BenchmarkData.SAMPLES - 1);
+		return customers[position];
+	}
+
+	/**
+	 * Returns the next selection from the prepared set
+	 */
+	private boolean[] nextSelection()
+	{
+		position = (position + 1) & (BenchmarkData.SAMPLES - 1);
+		return selections[position];
+	}
+
+	/**
+	 * Flips a customer and flips it back, as a rejected neighbor used to cost
+	 */
+	@Benchmark
+	public int flipCustomerAndRestore()
+	{
+		int customer = nextCustomer();
+		solution.flipCustomer(customer);
+		solution.flipCustomer(customer);
+		return solution.getCost();
+	}
+
+	/**
+	 * Scores the cost of a flip without changing the solution
+	 */
+	@Benchmark
+	public int flippedCost()
+	{
+		return solution.getFlippedCost(nextCustomer());
+	}
+
+	@Benchmark
+	public int setAllCustomers()
+	{
+		solution.setAllCustomers(nextSelection());
+		return solution.getCost();
+	}
+
+	@Benchmark
+	public int calculateCost()
+	{
+		return project.calculateCost(nextSelection());
+	}
+
+	@Benchmark
+	public Solution createSolution()
+	{
+		return new Solution(project, backend);
+	}
+}
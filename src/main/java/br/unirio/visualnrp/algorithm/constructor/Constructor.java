@@ -17,6 +17,16 @@ public interface Constructor
 	 */
 	boolean[] generateSolutionWith(int numberOfCustomers);
 
+	/**
+	 * Generates a solution with a given number of customers into a given array
+	 */
+	void generateSolutionWith(int numberOfCustomers, boolean[] solution);
+
+	/**
+	 * Generates a batch of solutions with a given number of customers into the given arrays
+	 */
+	void generateSolutionsWith(int numberOfCustomers, boolean[][] solutions);
+
 	/**
 	 * Generates a solution within a given interval of customers
 	 */
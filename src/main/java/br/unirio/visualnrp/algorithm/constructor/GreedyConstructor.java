@@ -1,52 +1,72 @@
 package br.unirio.visualnrp.algorithm.constructor;
 
-import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.HashMap;
-import java.util.List;
-import java.util.Map;
 
 import br.unirio.visualnrp.model.Project;
+import br.unirio.visualnrp.model.RequirementClosure;
 import br.unirio.visualnrp.support.PseudoRandom;
 
 /**
  * Greedy constructor that uses the relation Profit / Cost for selecting customers
  * to a solution. Customers high higher profit/cost ratio are more likely selected.
+ * Customers are drawn without replacement from a Fenwick tree of their ratios, so that
+ * each selection takes logarithmic time.
  * 
  * @author richard
  */
 public class GreedyConstructor implements Constructor
 {
 	private final Project project;
-	private final Map<Integer, Integer> profitLossRatios;		// TODO: might be an array ...
+	private final int[] profitLossRatios;
+	private final PseudoRandom random;
+
+	/**
+	 * Fenwick tree holding the ratios of the customers not yet selected (1-based, reused by all solutions)
+	 */
+	private final int[] remainingRatios;
+
+	/**
+	 * Sum of the ratios of the customers not yet selected
+	 */
+	private int remainingTotal;
 
 	/**
 	 * Initializes the constructor
 	 */
-	public GreedyConstructor(Project project)
+	public GreedyConstructor(Project project, PseudoRandom random)
 	{
 		this.project = project;
+		this.random = random;
 		this.profitLossRatios = calculateProfitLossRatios();
+		this.remainingRatios = new int[profitLossRatios.length + 1];
+	}
+
+	/**
+	 * Initializes the constructor using the random number generator of the current thread
+	 */
+	public GreedyConstructor(Project project)
+	{
+		this(project, PseudoRandom.current());
 	}
 
 	/**
 	 * Calculates the profit/loss ratio for each customer
 	 */
-	private Map<Integer, Integer> calculateProfitLossRatios()
+	private int[] calculateProfitLossRatios()
 	{
 		int numberOfCustomers = project.getCustomerCount();
-		boolean[] sol = new boolean[numberOfCustomers];
-		Arrays.fill(sol, false);
-
-		Map<Integer, Integer> profitLoss = new HashMap<Integer, Integer>(numberOfCustomers);
+		RequirementClosure closure = project.getRequirementClosure();
+		int[] profitLoss = new int[numberOfCustomers];
 
 		for (int customer = 0; customer < numberOfCustomers; customer++)
 		{
-			sol[customer] = true;
 			double profit = project.getCustomerProfit(customer);
-			int cost = project.calculateCost(sol);
-			sol[customer] = false;
-			profitLoss.put(customer, (int) ((profit / cost) * 1000));
+			int cost = 0;
+
+			for (int i = closure.getStart(customer); i < closure.getEnd(customer); i++)
+				cost += project.getRequirementCost(closure.getRequirement(i));
+
+			profitLoss[customer] = (int) ((profit / cost) * 1000);
 		}
 
 		return profitLoss;
@@ -58,7 +78,7 @@ public class GreedyConstructor implements Constructor
 	public boolean[] generateSolution()
 	{
 		int customerCount = project.getCustomerCount();
-		int numberOfCustomers = PseudoRandom.randInt(1, customerCount);
+		int numberOfCustomers = random.nextInt(1, customerCount);
 		return generateSolutionWith(numberOfCustomers);
 	}
 
@@ -67,20 +87,34 @@ public class GreedyConstructor implements Constructor
 	 */
 	public boolean[] generateSolutionWith(int numberOfCustomers)
 	{
-		int customerCount = project.getCustomerCount();
-		boolean[] solution = new boolean[customerCount];
+		boolean[] solution = new boolean[project.getCustomerCount()];
+		generateSolutionWith(numberOfCustomers, solution);
+		return solution;
+	}
+
+	/**
+	 * Generates a solution with a given number of customers into a given array
+	 */
+	public void generateSolutionWith(int numberOfCustomers, boolean[] solution)
+	{
 		Arrays.fill(solution, false);
-		
-		List<Integer> customers = new ArrayList<Integer>(profitLossRatios.keySet());
+		resetRemainingRatios();
 
 		for (int i = 0; i < numberOfCustomers; i++)
 		{
-			int selected = getWeightedRandom(customers);
-			selected = customers.remove(selected);
+			int selected = getWeightedRandom(solution);
+			removeRemainingRatio(selected);
 			solution[selected] = true;
 		}
+	}
 
-		return solution;
+	/**
+	 * Generates a batch of solutions with a given number of customers into the given arrays
+	 */
+	public void generateSolutionsWith(int numberOfCustomers, boolean[][] solutions)
+	{
+		for (boolean[] solution : solutions)
+			generateSolutionWith(numberOfCustomers, solution);
 	}
 
 	/**
@@ -88,60 +122,92 @@ public class GreedyConstructor implements Constructor
 	 */
 	public boolean[] generateSolutionInInterval(int minCustomers, int maxCustomers)
 	{
-		int numberOfCustomers = PseudoRandom.randInt(minCustomers, maxCustomers);
+		int numberOfCustomers = random.nextInt(minCustomers, maxCustomers);
 		return generateSolutionWith(numberOfCustomers);
 	}
 
 	/**
-	 * Randomly selects a customer, weighting the chances for their weights
+	 * Randomly selects a customer not in the solution, weighting the chances for their ratios. The
+	 * selected customer is the first one whose cumulative ratio (over the customers not yet selected,
+	 * in index order) reaches the random number.
+	 */
+	private int getWeightedRandom(boolean[] solution)
+	{
+		int rand = random.nextInt(0, remainingTotal-1);
+
+		if (remainingTotal == 0)
+			return getFirstRemaining(solution);
+
+		return findCumulativeRatio(Math.max(rand, 1));
+	}
+
+	/**
+	 * Returns the first customer not in the solution
 	 */
-	private int getWeightedRandom(List<Integer> customers)
+	private int getFirstRemaining(boolean[] solution)
 	{
-		int[] weights = getWeightsFor(customers);
-		int[] cumulative = computeCumulativeWeights(weights);
-		int totalWeight = cumulative[cumulative.length-1]; 
-				
-		int rand = PseudoRandom.randInt(0, totalWeight-1);
-		int pos = Arrays.binarySearch(cumulative, rand);
-		
-		if (pos < 0)
-			pos = Math.abs(pos) - 1;
-
-		return pos;
+		for (int i = 0; i < solution.length; i++)
+			if (!solution[i])
+				return i;
+
+		throw new IllegalStateException("All customers are already in the solution");
 	}
 
 	/**
-	 * Returns the weights for a list of customers
+	 * Fills the Fenwick tree with the ratios of all customers, in linear time
 	 */
-	private int[] getWeightsFor(List<Integer> customers)
+	private void resetRemainingRatios()
 	{
-		// TODO: might already accumulate the weights
-		int[] weights = new int[customers.size()];
-		int index = 0;
+		int size = profitLossRatios.length;
+		remainingTotal = 0;
 
-		for (Integer customer : customers)
+		for (int i = 1; i <= size; i++)
 		{
-			weights[index] = profitLossRatios.get(customer);
-			index++;
+			remainingRatios[i] = profitLossRatios[i-1];
+			remainingTotal += profitLossRatios[i-1];
+		}
+
+		for (int i = 1; i <= size; i++)
+		{
+			int parent = i + (i & -i);
+
+			if (parent <= size)
+				remainingRatios[parent] += remainingRatios[i];
 		}
-		
-		return weights;
 	}
 
 	/**
-	 * Computes a list of cumulative weights for the customers
+	 * Removes the ratio of a selected customer from the Fenwick tree
 	 */
-	private int[] computeCumulativeWeights(int[] weights)
+	private void removeRemainingRatio(int customer)
 	{
-		int[] lookup = new int[weights.length];
-		int total = 0;
+		int ratio = profitLossRatios[customer];
+		remainingTotal -= ratio;
+
+		for (int i = customer + 1; i < remainingRatios.length; i += (i & -i))
+			remainingRatios[i] -= ratio;
+	}
 
-		for (int i = 0; i < weights.length; i++)
+	/**
+	 * Returns the first customer whose cumulative ratio is greater than or equal to a positive value
+	 */
+	private int findCumulativeRatio(int value)
+	{
+		int size = profitLossRatios.length;
+		int position = 0;
+		int remaining = value;
+
+		for (int step = Integer.highestOneBit(size); step > 0; step >>= 1)
 		{
-			total += weights[i];
-			lookup[i] = total;
+			int next = position + step;
+
+			if (next <= size && remainingRatios[next] < remaining)
+			{
+				position = next;
+				remaining -= remainingRatios[next];
+			}
 		}
 
-		return lookup;
+		return position;
 	}
 }
\ No newline at end of file
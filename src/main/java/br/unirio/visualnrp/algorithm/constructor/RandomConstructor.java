@@ -1,8 +1,6 @@
 package br.unirio.visualnrp.algorithm.constructor;
 
-import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.List;
 
 import br.unirio.visualnrp.model.Project;
 import br.unirio.visualnrp.support.PseudoRandom;
@@ -19,12 +17,32 @@ public class RandomConstructor implements Constructor
 	 */
 	private Project project;
 
+	/**
+	 * Random number generator used to build solutions
+	 */
+	private PseudoRandom random;
+
+	/**
+	 * Permutation of the customers, reused by all solutions
+	 */
+	private int[] permutation;
+
 	/**
 	 * Initializes the random constructor
 	 */
-	public RandomConstructor(Project project)
+	public RandomConstructor(Project project, PseudoRandom random)
 	{
 		this.project = project;
+		this.random = random;
+		this.permutation = createPermutation(project.getCustomerCount());
+	}
+
+	/**
+	 * Initializes the random constructor using the random number generator of the current thread
+	 */
+	public RandomConstructor(Project project)
+	{
+		this(project, PseudoRandom.current());
 	}
 
 	/**
@@ -37,7 +55,7 @@ public class RandomConstructor implements Constructor
 
 		for (int i = 0; i < customerCount; i++)
 		{
-			solution[i] = (PseudoRandom.randDouble() >= 0.5);
+			solution[i] = (random.nextDouble() >= 0.5);
 		}
 
 		return solution;
@@ -48,19 +66,38 @@ public class RandomConstructor implements Constructor
 	 */
 	public boolean[] generateSolutionWith(int numberOfCustomers)
 	{
-		int customerCount = project.getCustomerCount();
-		boolean[] solution = new boolean[customerCount];
+		boolean[] solution = new boolean[project.getCustomerCount()];
+		generateSolutionWith(numberOfCustomers, solution);
+		return solution;
+	}
+
+	/**
+	 * Generates a random solution into a given array, given a number of customers. The first positions
+	 * of the permutation are shuffled by a partial Fisher-Yates, which works on any permutation, so the
+	 * permutation left by the previous solution is reused as it is.
+	 */
+	public void generateSolutionWith(int numberOfCustomers, boolean[] solution)
+	{
+		int customerCount = permutation.length;
 		Arrays.fill(solution, false);
-		List<Integer> listOfPossibilities = generateListOfSize(customerCount);
 
-		for (int i = 1; i <= numberOfCustomers; i++)
+		for (int i = 0; i < numberOfCustomers; i++)
 		{
-			int position = PseudoRandom.randInt(0, listOfPossibilities.size()-1);
-			int value = listOfPossibilities.remove(position);
+			int position = random.nextInt(i, customerCount-1);
+			int value = permutation[position];
+			permutation[position] = permutation[i];
+			permutation[i] = value;
 			solution[value] = true;
 		}
+	}
 
-		return solution;
+	/**
+	 * Generates a batch of random solutions into the given arrays, given a number of customers
+	 */
+	public void generateSolutionsWith(int numberOfCustomers, boolean[][] solutions)
+	{
+		for (boolean[] solution : solutions)
+			generateSolutionWith(numberOfCustomers, solution);
 	}
 
 	/**
@@ -68,20 +105,20 @@ public class RandomConstructor implements Constructor
 	 */
 	public boolean[] generateSolutionInInterval(int minCustomers, int maxCustomers)
 	{
-		int numberOfCustomers = PseudoRandom.randInt(minCustomers, maxCustomers);
+		int numberOfCustomers = random.nextInt(minCustomers, maxCustomers);
 		return generateSolutionWith(numberOfCustomers);
 	}
 
 	/**
-	 * Creates a list of sequential values
+	 * Creates the identity permutation of a given size
 	 */
-	private List<Integer> generateListOfSize(int size)
+	private int[] createPermutation(int size)
 	{
-		List<Integer> list = new ArrayList<Integer>(size);
+		int[] values = new int[size];
 
 		for (int i = 0; i < size; i++)
-			list.add(i);
+			values[i] = i;
 
-		return list;
+		return values;
 	}
 }
\ No newline at end of file
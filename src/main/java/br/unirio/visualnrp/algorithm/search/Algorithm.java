@@ -4,6 +4,7 @@ import java.io.PrintWriter;
 
 import br.unirio.visualnrp.algorithm.constructor.Constructor;
 import br.unirio.visualnrp.model.Project;
+import br.unirio.visualnrp.support.PseudoRandom;
 
 /**
  * Enumeration of the available search algorithms
@@ -14,6 +15,7 @@ public enum Algorithm
 {
 	VISILS, 
 	ILS, 
+	IILS, 
 	HC;
 
 	/**
@@ -27,20 +29,71 @@ public enum Algorithm
 	public static int SAMPLE_SIZE = 10;
 	
 	/**
-	 * Creates a search algorithm for the problem at hand
+	 * Returns an algorithm, given its name (case insensitive), or null if there is no such algorithm
 	 */
-	public static SearchAlgorithm createAlgorithm(Algorithm type, PrintWriter detailsWriter, Project project, Constructor constructor) throws Exception
+	public static Algorithm get(String name)
+	{
+		for (Algorithm algorithm : values())
+			if (algorithm.name().equalsIgnoreCase(name))
+				return algorithm;
+		
+		return null;
+	}
+
+	/**
+	 * Creates a search algorithm for the problem at hand, configured by a given set of search options
+	 */
+	public static SearchAlgorithm createAlgorithm(Algorithm type, SearchOptions options, PrintWriter detailsWriter, Project project, Constructor constructor, PseudoRandom random) throws Exception
 	{
+		SearchAlgorithm algorithm = null;
+		
 		if (type == Algorithm.VISILS)
-			return new VisIteratedLocalSearch(detailsWriter, project, MAXEVALUATIONS, SAMPLE_SIZE, constructor);
+		{
+			VisIteratedLocalSearch visils = new VisIteratedLocalSearch(detailsWriter, project, MAXEVALUATIONS, SAMPLE_SIZE, constructor, random);
+			visils.setSamplingStrategy(options.getSamplingStrategy());
+			algorithm = visils;
+		}
 		
-		if (type == Algorithm.ILS)
-			return new IteratedLocalSearch(detailsWriter, project, MAXEVALUATIONS, constructor);
+		else if (type == Algorithm.ILS)
+			algorithm = new IteratedLocalSearch(detailsWriter, project, MAXEVALUATIONS, constructor, random);
 
-		if (type == Algorithm.HC)
-			return new HillClimbing(detailsWriter, project, MAXEVALUATIONS, constructor);
+		else if (type == Algorithm.IILS)
+			algorithm = new IslandIteratedLocalSearch(detailsWriter, project, MAXEVALUATIONS, options.getIslandCount(), options.getMigrationInterval(), constructor, random);
+
+		else if (type == Algorithm.HC)
+			algorithm = new HillClimbing(detailsWriter, project, MAXEVALUATIONS, constructor, random);
 		
-		return null;
+		if (algorithm != null)
+		{
+			algorithm.setNeighborhoodMode(options.getNeighborhoodMode());
+			algorithm.setSolutionBackend(options.getSolutionBackend());
+			algorithm.setFitnessCache(options.getFitnessCacheMode(), options.getFitnessCacheSize());
+			algorithm.setBudgetPruning(options.isBudgetPruning());
+			
+			if (options.getTimeLimit() > 0)
+				algorithm.addTerminationCriterion(new TimeLimitCriterion(options.getTimeLimit()));
+			
+			if (options.getStagnationLimit() > 0)
+				algorithm.addTerminationCriterion(new StagnationCriterion(options.getStagnationLimit()));
+		}
+		
+		return algorithm;
+	}
+
+	/**
+	 * Creates a search algorithm for the problem at hand, under the default search options
+	 */
+	public static SearchAlgorithm createAlgorithm(Algorithm type, PrintWriter detailsWriter, Project project, Constructor constructor, PseudoRandom random) throws Exception
+	{
+		return createAlgorithm(type, new SearchOptions(), detailsWriter, project, constructor, random);
+	}
+
+	/**
+	 * Creates a search algorithm for the problem at hand, using the random number generator of the current thread
+	 */
+	public static SearchAlgorithm createAlgorithm(Algorithm type, PrintWriter detailsWriter, Project project, Constructor constructor) throws Exception
+	{
+		return createAlgorithm(type, detailsWriter, project, constructor, PseudoRandom.current());
 	}
 
 }
\ No newline at end of file
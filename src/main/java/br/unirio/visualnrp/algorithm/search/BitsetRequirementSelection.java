@@ -0,0 +1,242 @@
+package br.unirio.visualnrp.algorithm.search;
+
+import java.util.Arrays;
+
+import br.unirio.visualnrp.model.Project;
+import br.unirio.visualnrp.model.RequirementClosure;
+
+/**
+ * Requirement accounting that keeps the selected requirements and the requirement closure of
+ * each customer as bitsets. Additions only visit the words touched by the customer's closure;
+ * removals rebuild those words from the closures of the attended customers that share
+ * requirements with the removed one.
+ *
+ * @author marciobarros
+ */
+public class BitsetRequirementSelection implements RequirementSelection
+{
+	private Project project;
+	private long[][] customerRequirementBits;
+	private int[][] customerRequirementWords;
+	private int[][] overlappingCustomers;
+	private boolean[] customerSelection;
+	private long[] selectedRequirements;
+	private long[] otherCustomersRequirements;
+	private int cost;
+	private double costRisk;
+	private double worstCost;
+
+	/**
+	 * Initializes the accounting, given a project and the customer selection array
+	 */
+	public BitsetRequirementSelection(Project project, boolean[] customerSelection)
+	{
+		RequirementClosure closure = project.getRequirementClosure();
+		this.project = project;
+		this.customerRequirementBits = closure.getCustomerRequirementBits();
+		this.customerRequirementWords = closure.getCustomerRequirementWords();
+		this.overlappingCustomers = closure.getOverlappingCustomers();
+		this.customerSelection = customerSelection;
+
+		int wordCount = (project.getRequirementCount() + 63) >>> 6;
+		this.selectedRequirements = new long[wordCount];
+		this.otherCustomersRequirements = new long[wordCount];
+
+		this.cost = 0;
+		this.costRisk = 0.0;
+		this.worstCost = 0.0;
+	}
+
+	/**
+	 * Initializes the accounting as a copy of another one
+	 */
+	private BitsetRequirementSelection(BitsetRequirementSelection source, boolean[] customerSelection)
+	{
+		this.project = source.project;
+		this.customerRequirementBits = source.customerRequirementBits;
+		this.customerRequirementWords = source.customerRequirementWords;
+		this.overlappingCustomers = source.overlappingCustomers;
+		this.customerSelection = customerSelection;
+		this.selectedRequirements = Arrays.copyOf(source.selectedRequirements, source.selectedRequirements.length);
+		this.otherCustomersRequirements = new long[source.otherCustomersRequirements.length];
+		this.cost = source.cost;
+		this.costRisk = source.costRisk;
+		this.worstCost = source.worstCost;
+	}
+
+	/**
+	 * Collects, in the words used by a customer, the requirements of the other attended customers
+	 */
+	private void collectOtherCustomersRequirements(int customerIndex)
+	{
+		int[] words = customerRequirementWords[customerIndex];
+
+		for (int word : words)
+			otherCustomersRequirements[word] = 0;
+
+		for (int otherCustomer : overlappingCustomers[customerIndex])
+		{
+			if (customerSelection[otherCustomer])
+			{
+				long[] bits = customerRequirementBits[otherCustomer];
+
+				for (int word : words)
+					otherCustomersRequirements[word] |= bits[word];
+			}
+		}
+	}
+
+	@Override
+	public void clear()
+	{
+		Arrays.fill(selectedRequirements, 0L);
+		this.cost = 0;
+		this.costRisk = 0.0;
+		this.worstCost = 0.0;
+	}
+
+	@Override
+	public void addCustomer(int customerIndex)
+	{
+		long[] bits = customerRequirementBits[customerIndex];
+
+		for (int word : customerRequirementWords[customerIndex])
+		{
+			long added = bits[word] & ~selectedRequirements[word];
+			selectedRequirements[word] |= bits[word];
+
+			while (added != 0)
+			{
+				int requirementIndex = (word << 6) + Long.numberOfTrailingZeros(added);
+				cost += project.getRequirementCost(requirementIndex);
+				costRisk += project.getRequirementCostRisk(requirementIndex);
+				worstCost += project.getRequirementWorstCost(requirementIndex);
+				added &= added - 1;
+			}
+		}
+
+		costRisk = Solution.round(costRisk);
+		worstCost = Solution.round(worstCost);
+	}
+
+	@Override
+	public void removeCustomer(int customerIndex)
+	{
+		long[] bits = customerRequirementBits[customerIndex];
+		collectOtherCustomersRequirements(customerIndex);
+
+		for (int word : customerRequirementWords[customerIndex])
+		{
+			long removed = bits[word] & ~otherCustomersRequirements[word];
+			selectedRequirements[word] &= ~removed;
+
+			while (removed != 0)
+			{
+				int requirementIndex = (word << 6) + Long.numberOfTrailingZeros(removed);
+				cost -= project.getRequirementCost(requirementIndex);
+				costRisk -= project.getRequirementCostRisk(requirementIndex);
+				worstCost -= project.getRequirementWorstCost(requirementIndex);
+				removed &= removed - 1;
+			}
+		}
+
+		costRisk = Solution.round(costRisk);
+		worstCost = Solution.round(worstCost);
+	}
+
+	@Override
+	public int getCost()
+	{
+		return cost;
+	}
+
+	@Override
+	public double getCostRisk()
+	{
+		return costRisk;
+	}
+
+	@Override
+	public double getWorstCost()
+	{
+		return worstCost;
+	}
+
+	/**
+	 * Returns the requirements that would enter or leave the selection in a given word if a customer was flipped
+	 * (read-only, so that neighbors can be scored concurrently)
+	 */
+	private long getFlippedWord(int customerIndex, int word)
+	{
+		long bits = customerRequirementBits[customerIndex][word];
+
+		if (!customerSelection[customerIndex])
+			return bits & ~selectedRequirements[word];
+
+		for (int otherCustomer : overlappingCustomers[customerIndex])
+			if (customerSelection[otherCustomer])
+				bits &= ~customerRequirementBits[otherCustomer][word];
+
+		return bits;
+	}
+
+	@Override
+	public int getFlippedCost(int customerIndex)
+	{
+		int sum = 0;
+		for (int word : customerRequirementWords[customerIndex])
+		{
+			long changed = getFlippedWord(customerIndex, word);
+
+			while (changed != 0)
+			{
+				sum += project.getRequirementCost((word << 6) + Long.numberOfTrailingZeros(changed));
+				changed &= changed - 1;
+			}
+		}
+
+		return customerSelection[customerIndex] ? cost - sum : cost + sum;
+	}
+
+	@Override
+	public double getFlippedCostRisk(int customerIndex)
+	{
+		double sum = 0.0;
+		for (int word : customerRequirementWords[customerIndex])
+		{
+			long changed = getFlippedWord(customerIndex, word);
+
+			while (changed != 0)
+			{
+				sum += project.getRequirementCostRisk((word << 6) + Long.numberOfTrailingZeros(changed));
+				changed &= changed - 1;
+			}
+		}
+
+		return Solution.round(customerSelection[customerIndex] ? costRisk - sum : costRisk + sum);
+	}
+
+	@Override
+	public double getFlippedWorstCost(int customerIndex)
+	{
+		double sum = 0.0;
+		for (int word : customerRequirementWords[customerIndex])
+		{
+			long changed = getFlippedWord(customerIndex, word);
+
+			while (changed != 0)
+			{
+				sum += project.getRequirementWorstCost((word << 6) + Long.numberOfTrailingZeros(changed));
+				changed &= changed - 1;
+			}
+		}
+
+		return Solution.round(customerSelection[customerIndex] ? worstCost - sum : worstCost + sum);
+	}
+
+	@Override
+	public RequirementSelection copy(boolean[] customerSelection)
+	{
+		return new BitsetRequirementSelection(this, customerSelection);
+	}
+}
@@ -0,0 +1,204 @@
+package br.unirio.visualnrp.algorithm.search;
+
+import java.util.Arrays;
+
+import br.unirio.visualnrp.model.Project;
+import br.unirio.visualnrp.model.RequirementClosure;
+
+/**
+ * Requirement accounting that keeps the number of attended customers requiring each requirement
+ * 
+ * @author marciobarros
+ */
+public class CounterRequirementSelection implements RequirementSelection
+{
+	private Project project;
+	private int[] closureOffsets;
+	private int[] closureRequirements;
+	private boolean[] customerSelection;
+	private int[] currentRequirementSelection;
+	private int cost;
+	private double costRisk;
+	private double worstCost;
+
+	/**
+	 * Initializes the accounting, given a project and the customer selection array
+	 */
+	public CounterRequirementSelection(Project project, boolean[] customerSelection)
+	{
+		RequirementClosure closure = project.getRequirementClosure();
+		this.project = project;
+		this.closureOffsets = closure.getOffsets();
+		this.closureRequirements = closure.getRequirements();
+		this.customerSelection = customerSelection;
+		this.currentRequirementSelection = new int[project.getRequirementCount()];
+		this.cost = 0;
+		this.costRisk = 0.0;
+		this.worstCost = 0.0;
+	}
+
+	/**
+	 * Initializes the accounting as a copy of another one
+	 */
+	private CounterRequirementSelection(CounterRequirementSelection source, boolean[] customerSelection)
+	{
+		this.project = source.project;
+		this.closureOffsets = source.closureOffsets;
+		this.closureRequirements = source.closureRequirements;
+		this.customerSelection = customerSelection;
+		this.currentRequirementSelection = Arrays.copyOf(source.currentRequirementSelection, source.currentRequirementSelection.length);
+		this.cost = source.cost;
+		this.costRisk = source.costRisk;
+		this.worstCost = source.worstCost;
+	}
+
+	@Override
+	public void clear()
+	{
+		Arrays.fill(currentRequirementSelection, 0);
+		this.cost = 0;
+		this.costRisk = 0.0;
+		this.worstCost = 0.0;
+	}
+
+	@Override
+	public void addCustomer(int customerIndex)
+	{
+		int start = closureOffsets[customerIndex];
+		int end = closureOffsets[customerIndex + 1];
+
+		for (int i = start; i < end; i++)
+		{
+			int requirementIndex = closureRequirements[i];
+
+			if (currentRequirementSelection[requirementIndex] == 0)
+			{
+				cost += project.getRequirementCost(requirementIndex);
+				costRisk += project.getRequirementCostRisk(requirementIndex);
+				worstCost += project.getRequirementWorstCost(requirementIndex);
+			}
+			
+			currentRequirementSelection[requirementIndex]++;
+		}
+
+		costRisk = Solution.round(costRisk);
+		worstCost = Solution.round(worstCost);
+	}
+
+	@Override
+	public void removeCustomer(int customerIndex)
+	{
+		int start = closureOffsets[customerIndex];
+		int end = closureOffsets[customerIndex + 1];
+
+		for (int i = start; i < end; i++)
+		{
+			int requirementIndex = closureRequirements[i];
+
+			currentRequirementSelection[requirementIndex]--;
+
+			if (currentRequirementSelection[requirementIndex] == 0)
+			{
+				cost -= project.getRequirementCost(requirementIndex);
+				costRisk -= project.getRequirementCostRisk(requirementIndex);
+				worstCost -= project.getRequirementWorstCost(requirementIndex);
+			}
+		}
+		
+		costRisk = Solution.round(costRisk);
+		worstCost = Solution.round(worstCost);
+	}
+
+	@Override
+	public int getCost()
+	{
+		return cost;
+	}
+
+	@Override
+	public double getCostRisk()
+	{
+		return costRisk;
+	}
+
+	@Override
+	public double getWorstCost()
+	{
+		return worstCost;
+	}
+
+	@Override
+	public int getFlippedCost(int customerIndex)
+	{
+		int start = closureOffsets[customerIndex];
+		int end = closureOffsets[customerIndex + 1];
+		int result = cost;
+
+		if (customerSelection[customerIndex])
+		{
+			for (int i = start; i < end; i++)
+				if (currentRequirementSelection[closureRequirements[i]] == 1)
+					result -= project.getRequirementCost(closureRequirements[i]);
+		}
+		else
+		{
+			for (int i = start; i < end; i++)
+				if (currentRequirementSelection[closureRequirements[i]] == 0)
+					result += project.getRequirementCost(closureRequirements[i]);
+		}
+
+		return result;
+	}
+
+	@Override
+	public double getFlippedCostRisk(int customerIndex)
+	{
+		int start = closureOffsets[customerIndex];
+		int end = closureOffsets[customerIndex + 1];
+		double result = costRisk;
+
+		if (customerSelection[customerIndex])
+		{
+			for (int i = start; i < end; i++)
+				if (currentRequirementSelection[closureRequirements[i]] == 1)
+					result -= project.getRequirementCostRisk(closureRequirements[i]);
+		}
+		else
+		{
+			for (int i = start; i < end; i++)
+				if (currentRequirementSelection[closureRequirements[i]] == 0)
+					result += project.getRequirementCostRisk(closureRequirements[i]);
+		}
+
+		return Solution.round(result);
+	}
+
+	@Override
+	public double getFlippedWorstCost(int customerIndex)
+	{
+		int start = closureOffsets[customerIndex];
+		int end = closureOffsets[customerIndex + 1];
+		double result = worstCost;
+
+		if (customerSelection[customerIndex])
+		{
+			for (int i = start; i < end; i++)
+				if (currentRequirementSelection[closureRequirements[i]] == 1)
+					result -= project.getRequirementWorstCost(closureRequirements[i]);
+		}
+		else
+		{
+			for (int i = start; i < end; i++)
+				if (currentRequirementSelection[closureRequirements[i]] == 0)
+					result += project.getRequirementWorstCost(closureRequirements[i]);
+		}
+
+		return Solution.round(result);
+	}
+
+	@Override
+	public RequirementSelection copy(boolean[] customerSelection)
+	{
+		return new CounterRequirementSelection(this, customerSelection);
+	}
+}
@@ -0,0 +1,214 @@
+package br.unirio.visualnrp.algorithm.search;
+
+import java.util.Arrays;
+
+/**
+ * Class that keeps the fitness of recently evaluated solutions, keyed by their Zobrist hashes.
+ * The cache holds a fixed number of entries, evicted by the CLOCK algorithm: each entry has a
+ * reference bit, set when it is read, and the clock hand skips (and clears) referenced entries
+ * when looking for an entry to replace. Entries are found through an open-addressing index with
+ * linear probing. Instances are not synchronized.
+ *
+ * @author marciobarros
+ */
+public class FitnessCache
+{
+	private long[] entryHashes;
+	private double[] entryFitness;
+	private boolean[] entryReferenced;
+	private int[] index;
+	private int indexMask;
+	private int size;
+	private int hand;
+	private long hits;
+	private long misses;
+
+	/**
+	 * Initializes the cache, given the maximum number of entries
+	 */
+	public FitnessCache(int capacity)
+	{
+		int entries = Math.max(capacity, 1);
+		int indexSize = Integer.highestOneBit(Math.max(entries * 2 - 1, 1)) << 1;
+
+		this.entryHashes = new long[entries];
+		this.entryFitness = new double[entries];
+		this.entryReferenced = new boolean[entries];
+		this.index = new int[indexSize];
+		this.indexMask = indexSize - 1;
+		clear();
+	}
+
+	/**
+	 * Returns the maximum number of entries in the cache
+	 */
+	public int getCapacity()
+	{
+		return entryHashes.length;
+	}
+
+	/**
+	 * Returns the number of entries in the cache
+	 */
+	public int getSize()
+	{
+		return size;
+	}
+
+	/**
+	 * Returns the number of lookups that found the fitness of a solution
+	 */
+	public long getHits()
+	{
+		return hits;
+	}
+
+	/**
+	 * Returns the number of lookups that did not find the fitness of a solution
+	 */
+	public long getMisses()
+	{
+		return misses;
+	}
+
+	/**
+	 * Returns the fraction of lookups that found the fitness of a solution
+	 */
+	public double getHitRate()
+	{
+		long lookups = hits + misses;
+		return (lookups == 0) ? 0.0 : hits / (double) lookups;
+	}
+
+	/**
+	 * Removes all entries, keeping the hit counters
+	 */
+	public void clear()
+	{
+		Arrays.fill(index, -1);
+		Arrays.fill(entryReferenced, false);
+		this.size = 0;
+		this.hand = 0;
+	}
+
+	/**
+	 * Resets the hit counters, keeping the entries
+	 */
+	public void resetCounters()
+	{
+		this.hits = 0;
+		this.misses = 0;
+	}
+
+	/**
+	 * Returns the fitness of the solution with a given hash, or NaN if it is not in the cache
+	 */
+	public double get(long hash)
+	{
+		int position = findPosition(hash);
+		int entry = index[position];
+
+		if (entry < 0)
+		{
+			misses++;
+			return Double.NaN;
+		}
+
+		hits++;
+		entryReferenced[entry] = true;
+		return entryFitness[entry];
+	}
+
+	/**
+	 * Stores the fitness of the solution with a given hash, evicting an entry if the cache is full
+	 */
+	public void put(long hash, double fitness)
+	{
+		int position = findPosition(hash);
+
+		if (index[position] >= 0)
+		{
+			entryFitness[index[position]] = fitness;
+			return;
+		}
+
+		int entry;
+
+		if (size < entryHashes.length)
+		{
+			entry = size++;
+		}
+		else
+		{
+			entry = selectVictim();
+			removeFromIndex(entryHashes[entry]);
+			position = findPosition(hash);
+		}
+
+		entryHashes[entry] = hash;
+		entryFitness[entry] = fitness;
+		entryReferenced[entry] = false;
+		index[position] = entry;
+	}
+
+	/**
+	 * Moves the clock hand to the first entry not referenced since the last pass, clearing the reference bits on its way
+	 */
+	private int selectVictim()
+	{
+		while (entryReferenced[hand])
+		{
+			entryReferenced[hand] = false;
+			hand = (hand + 1) % entryHashes.length;
+		}
+
+		int victim = hand;
+		hand = (hand + 1) % entryHashes.length;
+		return victim;
+	}
+
+	/**
+	 * Returns the position of a hash in the index, or the empty position where it would be placed
+	 */
+	private int findPosition(long hash)
+	{
+		int position = mix(hash) & indexMask;
+
+		while (index[position] >= 0 && entryHashes[index[position]] != hash)
+			position = (position + 1) & indexMask;
+
+		return position;
+	}
+
+	/**
+	 * Removes a hash from the index, shifting back the entries that were displaced by it
+	 */
+	private void removeFromIndex(long hash)
+	{
+		int hole = findPosition(hash);
+		index[hole] = -1;
+		int position = (hole + 1) & indexMask;
+
+		while (index[position] >= 0)
+		{
+			int home = mix(entryHashes[index[position]]) & indexMask;
+
+			if (((position - home) & indexMask) >= ((position - hole) & indexMask))
+			{
+				index[hole] = index[position];
+				index[position] = -1;
+				hole = position;
+			}
+
+			position = (position + 1) & indexMask;
+		}
+	}
+
+	/**
+	 * Folds a hash into an integer
+	 */
+	private static int mix(long hash)
+	{
+		return (int) (hash ^ (hash >>> 32));
+	}
+}
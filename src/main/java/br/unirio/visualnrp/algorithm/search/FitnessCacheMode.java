@@ -0,0 +1,41 @@
+package br.unirio.visualnrp.algorithm.search;
+
+/**
+ * Enumeration of the ways a search may use a fitness cache
+ *
+ * @author marciobarros
+ */
+public enum FitnessCacheMode
+{
+	/**
+	 * Evaluates every solution
+	 */
+	DISABLED,
+
+	/**
+	 * Reuses the fitness of revisited solutions, still charging them against the evaluation budget
+	 */
+	SPEEDUP,
+
+	/**
+	 * Reuses the fitness of revisited solutions, charging only distinct evaluations against the budget
+	 */
+	DISTINCT_EVALUATIONS;
+
+	/**
+	 * Returns a mode, given its name ("off", "speedup" or "distinct")
+	 */
+	public static FitnessCacheMode get(String name)
+	{
+		if (name.equalsIgnoreCase("off"))
+			return DISABLED;
+
+		if (name.equalsIgnoreCase("speedup"))
+			return SPEEDUP;
+
+		if (name.equalsIgnoreCase("distinct"))
+			return DISTINCT_EVALUATIONS;
+
+		return null;
+	}
+}
@@ -5,6 +5,7 @@ import java.io.PrintWriter;
 import br.unirio.visualnrp.algorithm.constructor.Constructor;
 import br.unirio.visualnrp.calc.fitness.IFitnessCalculator;
 import br.unirio.visualnrp.model.Project;
+import br.unirio.visualnrp.support.PseudoRandom;
 
 /**
  * Hill Climbing searcher for the next release problem
@@ -26,9 +27,9 @@ public class HillClimbing extends SearchAlgorithm
 	/**
 	 * Initializes the Hill Climbing search process
 	 */
-	public HillClimbing(PrintWriter detailsFile, Project project, int maxEvaluations, Constructor constructor) throws Exception
+	public HillClimbing(PrintWriter detailsFile, Project project, int maxEvaluations, Constructor constructor, PseudoRandom random) throws Exception
 	{
-		super(detailsFile, project, maxEvaluations, constructor);
+		super(detailsFile, project, maxEvaluations, constructor, random);
 		this.randomRestartCount = 0;
 		this.restartBestFound = 0;
 	}
@@ -54,7 +55,7 @@ public class HillClimbing extends SearchAlgorithm
 	 */
 	public boolean[] execute(IFitnessCalculator calculator) throws Exception
 	{
-		Solution bestSolution = new Solution(getProject(), getConstructor().generateSolution());
+		Solution bestSolution = createSolution(getConstructor().generateSolution());
 		double bestFitness = evaluate(bestSolution, calculator, 0.0);
 
 		Solution solution = localSearch(bestSolution, calculator, bestFitness);
@@ -66,11 +67,11 @@ public class HillClimbing extends SearchAlgorithm
 			bestFitness = fitness;
 		}
 		
-		while (getEvaluationsConsumed() < getMaximumEvaluations())
+		while (!isSearchFinished())
 		{
 			this.randomRestartCount++;
 			
-			Solution startSolution = new Solution(getProject(), getConstructor().generateSolution());
+			Solution startSolution = createSolution(getConstructor().generateSolution());
 			solution = localSearch(startSolution, calculator, bestFitness);
 			fitness = calculator.evaluate(solution);
 			
@@ -0,0 +1,395 @@
+package br.unirio.visualnrp.algorithm.search;
+
+import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import br.unirio.visualnrp.algorithm.constructor.Constructor;
+import br.unirio.visualnrp.calc.fitness.IFitnessCalculator;
+import br.unirio.visualnrp.model.Project;
+import br.unirio.visualnrp.support.PseudoRandom;
+
+/**
+ * Island-model Iterated Local Search for the next release problem. Each island runs an ILS
+ * trajectory as a task of the pool shared by all searches, with its own random number stream and
+ * share of the evaluation budget. As the pool has one thread per processor, searches running in
+ * parallel (such as the cycles of an optimizer) do not add threads of their own. Islands run in
+ * epochs of a fixed number of evaluations: at the end of each epoch, an island posts its best
+ * solution to the mailbox of the next island in a ring, and it adopts the solution found in its
+ * own mailbox (if better than its best) when the next epoch starts. There are two mailboxes per
+ * island, used in alternate epochs, so that an island never reads a solution posted during the
+ * current epoch and the result does not depend on thread timing.
+ *
+ * @author marciobarros
+ */
+public class IslandIteratedLocalSearch extends SearchAlgorithm
+{
+	/**
+	 * Number of islands (trajectories running in parallel)
+	 */
+	private int islandCount;
+
+	/**
+	 * Number of evaluations performed by each island between migrations
+	 */
+	private int migrationInterval;
+
+	/**
+	 * How the islands use a cache of fitness values for revisited solutions
+	 */
+	private FitnessCacheMode islandCacheMode;
+
+	/**
+	 * Number of entries in the fitness cache of each island
+	 */
+	private int islandCacheCapacity;
+
+	/**
+	 * Islands created by the last execution of the search
+	 */
+	private List<Island> islands;
+
+	/**
+	 * Initializes the island search process
+	 */
+	public IslandIteratedLocalSearch(PrintWriter detailsFile, Project project, int maxEvaluations, int islandCount, int migrationInterval, Constructor constructor, PseudoRandom random) throws Exception
+	{
+		super(detailsFile, project, maxEvaluations, constructor, random);
+		this.islandCount = Math.max(islandCount, 1);
+		this.migrationInterval = Math.max(migrationInterval, 1);
+		this.islandCacheMode = FitnessCacheMode.DISABLED;
+		this.islandCacheCapacity = 0;
+		this.islands = new ArrayList<Island>();
+	}
+
+	/**
+	 * Returns the number of islands
+	 */
+	public int getIslandCount()
+	{
+		return islandCount;
+	}
+
+	/**
+	 * Returns the number of evaluations performed by each island between migrations
+	 */
+	public int getMigrationInterval()
+	{
+		return migrationInterval;
+	}
+
+	/**
+	 * Sets the fitness cache of the islands, as the search only evaluates solutions within them
+	 */
+	@Override
+	public void setFitnessCache(FitnessCacheMode mode, int capacity)
+	{
+		this.islandCacheMode = mode;
+		this.islandCacheCapacity = capacity;
+	}
+
+	/**
+	 * Returns how the islands use a cache of fitness values
+	 */
+	@Override
+	public FitnessCacheMode getFitnessCacheMode()
+	{
+		return islandCacheMode;
+	}
+
+	/**
+	 * Returns the number of fitness cache lookups that found the fitness of a solution, in all islands
+	 */
+	@Override
+	public long getFitnessCacheHits()
+	{
+		long sum = 0;
+
+		for (Island island : islands)
+			sum += island.getFitnessCacheHits();
+
+		return sum;
+	}
+
+	/**
+	 * Returns the number of fitness cache lookups that did not find the fitness of a solution, in all islands
+	 */
+	@Override
+	public long getFitnessCacheMisses()
+	{
+		long sum = 0;
+
+		for (Island island : islands)
+			sum += island.getFitnessCacheMisses();
+
+		return sum;
+	}
+
+	/**
+	 * Returns the number of moves skipped for exceeding the available budget, in all islands
+	 */
+	@Override
+	public long getPrunedMoves()
+	{
+		long sum = 0;
+
+		for (Island island : islands)
+			sum += island.getPrunedMoves();
+
+		return sum;
+	}
+
+	/**
+	 * Main loop of the algorithm
+	 */
+	public boolean[] execute(IFitnessCalculator calculator) throws Exception
+	{
+		AtomicReferenceArray<Migrant> mailboxes = new AtomicReferenceArray<Migrant>(2 * islandCount);
+		this.islands = createIslands(calculator, mailboxes);
+		List<Island> runningIslands = new ArrayList<Island>(islands);
+		double bestFitness = 0.0;
+
+		while (!runningIslands.isEmpty())
+		{
+			int evaluationsBefore = countEvaluations(islands);
+			runEpoch(runningIslands);
+
+			double epochFitness = bestFitness;
+
+			for (Island island : islands)
+				epochFitness = Math.max(epochFitness, island.bestFitness);
+
+			consumeEvaluations(countEvaluations(islands) - evaluationsBefore, epochFitness);
+			registerFitness(epochFitness);
+
+			if (epochFitness > bestFitness)
+			{
+				bestFitness = epochFitness;
+				setIterationBestFound(getEvaluationsConsumed());
+			}
+
+			if (isStoppedByCriterion())
+				break;
+
+			for (int i = runningIslands.size() - 1; i >= 0; i--)
+				if (runningIslands.get(i).isSearchFinished())
+					runningIslands.remove(i);
+		}
+
+		Island best = selectBestIsland(islands);
+
+		if (!isStoppedByCriterion() && best.isStoppedByCriterion())
+			setStopReason(best.getStopReason());
+
+		return best.bestSolution.getSolution();
+	}
+
+	/**
+	 * Creates the islands, splitting the random number stream and the evaluation budget among them
+	 */
+	private List<Island> createIslands(IFitnessCalculator calculator, AtomicReferenceArray<Migrant> mailboxes) throws Exception
+	{
+		List<Island> islands = new ArrayList<Island>(islandCount);
+		int budgetShare = getMaximumEvaluations() / islandCount;
+		int budgetRemainder = getMaximumEvaluations() % islandCount;
+
+		for (int i = 0; i < islandCount; i++)
+		{
+			int budget = budgetShare + ((i < budgetRemainder) ? 1 : 0);
+			boolean[] initialSolution = getConstructor().generateSolution();
+			Island island = new Island(getProject(), budget, getRandom().split(), initialSolution, calculator, mailboxes, i, (i + 1) % islandCount, migrationInterval);
+			island.setNeighborhoodMode(getNeighborhoodMode());
+			island.setSolutionBackend(getSolutionBackend());
+			island.setBudgetPruning(isBudgetPruning());
+			island.setFitnessCache(islandCacheMode, islandCacheCapacity);
+
+			for (TerminationCriterion criterion : getTerminationCriteria())
+				island.addTerminationCriterion(criterion);
+
+			islands.add(island);
+		}
+
+		return islands;
+	}
+
+	/**
+	 * Runs an epoch on each island in the shared pool, waiting for all of them to finish it
+	 */
+	private void runEpoch(List<Island> islands) throws Exception
+	{
+		List<Future<Void>> results = getSearchPool().invokeAll(islands);
+
+		for (Future<Void> result : results)
+		{
+			try
+			{
+				result.get();
+			}
+			catch (ExecutionException e)
+			{
+				if (e.getCause() instanceof Exception)
+					throw (Exception) e.getCause();
+
+				throw e;
+			}
+		}
+	}
+
+	/**
+	 * Counts the evaluations consumed by all islands
+	 */
+	private int countEvaluations(List<Island> islands)
+	{
+		int sum = 0;
+
+		for (Island island : islands)
+			sum += island.getEvaluationsConsumed();
+
+		return sum;
+	}
+
+	/**
+	 * Returns the island that found the best solution (ties broken by the lowest island)
+	 */
+	private Island selectBestIsland(List<Island> islands)
+	{
+		Island best = islands.get(0);
+
+		for (Island island : islands)
+			if (island.bestFitness > best.bestFitness)
+				best = island;
+
+		return best;
+	}
+
+	/**
+	 * Class that represents a solution sent from one island to another
+	 */
+	private static class Migrant
+	{
+		private boolean[] selection;
+		private double fitness;
+
+		public Migrant(boolean[] selection, double fitness)
+		{
+			this.selection = selection;
+			this.fitness = fitness;
+		}
+	}
+
+	/**
+	 * Class that represents an island, running an ILS trajectory one epoch at a time
+	 */
+	private static class Island extends IteratedLocalSearch implements Callable<Void>
+	{
+		private boolean[] initialSolution;
+		private IFitnessCalculator calculator;
+		private AtomicReferenceArray<Migrant> mailboxes;
+		private int inbox;
+		private int outbox;
+		private int migrationInterval;
+		private int epoch;
+		private Solution bestSolution;
+		private double bestFitness;
+
+		public Island(Project project, int maxEvaluations, PseudoRandom random, boolean[] initialSolution, IFitnessCalculator calculator, AtomicReferenceArray<Migrant> mailboxes, int inbox, int outbox, int migrationInterval) throws Exception
+		{
+			super(null, project, maxEvaluations, null, random);
+			this.initialSolution = initialSolution;
+			this.calculator = calculator;
+			this.mailboxes = mailboxes;
+			this.inbox = inbox;
+			this.outbox = outbox;
+			this.migrationInterval = migrationInterval;
+			this.epoch = 0;
+			this.bestSolution = null;
+			this.bestFitness = 0.0;
+		}
+
+		/**
+		 * Runs an epoch of the island
+		 */
+		@Override
+		public Void call() throws Exception
+		{
+			int epochEnd = getEvaluationsConsumed() + migrationInterval;
+
+			if (bestSolution == null)
+			{
+				bestSolution = createSolution(initialSolution);
+				bestFitness = evaluate(bestSolution, calculator, 0.0);
+				updateBestSolution(localSearch(bestSolution, calculator, bestFitness));
+			}
+			else
+			{
+				receiveMigrant();
+			}
+
+			while (getEvaluationsConsumed() < epochEnd && !isSearchFinished())
+			{
+				Solution startSolution = applyPerturbation(bestSolution);
+				updateBestSolution(localSearch(startSolution, calculator, bestFitness));
+			}
+
+			boolean[] selection = bestSolution.getSolution();
+			mailboxes.set(getMailbox(outbox, epoch), new Migrant(Arrays.copyOf(selection, selection.length), bestFitness));
+			epoch++;
+			return null;
+		}
+
+		/**
+		 * Returns the position of the mailbox used by an island in a given epoch
+		 */
+		private int getMailbox(int island, int epoch)
+		{
+			return (epoch % 2) * (mailboxes.length() / 2) + island;
+		}
+
+		/**
+		 * Replaces the best solution of the island by the one in its mailbox, if better
+		 */
+		private void receiveMigrant()
+		{
+			Migrant migrant = mailboxes.getAndSet(getMailbox(inbox, epoch - 1), null);
+
+			if (migrant != null && migrant.fitness > bestFitness)
+			{
+				bestSolution = createSolution(migrant.selection);
+				bestFitness = migrant.fitness;
+			}
+		}
+
+		/**
+		 * Replaces the best solution of the island by a given solution, if better
+		 */
+		private void updateBestSolution(Solution solution)
+		{
+			double fitness = calculator.evaluate(solution);
+
+			if (fitness > bestFitness)
+			{
+				bestSolution = solution;
+				bestFitness = fitness;
+			}
+		}
+
+		/**
+		 * Runs the island on its own under a given calculator, until its budget is consumed
+		 */
+		@Override
+		public boolean[] execute(IFitnessCalculator calculator) throws Exception
+		{
+			this.calculator = calculator;
+
+			while (!isSearchFinished())
+				call();
+
+			return bestSolution.getSolution();
+		}
+	}
+}
@@ -15,9 +15,9 @@ public class IteratedLocalSearch extends SearchAlgorithm
 	/**
 	 * Initializes the ILS search process
 	 */
-	public IteratedLocalSearch(PrintWriter detailsFile, Project project, int maxEvaluations, Constructor constructor) throws Exception
+	public IteratedLocalSearch(PrintWriter detailsFile, Project project, int maxEvaluations, Constructor constructor, PseudoRandom random) throws Exception
 	{
-		super(detailsFile, project, maxEvaluations, constructor);
+		super(detailsFile, project, maxEvaluations, constructor, random);
 	}
 
 	/**
@@ -25,7 +25,7 @@ public class IteratedLocalSearch extends SearchAlgorithm
 	 */
 	public boolean[] execute(IFitnessCalculator calculator) throws Exception
 	{
-		Solution bestSolution = new Solution(getProject(), getConstructor().generateSolution());
+		Solution bestSolution = createSolution(getConstructor().generateSolution());
 		double bestFitness = evaluate(bestSolution, calculator, 0.0);
 
 		Solution solution = localSearch(bestSolution, calculator, bestFitness);
@@ -37,7 +37,7 @@ public class IteratedLocalSearch extends SearchAlgorithm
 			bestFitness = fitness;
 		}
 		
-		while (getEvaluationsConsumed() < getMaximumEvaluations())
+		while (!isSearchFinished())
 		{
 			Solution startSolution = applyPerturbation(bestSolution);
 			solution = localSearch(startSolution, calculator, bestFitness);
@@ -56,7 +56,7 @@ public class IteratedLocalSearch extends SearchAlgorithm
 	/**
 	 * Applies the perturbation operator upon a solution
 	 */
-	private Solution applyPerturbation(Solution solution)
+	protected Solution applyPerturbation(Solution solution)
 	{
 		Solution perturbedSolution = solution.clone();
 		int customerCount = getProject().getCustomerCount();
@@ -64,7 +64,7 @@ public class IteratedLocalSearch extends SearchAlgorithm
 
 		for (int i = 0; i < amount; i++)
 		{
-			int customer = PseudoRandom.randInt(0, customerCount-1);
+			int customer = getRandom().nextInt(0, customerCount-1);
 			perturbedSolution.flipCustomer(customer);
 		}
 
@@ -0,0 +1,33 @@
+package br.unirio.visualnrp.algorithm.search;
+
+/**
+ * Enumeration of the strategies used to visit the neighborhood of a solution
+ *
+ * @author marciobarros
+ */
+public enum NeighborhoodMode
+{
+	/**
+	 * Visits neighbors in the selection order, moving to the first one better than the current solution
+	 */
+	FIRST_IMPROVEMENT,
+
+	/**
+	 * Scores all neighbors in parallel, moving to the best one if it is better than the current solution
+	 */
+	BEST_IMPROVEMENT;
+
+	/**
+	 * Returns a mode, given its name ("first" or "best")
+	 */
+	public static NeighborhoodMode get(String name)
+	{
+		if (name.equalsIgnoreCase("first"))
+			return FIRST_IMPROVEMENT;
+
+		if (name.equalsIgnoreCase("best"))
+			return BEST_IMPROVEMENT;
+
+		return null;
+	}
+}
@@ -0,0 +1,61 @@
+package br.unirio.visualnrp.algorithm.search;
+
+/**
+ * Interface for the accounting of the requirements selected by a solution. Implementations
+ * keep the cost, cost-related risk, and worst-case cost of the requirements required by the
+ * customers attended in the customer selection array they were created for.
+ * 
+ * @author marciobarros
+ */
+public interface RequirementSelection
+{
+	/**
+	 * Removes all requirements from the selection
+	 */
+	void clear();
+
+	/**
+	 * Adds the requirements of a customer, already marked as attended in the customer selection
+	 */
+	void addCustomer(int customerIndex);
+
+	/**
+	 * Removes the requirements of a customer, already marked as unattended in the customer selection
+	 */
+	void removeCustomer(int customerIndex);
+
+	/**
+	 * Returns the cost of the selected requirements
+	 */
+	int getCost();
+
+	/**
+	 * Returns the cost-related risk of the selected requirements
+	 */
+	double getCostRisk();
+
+	/**
+	 * Returns the worst-case cost of the selected requirements
+	 */
+	double getWorstCost();
+
+	/**
+	 * Returns the cost the selection would have if a customer was flipped
+	 */
+	int getFlippedCost(int customerIndex);
+
+	/**
+	 * Returns the cost-related risk the selection would have if a customer was flipped
+	 */
+	double getFlippedCostRisk(int customerIndex);
+
+	/**
+	 * Returns the worst-case cost the selection would have if a customer was flipped
+	 */
+	double getFlippedWorstCost(int customerIndex);
+
+	/**
+	 * Creates a copy of the selection, bound to a copy of the customer selection array
+	 */
+	RequirementSelection copy(boolean[] customerSelection);
+}
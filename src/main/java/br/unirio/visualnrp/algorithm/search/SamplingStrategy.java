@@ -0,0 +1,31 @@
+package br.unirio.visualnrp.algorithm.search;
+
+/**
+ * Enumeration of the strategies used by VISILS to sample the number of customers
+ *
+ * @author marciobarros
+ */
+public enum SamplingStrategy
+{
+	/**
+	 * Samples every number of customers, from one to the number of customers in the project
+	 */
+	EXHAUSTIVE,
+
+	/**
+	 * Samples the number of customers with a coarse stride, then refines the best stride by golden-section search
+	 */
+	ADAPTIVE;
+
+	/**
+	 * Returns a strategy, given its name (case insensitive), or null if there is no such strategy
+	 */
+	public static SamplingStrategy get(String name)
+	{
+		for (SamplingStrategy strategy : values())
+			if (strategy.name().equalsIgnoreCase(name))
+				return strategy;
+
+		return null;
+	}
+}
@@ -1,6 +1,11 @@
 package br.unirio.visualnrp.algorithm.search;
 
 import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveTask;
 
 import br.unirio.visualnrp.algorithm.constructor.Constructor;
 import br.unirio.visualnrp.calc.fitness.IFitnessCalculator;
@@ -16,6 +21,31 @@ import br.unirio.visualnrp.support.PseudoRandom;
 @SuppressWarnings("unused")
 public abstract class SearchAlgorithm 
 {
+	/**
+	 * Number of neighbors scored sequentially by each task in the best-improvement mode
+	 */
+	private static final int NEIGHBORS_PER_TASK = 64;
+
+	/**
+	 * Minimum number of evaluations between two readings of the clock by the termination criteria
+	 */
+	private static final int CLOCK_CHECK_INTERVAL = 256;
+
+	/**
+	 * Cost given for a neighbor whose cost was not calculated before its evaluation
+	 */
+	private static final int UNKNOWN_COST = -1;
+
+	/**
+	 * Pool shared by all searches to run their parallel tasks
+	 */
+	private static final ForkJoinPool SEARCH_POOL = new ForkJoinPool();
+
+	/**
+	 * Stop reason recorded when a search consumes its evaluation budget
+	 */
+	public static final String BUDGET_STOP_REASON = "evaluations";
+
 	/**
 	 * File where details of the search process will be printed
 	 */
@@ -36,6 +66,11 @@ public abstract class SearchAlgorithm
 	 */
 	private Constructor constructor;
 
+	/**
+	 * Random number generator used by the search
+	 */
+	private PseudoRandom random;
+
 	/**
 	 * Number of fitness evaluations executed
 	 */
@@ -51,21 +86,132 @@ public abstract class SearchAlgorithm
 	 */
 	private int[] selectionOrder;
 
+	/**
+	 * Strategy used to visit the neighborhood of a solution
+	 */
+	private NeighborhoodMode neighborhoodMode;
+
+	/**
+	 * Requirement accounting strategy of the solutions created by the search
+	 */
+	private SolutionBackend solutionBackend;
+
+	/**
+	 * Cache holding the fitness of recently evaluated solutions (null if disabled)
+	 */
+	private FitnessCache fitnessCache;
+
+	/**
+	 * Calculator whose fitness values are held by the cache
+	 */
+	private IFitnessCalculator fitnessCacheCalculator;
+
+	/**
+	 * How the search uses the fitness cache
+	 */
+	private FitnessCacheMode fitnessCacheMode;
+
+	/**
+	 * Whether moves that add a customer beyond the available budget are skipped without being evaluated
+	 */
+	private boolean budgetPruning;
+
+	/**
+	 * Number of moves skipped for exceeding the available budget
+	 */
+	private long prunedMoves;
+
+	/**
+	 * Positions of the selection order whose neighbors are scored in the best-improvement mode
+	 */
+	private int[] candidatePositions;
+
+	/**
+	 * Fitness of the neighbors scored in the best-improvement mode, NaN for those not found in the fitness cache
+	 */
+	private double[] candidateFitness;
+
+	/**
+	 * Costs of the neighbors scored in the best-improvement mode, calculated when they are checked for pruning
+	 */
+	private int[] candidateCosts;
+
+	/**
+	 * Conditions that may stop the search before its budget is consumed
+	 */
+	private List<TerminationCriterion> terminationCriteria;
+
+	/**
+	 * Name of the termination criterion that stopped the search (null if none did)
+	 */
+	private String stopReason;
+
+	/**
+	 * Time when the search was created, in nanoseconds
+	 */
+	private long startTime;
+
+	/**
+	 * Time elapsed since the search was created when the clock was last read, in milliseconds
+	 */
+	private long checkedElapsedTime;
+
+	/**
+	 * Number of evaluations consumed after which the clock is read again
+	 */
+	private int nextClockCheck;
+
+	/**
+	 * Best fitness found during the search
+	 */
+	private double bestFitnessFound;
+
+	/**
+	 * Number of evaluations consumed when the best fitness was found
+	 */
+	private int evaluationsBestFound;
+
 	/**
 	 * Initializes the Hill Climbing search process
 	 */
-	protected SearchAlgorithm(PrintWriter detailsFile, Project project, int maxEvaluations, Constructor constructor) throws Exception
+	protected SearchAlgorithm(PrintWriter detailsFile, Project project, int maxEvaluations, Constructor constructor, PseudoRandom random) throws Exception
 	{
 		this.project = project;
+		this.random = random;
 		this.maxEvaluations = maxEvaluations;
 		this.detailsFile = detailsFile;
 		this.evaluationsConsumed = 0;
 		this.iterationBestFound = 0;
 		this.constructor = constructor;
+		this.neighborhoodMode = NeighborhoodMode.FIRST_IMPROVEMENT;
+		this.solutionBackend = Solution.DEFAULT_BACKEND;
+		this.fitnessCache = null;
+		this.fitnessCacheCalculator = null;
+		this.fitnessCacheMode = FitnessCacheMode.DISABLED;
+		this.budgetPruning = false;
+		this.prunedMoves = 0;
+		this.candidatePositions = null;
+		this.candidateFitness = null;
+		this.candidateCosts = null;
+		this.terminationCriteria = new ArrayList<TerminationCriterion>();
+		this.stopReason = null;
+		this.startTime = System.nanoTime();
+		this.checkedElapsedTime = 0;
+		this.nextClockCheck = 0;
+		this.bestFitnessFound = Double.NEGATIVE_INFINITY;
+		this.evaluationsBestFound = 0;
 		createRandomSelectionOrder(project);
 		//checkRandomSelectionOrder(project);
 	}
 	
+	/**
+	 * Returns the pool shared by all searches to run their parallel tasks
+	 */
+	protected static ForkJoinPool getSearchPool()
+	{
+		return SEARCH_POOL;
+	}
+
 	/**
 	 * Returns the project being optimized
 	 */
@@ -73,6 +219,30 @@ public abstract class SearchAlgorithm
 	{
 		return project;
 	}
+
+	/**
+	 * Creates an empty solution for the project, under the requirement accounting strategy of the search
+	 */
+	protected Solution createSolution()
+	{
+		return new Solution(project, solutionBackend);
+	}
+
+	/**
+	 * Creates a solution for the project attending the selected customers, under the requirement accounting strategy of the search
+	 */
+	protected Solution createSolution(boolean[] selectedCustomers)
+	{
+		return new Solution(project, solutionBackend, selectedCustomers);
+	}
+	
+	/**
+	 * Returns the random number generator used by the search
+	 */
+	protected PseudoRandom getRandom()
+	{
+		return random;
+	}
 	
 	/**
 	 * Returns the solution constructor to be used
@@ -82,6 +252,185 @@ public abstract class SearchAlgorithm
 		return constructor;
 	}
 
+	/**
+	 * Returns the strategy used to visit the neighborhood of a solution
+	 */
+	public NeighborhoodMode getNeighborhoodMode()
+	{
+		return neighborhoodMode;
+	}
+
+	/**
+	 * Sets the strategy used to visit the neighborhood of a solution
+	 */
+	public void setNeighborhoodMode(NeighborhoodMode neighborhoodMode)
+	{
+		this.neighborhoodMode = neighborhoodMode;
+	}
+
+	/**
+	 * Returns the requirement accounting strategy of the solutions created by the search
+	 */
+	public SolutionBackend getSolutionBackend()
+	{
+		return solutionBackend;
+	}
+
+	/**
+	 * Sets the requirement accounting strategy of the solutions created by the search
+	 */
+	public void setSolutionBackend(SolutionBackend solutionBackend)
+	{
+		this.solutionBackend = solutionBackend;
+	}
+
+	/**
+	 * Returns the fitness cache used by the search (null if disabled)
+	 */
+	public FitnessCache getFitnessCache()
+	{
+		return fitnessCache;
+	}
+
+	/**
+	 * Returns the number of fitness cache lookups that found the fitness of a solution
+	 */
+	public long getFitnessCacheHits()
+	{
+		return (fitnessCache == null) ? 0 : fitnessCache.getHits();
+	}
+
+	/**
+	 * Returns the number of fitness cache lookups that did not find the fitness of a solution
+	 */
+	public long getFitnessCacheMisses()
+	{
+		return (fitnessCache == null) ? 0 : fitnessCache.getMisses();
+	}
+
+	/**
+	 * Returns how the search uses the fitness cache
+	 */
+	public FitnessCacheMode getFitnessCacheMode()
+	{
+		return fitnessCacheMode;
+	}
+
+	/**
+	 * Sets how the search uses a fitness cache with a given number of entries
+	 */
+	public void setFitnessCache(FitnessCacheMode mode, int capacity)
+	{
+		this.fitnessCache = (mode == FitnessCacheMode.DISABLED) ? null : new FitnessCache(capacity);
+		this.fitnessCacheCalculator = null;
+		this.fitnessCacheMode = mode;
+	}
+
+	/**
+	 * Checks whether moves that add a customer beyond the available budget are skipped without being evaluated
+	 */
+	public boolean isBudgetPruning()
+	{
+		return budgetPruning;
+	}
+
+	/**
+	 * Sets whether moves that add a customer beyond the available budget are skipped without being evaluated
+	 */
+	public void setBudgetPruning(boolean budgetPruning)
+	{
+		this.budgetPruning = budgetPruning;
+	}
+
+	/**
+	 * Returns the number of moves skipped for exceeding the available budget, not charged as evaluations
+	 */
+	public long getPrunedMoves()
+	{
+		return prunedMoves;
+	}
+
+	/**
+	 * Adds a condition that may stop the search before its budget is consumed
+	 */
+	public void addTerminationCriterion(TerminationCriterion criterion)
+	{
+		terminationCriteria.add(criterion);
+	}
+
+	/**
+	 * Returns the conditions that may stop the search before its budget is consumed
+	 */
+	public List<TerminationCriterion> getTerminationCriteria()
+	{
+		return terminationCriteria;
+	}
+
+	/**
+	 * Returns why the search stopped: the name of the termination criterion or the budget stop reason
+	 */
+	public String getStopReason()
+	{
+		return (stopReason != null) ? stopReason : BUDGET_STOP_REASON;
+	}
+
+	/**
+	 * Records the name of the termination criterion that stopped the search
+	 */
+	protected void setStopReason(String stopReason)
+	{
+		this.stopReason = stopReason;
+	}
+
+	/**
+	 * Checks whether the search was stopped by a termination criterion
+	 */
+	protected boolean isStoppedByCriterion()
+	{
+		return stopReason != null;
+	}
+
+	/**
+	 * Checks whether the search has consumed its budget or was stopped by a termination criterion
+	 */
+	public boolean isSearchFinished()
+	{
+		return evaluationsConsumed >= maxEvaluations || stopReason != null;
+	}
+
+	/**
+	 * Returns the time elapsed since the search was created, in milliseconds
+	 */
+	public long getElapsedTime()
+	{
+		return (System.nanoTime() - startTime) / 1000000L;
+	}
+
+	/**
+	 * Returns the time elapsed since the search was created, in milliseconds, as of the last reading of the
+	 * clock. The clock is read while checking the termination criteria, once every few evaluations.
+	 */
+	public long getCheckedElapsedTime()
+	{
+		return checkedElapsedTime;
+	}
+
+	/**
+	 * Returns the best fitness found during the search
+	 */
+	public double getBestFitnessFound()
+	{
+		return bestFitnessFound;
+	}
+
+	/**
+	 * Returns the number of evaluations consumed since the best fitness was found
+	 */
+	public int getEvaluationsSinceImprovement()
+	{
+		return evaluationsConsumed - evaluationsBestFound;
+	}
+
 	/**
 	 * Returns the number of evaluations consumed during the search
 	 */
@@ -137,8 +486,8 @@ public abstract class SearchAlgorithm
 
 		for (int i = 0; i < customerCount; i++)
 		{
-			double random = PseudoRandom.randDouble();
-			int index = (int) (random * (customerCount - i));
+			double value = random.nextDouble();
+			int index = (int) (value * (customerCount - i));
 			this.selectionOrder[i] = temporaryOrder[index];
 
 			for (int j = index; j < customerCount - 1; j++)
@@ -171,12 +520,179 @@ public abstract class SearchAlgorithm
 	 */
 	protected double evaluate(Solution solution, IFitnessCalculator calculator, double bestFitness)
 	{
-		if (++evaluationsConsumed % 10000 == 0 && detailsFile != null)
+		double fitness;
+
+		if (fitnessCache == null)
+		{
+			consumeEvaluations(1, bestFitness);
+			fitness = calculator.evaluate(solution);
+		}
+		else
+		{
+			fitness = getCachedFitness(solution.getHash(), calculator, bestFitness);
+
+			if (Double.isNaN(fitness))
+			{
+				fitness = calculator.evaluate(solution);
+				fitnessCache.put(solution.getHash(), fitness);
+			}
+		}
+
+		registerFitness(fitness);
+		return fitness;
+	}
+
+	/**
+	 * Evaluates the fitness of the neighbor obtained by flipping a customer, without changing the solution,
+	 * given the cost of the neighbor if it was already calculated (UNKNOWN_COST otherwise)
+	 */
+	protected double evaluateFlip(Solution solution, int customer, int flippedCost, IFitnessCalculator calculator, double bestFitness)
+	{
+		double fitness;
+
+		if (fitnessCache == null)
+		{
+			consumeEvaluations(1, bestFitness);
+			fitness = deltaEvaluate(solution, customer, flippedCost, calculator);
+		}
+		else
+		{
+			long hash = solution.getFlippedHash(customer);
+			fitness = getCachedFitness(hash, calculator, bestFitness);
+
+			if (Double.isNaN(fitness))
+			{
+				fitness = deltaEvaluate(solution, customer, flippedCost, calculator);
+				fitnessCache.put(hash, fitness);
+			}
+		}
+
+		registerFitness(fitness);
+		return fitness;
+	}
+
+	/**
+	 * Evaluates the neighbor obtained by flipping a customer, reusing its cost if already calculated
+	 */
+	private static double deltaEvaluate(Solution solution, int customer, int flippedCost, IFitnessCalculator calculator)
+	{
+		if (flippedCost == UNKNOWN_COST)
+			return calculator.deltaEvaluate(solution, customer);
+
+		return calculator.deltaEvaluate(solution, customer, flippedCost);
+	}
+
+	/**
+	 * Looks up the fitness of a solution in the cache (NaN if missing), charging the evaluation as required
+	 */
+	private double getCachedFitness(long hash, IFitnessCalculator calculator, double bestFitness)
+	{
+		double fitness = lookupFitness(hash, calculator);
+
+		if (isCharged(fitness))
+			consumeEvaluations(1, bestFitness);
+
+		return fitness;
+	}
+
+	/**
+	 * Looks up the fitness of a solution in the cache (NaN if missing), emptying it if the calculator has changed
+	 */
+	private double lookupFitness(long hash, IFitnessCalculator calculator)
+	{
+		if (fitnessCacheCalculator != calculator)
+		{
+			fitnessCache.clear();
+			fitnessCacheCalculator = calculator;
+		}
+
+		return fitnessCache.get(hash);
+	}
+
+	/**
+	 * Checks whether a solution is charged against the budget, given the fitness found for it in the cache
+	 */
+	private boolean isCharged(double cachedFitness)
+	{
+		return Double.isNaN(cachedFitness) || fitnessCacheMode != FitnessCacheMode.DISTINCT_EVALUATIONS;
+	}
+
+	/**
+	 * Accounts for a number of fitness evaluations performed at once, saving detail information
+	 */
+	protected void consumeEvaluations(int count, double bestFitness)
+	{
+		for (int i = 0; i < count; i++)
+		{
+			if (++evaluationsConsumed % 10000 == 0 && detailsFile != null)
+			{
+				detailsFile.println(evaluationsConsumed + "; " + bestFitness);
+			}
+		}
+	}
+
+	/**
+	 * Records the fitness of an evaluated solution and checks the termination criteria
+	 */
+	protected void registerFitness(double fitness)
+	{
+		if (fitness > bestFitnessFound)
+		{
+			bestFitnessFound = fitness;
+			evaluationsBestFound = evaluationsConsumed;
+		}
+
+		if (stopReason != null)
+			return;
+
+		if (evaluationsConsumed >= nextClockCheck)
 		{
-			detailsFile.println(evaluationsConsumed + "; " + bestFitness);
+			checkedElapsedTime = getElapsedTime();
+			nextClockCheck = evaluationsConsumed + CLOCK_CHECK_INTERVAL;
 		}
 
-		return calculator.evaluate(solution);
+		for (int i = 0; i < terminationCriteria.size(); i++)
+		{
+			TerminationCriterion criterion = terminationCriteria.get(i);
+
+			if (criterion.isSatisfied(this))
+			{
+				stopReason = criterion.getName();
+				return;
+			}
+		}
+	}
+
+	/**
+	 * Checks whether the neighbor obtained by flipping a customer may be visited
+	 */
+	protected boolean isNeighborAllowed(Solution solution, int customer, int attendedCustomers)
+	{
+		return true;
+	}
+
+	/**
+	 * Returns the cost of the neighbor obtained by flipping a customer, if it is required to check whether
+	 * the neighbor is pruned, so that it is calculated once for the check and the evaluation
+	 */
+	private int getPruningCost(Solution solution, int customer)
+	{
+		return budgetPruning ? solution.getFlippedCost(customer) : UNKNOWN_COST;
+	}
+
+	/**
+	 * Checks whether the neighbor obtained by flipping a customer should be skipped for exceeding the
+	 * available budget. Removing a customer never raises the cost, while a neighbor that adds one beyond
+	 * the budget is worse than the solution under every fitness calculator, so skipping it never changes
+	 * the move taken, but it is not charged against the evaluation budget.
+	 */
+	private boolean isNeighborPruned(Solution solution, int customer, int flippedCost, IFitnessCalculator calculator)
+	{
+		if (!budgetPruning || solution.isCustomerAttended(customer) || flippedCost <= calculator.getAvailableBudget())
+			return false;
+
+		prunedMoves++;
+		return true;
 	}
 
 	/**
@@ -184,38 +700,141 @@ public abstract class SearchAlgorithm
 	 */
 	protected NeighborhoodVisitorResult visitNeighbors(Solution solution, IFitnessCalculator calculator, double bestFitness)
 	{
+		if (neighborhoodMode == NeighborhoodMode.BEST_IMPROVEMENT)
+			return visitBestNeighbor(solution, calculator, bestFitness);
+
 		double startingFitness = evaluate(solution, calculator, bestFitness);
 
-		if (evaluationsConsumed > maxEvaluations)
+		if (evaluationsConsumed > maxEvaluations || stopReason != null)
 		{
 			return new NeighborhoodVisitorResult(NeighborhoodVisitorStatus.SEARCH_EXHAUSTED);
 		}
 
 		int customerCount = project.getCustomerCount();
+		int attendedCustomers = solution.countAttendedCustomers();
 
 		for (int i = 0; i < customerCount; i++)
 		{
 			int customerI = selectionOrder[i];
-			
-			solution.flipCustomer(customerI);
-			double neighborFitness = evaluate(solution, calculator, bestFitness);
 
-			if (evaluationsConsumed > maxEvaluations)
+			if (isNeighborAllowed(solution, customerI, attendedCustomers))
 			{
-				return new NeighborhoodVisitorResult(NeighborhoodVisitorStatus.SEARCH_EXHAUSTED);
+				int flippedCost = getPruningCost(solution, customerI);
+
+				if (!isNeighborPruned(solution, customerI, flippedCost, calculator))
+				{
+					double neighborFitness = evaluateFlip(solution, customerI, flippedCost, calculator, bestFitness);
+
+					if (evaluationsConsumed > maxEvaluations)
+					{
+						solution.flipCustomer(customerI);
+						return new NeighborhoodVisitorResult(NeighborhoodVisitorStatus.SEARCH_EXHAUSTED);
+					}
+
+					if (stopReason != null)
+					{
+						if (neighborFitness > startingFitness)
+							solution.flipCustomer(customerI);
+
+						return new NeighborhoodVisitorResult(NeighborhoodVisitorStatus.SEARCH_EXHAUSTED);
+					}
+
+					if (neighborFitness > startingFitness)
+					{
+						solution.flipCustomer(customerI);
+						return new NeighborhoodVisitorResult(NeighborhoodVisitorStatus.FOUND_BETTER_NEIGHBOR, neighborFitness);
+					}
+				}
 			}
+		}
+
+		return new NeighborhoodVisitorResult(NeighborhoodVisitorStatus.NO_BETTER_NEIGHBOR);
+	}
+
+	/**
+	 * Scores all neighbors of a solution in parallel and moves to the best one, if it improves the solution.
+	 * Ties are broken by the selection order, so that the result does not depend on the number of threads.
+	 * Neighbors are looked up in the fitness cache before scoring, so that only those not found are scored
+	 * and, when distinct evaluations are counted, charged against the budget.
+	 */
+	private NeighborhoodVisitorResult visitBestNeighbor(Solution solution, IFitnessCalculator calculator, double bestFitness)
+	{
+		double startingFitness = evaluate(solution, calculator, bestFitness);
+
+		if (evaluationsConsumed >= maxEvaluations || stopReason != null)
+		{
+			return new NeighborhoodVisitorResult(NeighborhoodVisitorStatus.SEARCH_EXHAUSTED);
+		}
 
-			if (neighborFitness > startingFitness)
+		int customerCount = project.getCustomerCount();
+		int attendedCustomers = solution.countAttendedCustomers();
+		int availableEvaluations = maxEvaluations - evaluationsConsumed;
+		int visitedPositions = customerCount;
+		int allowedNeighbors = 0;
+		int chargedNeighbors = 0;
+
+		if (candidatePositions == null)
+		{
+			candidatePositions = new int[customerCount];
+			candidateFitness = new double[customerCount];
+			candidateCosts = new int[customerCount];
+		}
+
+		for (int i = 0; i < customerCount && visitedPositions == customerCount; i++)
+		{
+			int customer = selectionOrder[i];
+
+			if (isNeighborAllowed(solution, customer, attendedCustomers))
 			{
-				return new NeighborhoodVisitorResult(NeighborhoodVisitorStatus.FOUND_BETTER_NEIGHBOR, neighborFitness);
+				int flippedCost = getPruningCost(solution, customer);
+
+				if (!isNeighborPruned(solution, customer, flippedCost, calculator))
+				{
+					double fitness = (fitnessCache == null) ? Double.NaN : lookupFitness(solution.getFlippedHash(customer), calculator);
+					candidatePositions[allowedNeighbors] = i;
+					candidateFitness[allowedNeighbors] = fitness;
+					candidateCosts[allowedNeighbors] = flippedCost;
+					allowedNeighbors++;
+
+					if ((fitnessCache == null || isCharged(fitness)) && ++chargedNeighbors >= availableEvaluations)
+						visitedPositions = i + 1;
+				}
 			}
-
-			solution.flipCustomer(customerI);
 		}
 
+		BestNeighborTask task = new BestNeighborTask(solution, calculator, 0, allowedNeighbors);
+		BestNeighbor best = ForkJoinTask.inForkJoinPool() ? task.invoke() : SEARCH_POOL.invoke(task);
+		consumeEvaluations(chargedNeighbors, bestFitness);
+
+		if (fitnessCache != null)
+			cacheScoredNeighbors(solution, allowedNeighbors);
+
+		if (best != null)
+			registerFitness(best.fitness);
+
+		boolean improved = best != null && best.fitness > startingFitness;
+
+		if (improved)
+			solution.flipCustomer(selectionOrder[best.position]);
+
+		if (visitedPositions < customerCount || evaluationsConsumed >= maxEvaluations || stopReason != null)
+			return new NeighborhoodVisitorResult(NeighborhoodVisitorStatus.SEARCH_EXHAUSTED);
+
+		if (improved)
+			return new NeighborhoodVisitorResult(NeighborhoodVisitorStatus.FOUND_BETTER_NEIGHBOR, best.fitness);
+
 		return new NeighborhoodVisitorResult(NeighborhoodVisitorStatus.NO_BETTER_NEIGHBOR);
 	}
 
+	/**
+	 * Stores the fitness of the neighbors visited in the best-improvement mode, after their scoring tasks are done
+	 */
+	private void cacheScoredNeighbors(Solution solution, int allowedNeighbors)
+	{
+		for (int i = 0; i < allowedNeighbors; i++)
+			fitnessCache.put(solution.getFlippedHash(selectionOrder[candidatePositions[i]]), candidateFitness[i]);
+	}
+
 	/**
 	 * Performs the local search starting from a given solution
 	 */
@@ -246,6 +865,80 @@ public abstract class SearchAlgorithm
 	 */
 	public abstract boolean[] execute(IFitnessCalculator calculator) throws Exception;
 
+	/**
+	 * Class that represents the best neighbor found in a range of the selection order
+	 */
+	private static class BestNeighbor
+	{
+		private int position;
+		private double fitness;
+
+		public BestNeighbor(int position, double fitness)
+		{
+			this.position = position;
+			this.fitness = fitness;
+		}
+	}
+
+	/**
+	 * Task that scores the neighbors in a range of the candidate positions, without changing the solution
+	 */
+	private class BestNeighborTask extends RecursiveTask<BestNeighbor>
+	{
+		private static final long serialVersionUID = 1L;
+
+		private Solution solution;
+		private IFitnessCalculator calculator;
+		private int start;
+		private int end;
+
+		public BestNeighborTask(Solution solution, IFitnessCalculator calculator, int start, int end)
+		{
+			this.solution = solution;
+			this.calculator = calculator;
+			this.start = start;
+			this.end = end;
+		}
+
+		@Override
+		protected BestNeighbor compute()
+		{
+			if (end - start > NEIGHBORS_PER_TASK)
+			{
+				int middle = (start + end) >>> 1;
+				BestNeighborTask left = new BestNeighborTask(solution, calculator, start, middle);
+				BestNeighborTask right = new BestNeighborTask(solution, calculator, middle, end);
+				left.fork();
+				BestNeighbor rightResult = right.compute();
+				BestNeighbor leftResult = left.join();
+
+				if (leftResult == null || (rightResult != null && rightResult.fitness > leftResult.fitness))
+					return rightResult;
+
+				return leftResult;
+			}
+
+			BestNeighbor best = null;
+
+			for (int i = start; i < end; i++)
+			{
+				int position = candidatePositions[i];
+				double fitness = candidateFitness[i];
+
+				if (Double.isNaN(fitness))
+				{
+					fitness = deltaEvaluate(solution, selectionOrder[position], candidateCosts[i], calculator);
+					candidateFitness[i] = fitness;
+				}
+
+				if (best == null || fitness > best.fitness)
+					best = new BestNeighbor(position, fitness);
+			}
+
+			return best;
+		}
+	}
+
 	/**
 	 * Set of potential results from visiting neighbors
 	 */
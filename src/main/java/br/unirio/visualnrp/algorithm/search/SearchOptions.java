@@ -0,0 +1,212 @@
+package br.unirio.visualnrp.algorithm.search;
+
+/**
+ * Class that holds the options used to configure the search algorithms created for an optimization
+ * 
+ * @author marciobarros
+ */
+public class SearchOptions
+{
+	/**
+	 * Strategy used by the searches to visit the neighborhood of a solution
+	 */
+	private NeighborhoodMode neighborhoodMode = NeighborhoodMode.FIRST_IMPROVEMENT;
+
+	/**
+	 * Requirement accounting strategy of the solutions created by the searches
+	 */
+	private SolutionBackend solutionBackend = Solution.DEFAULT_BACKEND;
+
+	/**
+	 * How the searches use a cache of fitness values for revisited solutions
+	 */
+	private FitnessCacheMode fitnessCacheMode = FitnessCacheMode.DISABLED;
+
+	/**
+	 * Number of entries in the fitness cache of each search
+	 */
+	private int fitnessCacheSize = 1 << 16;
+
+	/**
+	 * Whether the searches skip, without charging them, the moves that add a customer beyond the available budget
+	 */
+	private boolean budgetPruning = false;
+
+	/**
+	 * Strategy used by the VISILS searches to sample the number of customers
+	 */
+	private SamplingStrategy samplingStrategy = SamplingStrategy.EXHAUSTIVE;
+
+	/**
+	 * Number of islands of the island-model ILS searches
+	 */
+	private int islandCount = 4;
+
+	/**
+	 * Number of evaluations performed by each island between migrations
+	 */
+	private int migrationInterval = 50000;
+
+	/**
+	 * Maximum running time of each search, in milliseconds (zero for no limit)
+	 */
+	private long timeLimit = 0;
+
+	/**
+	 * Maximum number of evaluations without improvement in each search (zero for no limit)
+	 */
+	private int stagnationLimit = 0;
+
+	/**
+	 * Returns the strategy used by the searches to visit the neighborhood of a solution
+	 */
+	public NeighborhoodMode getNeighborhoodMode()
+	{
+		return neighborhoodMode;
+	}
+
+	/**
+	 * Sets the strategy used by the searches to visit the neighborhood of a solution
+	 */
+	public void setNeighborhoodMode(NeighborhoodMode neighborhoodMode)
+	{
+		this.neighborhoodMode = neighborhoodMode;
+	}
+
+	/**
+	 * Returns the requirement accounting strategy of the solutions created by the searches
+	 */
+	public SolutionBackend getSolutionBackend()
+	{
+		return solutionBackend;
+	}
+
+	/**
+	 * Sets the requirement accounting strategy of the solutions created by the searches
+	 */
+	public void setSolutionBackend(SolutionBackend solutionBackend)
+	{
+		this.solutionBackend = solutionBackend;
+	}
+
+	/**
+	 * Returns how the searches use a cache of fitness values
+	 */
+	public FitnessCacheMode getFitnessCacheMode()
+	{
+		return fitnessCacheMode;
+	}
+
+	/**
+	 * Returns the number of entries in the fitness cache of each search
+	 */
+	public int getFitnessCacheSize()
+	{
+		return fitnessCacheSize;
+	}
+
+	/**
+	 * Sets how the searches use a cache of fitness values and the number of entries in the cache of each search
+	 */
+	public void setFitnessCache(FitnessCacheMode fitnessCacheMode, int fitnessCacheSize)
+	{
+		this.fitnessCacheMode = fitnessCacheMode;
+		this.fitnessCacheSize = fitnessCacheSize;
+	}
+
+	/**
+	 * Determines whether the searches skip the moves that add a customer beyond the available budget
+	 */
+	public boolean isBudgetPruning()
+	{
+		return budgetPruning;
+	}
+
+	/**
+	 * Sets whether the searches skip the moves that add a customer beyond the available budget
+	 */
+	public void setBudgetPruning(boolean budgetPruning)
+	{
+		this.budgetPruning = budgetPruning;
+	}
+
+	/**
+	 * Returns the strategy used by the VISILS searches to sample the number of customers
+	 */
+	public SamplingStrategy getSamplingStrategy()
+	{
+		return samplingStrategy;
+	}
+
+	/**
+	 * Sets the strategy used by the VISILS searches to sample the number of customers
+	 */
+	public void setSamplingStrategy(SamplingStrategy samplingStrategy)
+	{
+		this.samplingStrategy = samplingStrategy;
+	}
+
+	/**
+	 * Returns the number of islands of the island-model ILS searches
+	 */
+	public int getIslandCount()
+	{
+		return islandCount;
+	}
+
+	/**
+	 * Sets the number of islands of the island-model ILS searches
+	 */
+	public void setIslandCount(int islandCount)
+	{
+		this.islandCount = islandCount;
+	}
+
+	/**
+	 * Returns the number of evaluations performed by each island between migrations
+	 */
+	public int getMigrationInterval()
+	{
+		return migrationInterval;
+	}
+
+	/**
+	 * Sets the number of evaluations performed by each island between migrations
+	 */
+	public void setMigrationInterval(int migrationInterval)
+	{
+		this.migrationInterval = migrationInterval;
+	}
+
+	/**
+	 * Returns the maximum running time of each search, in milliseconds (zero for no limit)
+	 */
+	public long getTimeLimit()
+	{
+		return timeLimit;
+	}
+
+	/**
+	 * Sets the maximum running time of each search, in milliseconds (zero for no limit)
+	 */
+	public void setTimeLimit(long timeLimit)
+	{
+		this.timeLimit = timeLimit;
+	}
+
+	/**
+	 * Returns the maximum number of evaluations without improvement in each search (zero for no limit)
+	 */
+	public int getStagnationLimit()
+	{
+		return stagnationLimit;
+	}
+
+	/**
+	 * Sets the maximum number of evaluations without improvement in each search (zero for no limit)
+	 */
+	public void setStagnationLimit(int stagnationLimit)
+	{
+		this.stagnationLimit = stagnationLimit;
+	}
+}
@@ -12,141 +12,105 @@ import br.unirio.visualnrp.model.Project;
 @SuppressWarnings("unused")
 public class Solution
 {
+	/**
+	 * Requirement accounting strategy used by solutions created without an explicit one
+	 */
+	public static final SolutionBackend DEFAULT_BACKEND = SolutionBackend.COUNTER;
+	
 	private Project project;
-	private int[][] customerRequirementsPrecedences;
-	private int[] currentRequirementSelection;
 	private boolean[] currentCustomerSelection;
-	private int cost;
+	private RequirementSelection requirementSelection;
 	private int profit;
 	private double profitRisk;
-	private double costRisk;
-	private double worstCost;
 	
 	/**
-	 * Initializes the solution, given a project
+	 * Customers split into attended ones (the first attendedCount positions) and unattended ones
 	 */
-	public Solution(Project project)
-	{
-		this.project = project;
-
-		prepareCustomersRequirementPrecedences();
-		//checkConsistency(project);
-		
-		int customerCount = project.getCustomerCount();
-		this.currentCustomerSelection = new boolean[customerCount];
-		
-		int requirementCount = project.getRequirementCount();
-		this.currentRequirementSelection = new int[requirementCount];
-		
-		this.cost = 0;
-		this.profit = 0;
-		this.profitRisk = 0.0;
-		this.costRisk = 0.0;
-		this.worstCost = 0.0;
-	}
+	private int[] customersByAttendance;
+	
+	/**
+	 * Position of each customer in the customersByAttendance array
+	 */
+	private int[] attendancePositions;
+	
+	/**
+	 * Number of customers attended by the solution
+	 */
+	private int attendedCount;
+	
+	/**
+	 * Zobrist hash of the customer selection (the exclusive or of the keys of the attended customers)
+	 */
+	private long hash;
 	
 	/**
 	 * Initializes the solution, given a project
 	 */
-	public Solution(Project project, boolean[] selectedCustomers)
+	public Solution(Project project)
 	{
-		this(project);
-		setAllCustomers(selectedCustomers);
+		this(project, DEFAULT_BACKEND);
 	}
 	
 	/**
-	 * Initializes the solution, given a solution
+	 * Initializes the solution, given a project and a requirement accounting strategy
 	 */
-	public Solution(Solution source)
+	public Solution(Project project, SolutionBackend backend)
 	{
-		this.project = source.project;
+		this.project = project;
+		//checkConsistency(project);
 		
 		int customerCount = project.getCustomerCount();
-		this.currentCustomerSelection = Arrays.copyOf(source.currentCustomerSelection, customerCount);
-
-		int requirementCount = project.getRequirementCount();
-		this.currentRequirementSelection = Arrays.copyOf(source.currentRequirementSelection, requirementCount);
+		this.currentCustomerSelection = new boolean[customerCount];
+		this.requirementSelection = backend.createRequirementSelection(project, currentCustomerSelection);
 		
-		this.customerRequirementsPrecedences = source.customerRequirementsPrecedences;
+		this.profit = 0;
+		this.profitRisk = 0.0;
 		
-		this.cost = source.cost;
-		this.profit = source.profit;
-		this.profitRisk = source.profitRisk;
-		this.costRisk = source.costRisk;
-		this.worstCost = source.worstCost;
-	}
-	
-	/**
-	 * Prepare the lists of precedent requirements for all customers
-	 */
-	private void prepareCustomersRequirementPrecedences()
-	{
-		int customerCount = project.getCustomerCount();
-		int requirementCount = project.getRequirementCount();
-		this.customerRequirementsPrecedences = new int[customerCount][requirementCount+1];
+		this.customersByAttendance = new int[customerCount];
+		this.attendancePositions = new int[customerCount];
+		this.attendedCount = 0;
+		this.hash = 0;
 		
 		for (int i = 0; i < customerCount; i++)
-			prepareCustomerRequirementPrecedence(project, i);
+		{
+			customersByAttendance[i] = i;
+			attendancePositions[i] = i;
+		}
 	}
 	
 	/**
-	 * Prepare the list of precedent requirements for a given customer
+	 * Initializes the solution, given a project
 	 */
-	private void prepareCustomerRequirementPrecedence(Project project, int customerIndex)
+	public Solution(Project project, boolean[] selectedCustomers)
 	{
-		int customerRequirementCount = project.getCustomerRequirementsCount(customerIndex);
-		int position = 0;
-		
-		for (int i = 0; i < customerRequirementCount; i++)
-		{
-			int requirementIndex = project.getCustomerRequirementIndex(customerIndex, i);
-
-			if (requirementIndex >= 0)
-				position = prepareCustomerRequirementAndPrecedents(project, customerIndex, requirementIndex, position);
-		}
-		
-		this.customerRequirementsPrecedences[customerIndex][position] = -1;
+		this(project, DEFAULT_BACKEND, selectedCustomers);
 	}
 	
 	/**
-	 * Prepare the list of precedent requirements for a given customer from a given requirement
+	 * Initializes the solution, given a project, a requirement accounting strategy and the selected customers
 	 */
-	private int prepareCustomerRequirementAndPrecedents(Project project, int customerIndex, int requirementIndex, int position)
+	public Solution(Project project, SolutionBackend backend, boolean[] selectedCustomers)
 	{
-		if (checkCustomerHasRequirement(customerIndex, requirementIndex, position))
-			return position;
-		
-		this.customerRequirementsPrecedences[customerIndex][position] = requirementIndex;
-		position++;
-
-		if (project.requirementHasPrecedents(requirementIndex))
-		{
-			int dependencies = project.getRequirementPrecedentsCount(requirementIndex);
-			
-			for (int i = 0; i < dependencies; i++)
-			{
-				int source = project.getRequirementPrecedentIndex(requirementIndex, i);
-				
-				if (source >= 0)
-					position = prepareCustomerRequirementAndPrecedents(project, customerIndex, source, position);
-			}
-		}
-		
-		return position;
+		this(project, backend);
+		setAllCustomers(selectedCustomers);
 	}
 	
 	/**
-	 * Checks whether a customer has a given requirement in the precedence list being built
+	 * Initializes the solution, given a solution
 	 */
-	private boolean checkCustomerHasRequirement(int customerIndex, int requirementIndex, int maxPosition)
+	public Solution(Solution source)
 	{
-		int requirement;
+		this.project = source.project;
 		
-		for (int i = 0; i < maxPosition && (requirement = this.customerRequirementsPrecedences[customerIndex][i]) >= 0; i++)
-			if (requirement == requirementIndex)
-				return true;
-
-		return false;
+		int customerCount = project.getCustomerCount();
+		this.currentCustomerSelection = Arrays.copyOf(source.currentCustomerSelection, customerCount);
+		this.requirementSelection = source.requirementSelection.copy(currentCustomerSelection);
+		this.profit = source.profit;
+		this.profitRisk = source.profitRisk;
+		this.customersByAttendance = Arrays.copyOf(source.customersByAttendance, customerCount);
+		this.attendancePositions = Arrays.copyOf(source.attendancePositions, customerCount);
+		this.attendedCount = source.attendedCount;
+		this.hash = source.hash;
 	}
 	
 	/**
@@ -181,18 +145,13 @@ public class Solution
 	 */
 	private void checkCustomerRequirementAndPrecedents(Project project, int customerIndex, int requirementIndex)
 	{
-		int requirementCount = project.getRequirementCount();
-		
-		if (!checkCustomerHasRequirement(customerIndex, requirementIndex, requirementCount+1))
+		if (!project.getRequirementClosure().contains(customerIndex, requirementIndex))
 			System.out.println("Customer #" + customerIndex + " does not have requirement #" + requirementIndex);
 		
-		if (!project.requirementHasPrecedents(requirementIndex))
-			return;
-
-		int source;
+		int precedents = project.getRequirementPrecedentsCount(requirementIndex);
 				
-		for (int i = 0; (source = project.getRequirementPrecedentIndex(requirementIndex, i)) >= 0; i++)
-			checkCustomerRequirementAndPrecedents(project, customerIndex, source);
+		for (int i = 0; i < precedents; i++)
+			checkCustomerRequirementAndPrecedents(project, customerIndex, project.getRequirementPrecedentIndex(requirementIndex, i));
 	}
 	
 	/**
@@ -208,7 +167,7 @@ public class Solution
 	 */
 	public int getCost()
 	{
-		return cost;
+		return requirementSelection.getCost();
 	}
 	
 	/**
@@ -232,7 +191,7 @@ public class Solution
 	 */
 	public double getCostRisk()
 	{
-		return costRisk;
+		return requirementSelection.getCostRisk();
 	}
 	
 	/**
@@ -240,7 +199,7 @@ public class Solution
 	 */
 	public double getWorstCost()
 	{
-		return worstCost;
+		return requirementSelection.getWorstCost();
 	}
 	
 	/**
@@ -253,18 +212,11 @@ public class Solution
 		for (int i = 0; i < customerCount; i++)
 			currentCustomerSelection[i] = newSelection[i];
 		
-		int requirementCount = project.getRequirementCount();
-		
-		for (int i = 0; i < requirementCount; i++)
-			currentRequirementSelection[i] = 0;
-		
-		this.cost = 0;
-		this.costRisk = 0.0;
-		this.worstCost = 0.0;
+		requirementSelection.clear();
 		
 		for (int i = 0; i < customerCount; i++)
 			if (currentCustomerSelection[i])
-				addCustomerRequirementsCostAndRisk(i);
+				requirementSelection.addCustomer(i);
 		
 		this.profit = 0;
 		this.profitRisk = 0;
@@ -277,6 +229,40 @@ public class Solution
 			}
 		
 		this.profitRisk = round(profitRisk);
+		this.attendedCount = 0;
+		this.hash = 0;
+		
+		for (int i = 0; i < customerCount; i++)
+			if (currentCustomerSelection[i])
+			{
+				placeCustomer(i, attendedCount++);
+				this.hash ^= getCustomerKey(i);
+			}
+		
+		int position = attendedCount;
+		
+		for (int i = 0; i < customerCount; i++)
+			if (!currentCustomerSelection[i])
+				placeCustomer(i, position++);
+	}
+	
+	/**
+	 * Puts a customer in a given position of the customersByAttendance array
+	 */
+	private void placeCustomer(int customerIndex, int position)
+	{
+		customersByAttendance[position] = customerIndex;
+		attendancePositions[customerIndex] = position;
+	}
+	
+	/**
+	 * Swaps a customer with the one in a given position of the customersByAttendance array
+	 */
+	private void swapCustomer(int customerIndex, int position)
+	{
+		int otherCustomer = customersByAttendance[position];
+		placeCustomer(otherCustomer, attendancePositions[customerIndex]);
+		placeCustomer(customerIndex, position);
 	}
 	
 	/**
@@ -287,67 +273,95 @@ public class Solution
 		if (this.currentCustomerSelection[customerIndex])
 		{
 			this.currentCustomerSelection[customerIndex] = false;
-			removeCustomerRequirementsCostAndRisk(customerIndex);
+			swapCustomer(customerIndex, --attendedCount);
+			requirementSelection.removeCustomer(customerIndex);
 			this.profit -= project.getCustomerProfit(customerIndex);
 			this.profitRisk -= project.getCustomerProfitRisk(customerIndex);
 		}
 		else
 		{
 			this.currentCustomerSelection[customerIndex] = true;
-			addCustomerRequirementsCostAndRisk(customerIndex);
+			swapCustomer(customerIndex, attendedCount++);
+			requirementSelection.addCustomer(customerIndex);
 			this.profit += project.getCustomerProfit(customerIndex);
 			this.profitRisk += project.getCustomerProfitRisk(customerIndex);
 		}
 
 		this.profitRisk = round(profitRisk);
+		this.hash ^= getCustomerKey(customerIndex);
 	}
 
 	/**
-	 * Adds the effects of a customer's requirements over cost
+	 * Returns the Zobrist hash of the customer selection
 	 */
-	private void addCustomerRequirementsCostAndRisk(int customerIndex)
+	public long getHash()
 	{
-		int requirementIndex;
-		int[] requirementsCustomer = customerRequirementsPrecedences[customerIndex];
+		return hash;
+	}
 
-		for (int i = 0; (requirementIndex = requirementsCustomer[i]) >= 0; i++)
-		{
-			if (currentRequirementSelection[requirementIndex] == 0)
-			{
-				cost += project.getRequirementCost(requirementIndex);
-				costRisk += project.getRequirementCostRisk(requirementIndex);
-				worstCost += project.getRequirementWorstCost(requirementIndex);
-			}
-			
-			currentRequirementSelection[requirementIndex]++;
-		}
+	/**
+	 * Returns the Zobrist hash the solution would have if a customer was flipped, without changing the solution
+	 */
+	public long getFlippedHash(int customerIndex)
+	{
+		return hash ^ getCustomerKey(customerIndex);
+	}
 
-		costRisk = round(costRisk);
-		worstCost = round(worstCost);
+	/**
+	 * Returns the Zobrist key of a customer, mixing its index into a pseudo-random 64-bit value
+	 */
+	private static long getCustomerKey(int customerIndex)
+	{
+		long z = (customerIndex + 1) * 0x9E3779B97F4A7C15L;
+		z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+		z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+		return z ^ (z >>> 31);
 	}
 
 	/**
-	 * Removes the effects of a customer's requirements over cost
+	 * Returns the cost the solution would have if a customer was flipped, without changing the solution
 	 */
-	private void removeCustomerRequirementsCostAndRisk(int customerIndex)
+	public int getFlippedCost(int customerIndex)
 	{
-		int requirementIndex;
-		int[] requirementsCustomer = customerRequirementsPrecedences[customerIndex];
+		return requirementSelection.getFlippedCost(customerIndex);
+	}
 
-		for (int i = 0; (requirementIndex = requirementsCustomer[i]) >= 0; i++)
-		{
-			currentRequirementSelection[requirementIndex]--;
+	/**
+	 * Returns the cost-related risk the solution would have if a customer was flipped, without changing the solution
+	 */
+	public double getFlippedCostRisk(int customerIndex)
+	{
+		return requirementSelection.getFlippedCostRisk(customerIndex);
+	}
 
-			if (currentRequirementSelection[requirementIndex] == 0)
-			{
-				cost -= project.getRequirementCost(requirementIndex);
-				costRisk -= project.getRequirementCostRisk(requirementIndex);
-				worstCost -= project.getRequirementWorstCost(requirementIndex);
-			}
-		}
-		
-		costRisk = round(costRisk);
-		worstCost = round(worstCost);
+	/**
+	 * Returns the worst-case cost the solution would have if a customer was flipped, without changing the solution
+	 */
+	public double getFlippedWorstCost(int customerIndex)
+	{
+		return requirementSelection.getFlippedWorstCost(customerIndex);
+	}
+
+	/**
+	 * Returns the profit the solution would have if a customer was flipped, without changing the solution
+	 */
+	public int getFlippedProfit(int customerIndex)
+	{
+		if (currentCustomerSelection[customerIndex])
+			return profit - project.getCustomerProfit(customerIndex);
+
+		return profit + project.getCustomerProfit(customerIndex);
+	}
+
+	/**
+	 * Returns the profit-related risk the solution would have if a customer was flipped, without changing the solution
+	 */
+	public double getFlippedProfitRisk(int customerIndex)
+	{
+		if (currentCustomerSelection[customerIndex])
+			return round(profitRisk - project.getCustomerProfitRisk(customerIndex));
+
+		return round(profitRisk + project.getCustomerProfitRisk(customerIndex));
 	}
 
 	/**
@@ -355,12 +369,13 @@ public class Solution
 	 */
 	public static String printSolution(boolean[] solution)
 	{
-		String s = "[" + (solution[0] ? "S" : "-");
+		StringBuilder sb = new StringBuilder(solution.length + 2);
+		sb.append('[');
 
-		for (int i = 1; i < solution.length; i++)
-			s += (solution[i] ? "S" : "-");
+		for (int i = 0; i < solution.length; i++)
+			sb.append(solution[i] ? 'S' : '-');
 
-		return s + "]";
+		return sb.append(']').toString();
 	}
 	
 	/**
@@ -404,18 +419,31 @@ public class Solution
 	 */
 	public int countAttendedCustomers()
 	{
-		int customerCount = currentCustomerSelection.length;
-		int count = 0;
-		
-		for (int i = 0; i < customerCount; i++)
-		{
-			if (currentCustomerSelection[i])
-			{
-				count++;
-			}
-		}
+		return attendedCount;
+	}
 
-		return count;
+	/**
+	 * Returns the number of customers not attended by a solution
+	 */
+	public int countUnattendedCustomers()
+	{
+		return currentCustomerSelection.length - attendedCount;
+	}
+
+	/**
+	 * Returns an attended customer, given its index among the attended customers (in no particular order)
+	 */
+	public int getAttendedCustomer(int index)
+	{
+		return customersByAttendance[index];
+	}
+
+	/**
+	 * Returns a customer not attended, given its index among those customers (in no particular order)
+	 */
+	public int getUnattendedCustomer(int index)
+	{
+		return customersByAttendance[attendedCount + index];
 	}
 
 	/**
@@ -429,7 +457,7 @@ public class Solution
 	/**
 	 * Rounds a negative number due to a large amount of sums and substractions
 	 */
-	private double round(double value)
+	static double round(double value)
 	{
 		if (value < -1e-6)
 		{
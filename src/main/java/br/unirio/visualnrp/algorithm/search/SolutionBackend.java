@@ -0,0 +1,44 @@
+package br.unirio.visualnrp.algorithm.search;
+
+import br.unirio.visualnrp.model.Project;
+
+/**
+ * Enumeration of the available requirement accounting strategies for solutions
+ * 
+ * @author marciobarros
+ */
+public enum SolutionBackend
+{
+	/**
+	 * Keeps a reference counter per requirement
+	 */
+	COUNTER,
+	
+	/**
+	 * Keeps the selected requirements and the customer closures as bitsets
+	 */
+	BITSET;
+
+	/**
+	 * Returns a strategy, given its name (case insensitive), or null if there is no such strategy
+	 */
+	public static SolutionBackend get(String name)
+	{
+		for (SolutionBackend backend : values())
+			if (backend.name().equalsIgnoreCase(name))
+				return backend;
+
+		return null;
+	}
+
+	/**
+	 * Creates the requirement accounting for a customer selection array
+	 */
+	public RequirementSelection createRequirementSelection(Project project, boolean[] customerSelection)
+	{
+		if (this == BITSET)
+			return new BitsetRequirementSelection(project, customerSelection);
+
+		return new CounterRequirementSelection(project, customerSelection);
+	}
+}
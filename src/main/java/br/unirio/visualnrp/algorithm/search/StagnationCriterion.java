@@ -0,0 +1,43 @@
+package br.unirio.visualnrp.algorithm.search;
+
+/**
+ * Termination criterion that stops a search after a given number of evaluations without improving
+ * the best fitness found so far
+ *
+ * @author marciobarros
+ */
+public class StagnationCriterion implements TerminationCriterion
+{
+	/**
+	 * Maximum number of evaluations without improvement
+	 */
+	private int evaluationLimit;
+
+	/**
+	 * Initializes the criterion, given the maximum number of evaluations without improvement
+	 */
+	public StagnationCriterion(int evaluationLimit)
+	{
+		this.evaluationLimit = evaluationLimit;
+	}
+
+	/**
+	 * Returns the maximum number of evaluations without improvement
+	 */
+	public int getEvaluationLimit()
+	{
+		return evaluationLimit;
+	}
+
+	@Override
+	public String getName()
+	{
+		return "stagnation";
+	}
+
+	@Override
+	public boolean isSatisfied(SearchAlgorithm search)
+	{
+		return search.getEvaluationsSinceImprovement() >= evaluationLimit;
+	}
+}
@@ -0,0 +1,43 @@
+package br.unirio.visualnrp.algorithm.search;
+
+/**
+ * Termination criterion that stops a search as soon as it finds a solution whose fitness reaches
+ * a target value, such as the best known value for the instance
+ *
+ * @author marciobarros
+ */
+public class TargetFitnessCriterion implements TerminationCriterion
+{
+	/**
+	 * Fitness that stops the search once reached
+	 */
+	private double targetFitness;
+
+	/**
+	 * Initializes the criterion, given the target fitness
+	 */
+	public TargetFitnessCriterion(double targetFitness)
+	{
+		this.targetFitness = targetFitness;
+	}
+
+	/**
+	 * Returns the fitness that stops the search once reached
+	 */
+	public double getTargetFitness()
+	{
+		return targetFitness;
+	}
+
+	@Override
+	public String getName()
+	{
+		return "target";
+	}
+
+	@Override
+	public boolean isSatisfied(SearchAlgorithm search)
+	{
+		return search.getBestFitnessFound() >= targetFitness;
+	}
+}
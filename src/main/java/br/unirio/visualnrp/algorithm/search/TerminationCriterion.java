@@ -0,0 +1,21 @@
+package br.unirio.visualnrp.algorithm.search;
+
+/**
+ * Interface for the conditions that may stop a search before its evaluation budget is consumed.
+ * Criteria are checked after every evaluation, so they must be cheap, and they keep no state of
+ * their own, so that a single criterion may be shared by searches running in parallel.
+ *
+ * @author marciobarros
+ */
+public interface TerminationCriterion
+{
+	/**
+	 * Returns the stop reason recorded when the criterion is satisfied
+	 */
+	String getName();
+
+	/**
+	 * Checks whether the criterion is satisfied by the current state of a search
+	 */
+	boolean isSatisfied(SearchAlgorithm search);
+}
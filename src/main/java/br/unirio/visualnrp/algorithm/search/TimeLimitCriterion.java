@@ -0,0 +1,43 @@
+package br.unirio.visualnrp.algorithm.search;
+
+/**
+ * Termination criterion that stops a search after a given wall-clock time. It uses the elapsed time
+ * read by the search once every few evaluations, so that the check remains cheap.
+ *
+ * @author marciobarros
+ */
+public class TimeLimitCriterion implements TerminationCriterion
+{
+	/**
+	 * Maximum running time, in milliseconds
+	 */
+	private long timeLimit;
+
+	/**
+	 * Initializes the criterion, given the maximum running time in milliseconds
+	 */
+	public TimeLimitCriterion(long timeLimit)
+	{
+		this.timeLimit = timeLimit;
+	}
+
+	/**
+	 * Returns the maximum running time, in milliseconds
+	 */
+	public long getTimeLimit()
+	{
+		return timeLimit;
+	}
+
+	@Override
+	public String getName()
+	{
+		return "time";
+	}
+
+	@Override
+	public boolean isSatisfied(SearchAlgorithm search)
+	{
+		return search.getCheckedElapsedTime() >= timeLimit;
+	}
+}
@@ -3,6 +3,9 @@ package br.unirio.visualnrp.algorithm.search;
 import java.io.PrintWriter;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
 
 import br.unirio.visualnrp.algorithm.constructor.Constructor;
 import br.unirio.visualnrp.algorithm.constructor.GreedyConstructor;
@@ -12,16 +15,44 @@ import br.unirio.visualnrp.support.PseudoRandom;
 
 public class VisIteratedLocalSearch extends SearchAlgorithm
 {
+	/**
+	 * Number of blocks into which the random sampling phase is split
+	 */
+	private static final int SAMPLING_BLOCKS = 16;
+
+	/**
+	 * Inverse of the golden ratio, used to refine the number of customers in the adaptive sampling
+	 */
+	private static final double GOLDEN_SECTION = (Math.sqrt(5.0) - 1.0) / 2.0;
+
 	private int minCustomers;
 	private final int numberSamplingIter;
+	private SamplingStrategy samplingStrategy;
 
 	/**
 	 * Initializes the search algorithm
 	 */
-	public VisIteratedLocalSearch(PrintWriter detailsFile, Project project, int maxEvaluations, int numberSamplingIter, Constructor constructor) throws Exception
+	public VisIteratedLocalSearch(PrintWriter detailsFile, Project project, int maxEvaluations, int numberSamplingIter, Constructor constructor, PseudoRandom random) throws Exception
 	{
-		super(detailsFile, project, maxEvaluations, constructor);
+		super(detailsFile, project, maxEvaluations, constructor, random);
 		this.numberSamplingIter = numberSamplingIter;
+		this.samplingStrategy = SamplingStrategy.EXHAUSTIVE;
+	}
+
+	/**
+	 * Returns the strategy used to sample the number of customers
+	 */
+	public SamplingStrategy getSamplingStrategy()
+	{
+		return samplingStrategy;
+	}
+
+	/**
+	 * Sets the strategy used to sample the number of customers
+	 */
+	public void setSamplingStrategy(SamplingStrategy samplingStrategy)
+	{
+		this.samplingStrategy = samplingStrategy;
 	}
 
 	/**
@@ -31,8 +62,9 @@ public class VisIteratedLocalSearch extends SearchAlgorithm
 	{
 		RandomSamplingResult rsr = executeRandomSampling(getProject(), calculator);
 		this.minCustomers = rsr.minCustomers;
+		registerFitness(rsr.fitness);
 
-		Solution bestSolution = new Solution(getProject(), rsr.solution);
+		Solution bestSolution = createSolution(rsr.solution);
 		double bestFitness = rsr.fitness;
 
 		Solution solution = localSearch(bestSolution, calculator, bestFitness);
@@ -44,7 +76,7 @@ public class VisIteratedLocalSearch extends SearchAlgorithm
 			bestFitness = fitness;
 		}
 		
-		while (getEvaluationsConsumed() < getMaximumEvaluations())
+		while (!isSearchFinished())
 		{
 			Solution startSolution = applyPerturbation(bestSolution);
 			solution = localSearch(startSolution, calculator, bestFitness);
@@ -65,48 +97,27 @@ public class VisIteratedLocalSearch extends SearchAlgorithm
 	 */
 	private Solution applyPerturbation(Solution solution)
 	{
-		int customerCount = getProject().getCustomerCount();
 		int amount = 2;
-
-		List<Integer> satisfied = new ArrayList<Integer>();
-		List<Integer> notSatisfied = new ArrayList<Integer>();
-		
-		for (int i = 0; i < customerCount; i++)
-		{
-			if (solution.isCustomerAttended(i))
-			{
-				satisfied.add(i);
-			} 
-			else
-			{
-				notSatisfied.add(i);
-			}
-		}
-
 		Solution perturbedSolution = solution.clone();
 
 		for (int i = 0; i < amount; i++)
 		{
 			boolean isAddOperation = true;
 
-			if (satisfied.size() > this.minCustomers)
+			if (perturbedSolution.countAttendedCustomers() > this.minCustomers)
 			{
-				isAddOperation = PseudoRandom.randDouble() <= 0.5;
+				isAddOperation = getRandom().nextDouble() <= 0.5;
 			} 
 
-			if (isAddOperation && notSatisfied.size() > 0)
+			if (isAddOperation && perturbedSolution.countUnattendedCustomers() > 0)
 			{
-				int rand = PseudoRandom.randInt(0, notSatisfied.size()-1);
-				int customer = notSatisfied.remove(rand);
-				perturbedSolution.flipCustomer(customer);
-				satisfied.add(rand);
+				int rand = getRandom().nextInt(0, perturbedSolution.countUnattendedCustomers()-1);
+				perturbedSolution.flipCustomer(perturbedSolution.getUnattendedCustomer(rand));
 			} 
 			else
 			{
-				int rand = PseudoRandom.randInt(0, satisfied.size()-1);
-				int customer = satisfied.remove(rand);
-				perturbedSolution.flipCustomer(customer);
-				notSatisfied.add(rand);
+				int rand = getRandom().nextInt(0, perturbedSolution.countAttendedCustomers()-1);
+				perturbedSolution.flipCustomer(perturbedSolution.getAttendedCustomer(rand));
 			}
 		}
 
@@ -114,83 +125,243 @@ public class VisIteratedLocalSearch extends SearchAlgorithm
 	}
 
 	/**
-	 * Performs the random sampling phase
+	 * Performs the random sampling phase, according to the sampling strategy
+	 */
+	public RandomSamplingResult executeRandomSampling(Project project, IFitnessCalculator calculator) throws Exception
+	{
+		if (samplingStrategy == SamplingStrategy.ADAPTIVE)
+			return executeAdaptiveSampling(project, calculator);
+
+		return executeExhaustiveSampling(project, calculator);
+	}
+
+	/**
+	 * Performs the random sampling phase over all numbers of customers. Sample sizes are dealt to a fixed number of blocks, run in
+	 * parallel with their own solution, constructor and random number stream. The best sample is the
+	 * one with the highest fitness, ties broken by the sampling order, regardless of thread timing.
 	 */
-	public RandomSamplingResult executeRandomSampling(Project project, IFitnessCalculator calculator)
+	public RandomSamplingResult executeExhaustiveSampling(Project project, IFitnessCalculator calculator) throws Exception
 	{
-		int numberOfCustomersBest = 0;
 		int customerCount = project.getCustomerCount();
-		
-		Solution hcrs = new Solution(project);
-		double bestFitness = Double.MIN_VALUE;
-		boolean[] bestSolution = new boolean[customerCount];
-		
-//		Constructor sampConstructor = new RandomConstructor(project);
-		Constructor sampConstructor = new GreedyConstructor(project);
+		List<SamplingBlock> blocks = new ArrayList<SamplingBlock>(SAMPLING_BLOCKS);
+
+		for (int i = 0; i < SAMPLING_BLOCKS; i++)
+			blocks.add(new SamplingBlock(project, calculator, getRandom().split(), i + 1));
+
+		SamplingBlock bestBlock = null;
+
+		for (Future<SamplingBlock> result : getSearchPool().invokeAll(blocks))
+		{
+			SamplingBlock block = getSamplingResult(result);
+
+			if (block.bestFitness > Double.MIN_VALUE && (bestBlock == null || block.isBetterThan(bestBlock)))
+				bestBlock = block;
+		}
+
+		int evaluationsBefore = getEvaluationsConsumed();
+		double bestFitness = (bestBlock != null) ? bestBlock.bestFitness : Double.MIN_VALUE;
+		consumeEvaluations(customerCount * numberSamplingIter, bestFitness);
+
+		if (bestBlock == null)
+			return new RandomSamplingResult(new boolean[customerCount], bestFitness, 0);
+
+		setIterationBestFound(evaluationsBefore + bestBlock.bestSample + 1);
+		return new RandomSamplingResult(bestBlock.bestSolution, bestFitness, bestBlock.bestCustomers);
+	}
+
+	/**
+	 * Performs the random sampling phase assuming that the best fitness is unimodal on the number of
+	 * customers. It samples every stride-th number of customers (the stride being the square root of
+	 * the number of customers) and then narrows the strides around the best one by golden-section search.
+	 */
+	public RandomSamplingResult executeAdaptiveSampling(Project project, IFitnessCalculator calculator)
+	{
+		int customerCount = project.getCustomerCount();
+		AdaptiveSampler sampler = new AdaptiveSampler(project, calculator);
+		int stride = Math.max(1, (int) Math.ceil(Math.sqrt(customerCount)));
+		int peak = 1;
+
+		for (int i = 1; i <= customerCount; i += stride)
+			if (sampler.sample(i) > sampler.sample(peak))
+				peak = i;
+
+		int lower = Math.max(1, peak - stride + 1);
+		int upper = Math.min(customerCount, peak + stride - 1);
+
+		while (upper - lower > 2)
+		{
+			int step = (int) Math.round((upper - lower) * GOLDEN_SECTION);
+			int left = Math.min(upper - step, upper - 1);
+			int right = Math.max(lower + step, left + 1);
+
+			if (sampler.sample(left) < sampler.sample(right))
+				lower = left;
+			else
+				upper = right;
+		}
+
+		for (int i = lower; i <= upper; i++)
+			sampler.sample(i);
+
+		return new RandomSamplingResult(sampler.bestSolution, sampler.bestFitness, sampler.bestCustomers);
+	}
 
-		for (int i = 1; i <= customerCount; i++)
+	/**
+	 * Class that samples numbers of customers for the adaptive sampling, remembering the best fitness of each number
+	 */
+	private class AdaptiveSampler
+	{
+		private IFitnessCalculator calculator;
+		private Solution hcrs;
+		private Constructor sampConstructor;
+		private boolean[] solution;
+		private double[] fitness;
+		private boolean[] sampled;
+		private boolean[] bestSolution;
+		private double bestFitness;
+		private int bestCustomers;
+
+		public AdaptiveSampler(Project project, IFitnessCalculator calculator)
+		{
+			int customerCount = project.getCustomerCount();
+			this.calculator = calculator;
+			this.hcrs = createSolution();
+			this.sampConstructor = new GreedyConstructor(project, getRandom());
+			this.solution = new boolean[customerCount];
+			this.fitness = new double[customerCount + 1];
+			this.sampled = new boolean[customerCount + 1];
+			this.bestSolution = new boolean[customerCount];
+			this.bestFitness = Double.MIN_VALUE;
+			this.bestCustomers = 0;
+		}
+
+		/**
+		 * Returns the best fitness among the samples with a given number of customers, sampling it on first use
+		 */
+		public double sample(int customers)
 		{
+			if (sampled[customers])
+				return fitness[customers];
+
+			double sampleFitness = -Double.MAX_VALUE;
+
 			for (int j = 0; j < numberSamplingIter; j++)
 			{
-				boolean[] solution = sampConstructor.generateSolutionWith(i);
+				sampConstructor.generateSolutionWith(customers, solution);
 				hcrs.setAllCustomers(solution);
 				double solutionFitness = evaluate(hcrs, calculator, bestFitness);
+				sampleFitness = Math.max(sampleFitness, solutionFitness);
 
 				if (solutionFitness > bestFitness)
 				{
 					Solution.copySolution(solution, bestSolution);
 					bestFitness = solutionFitness;
-					
+
 					setIterationBestFound(getEvaluationsConsumed());
-					numberOfCustomersBest = i;
+					bestCustomers = customers;
 				}
 			}
+
+			sampled[customers] = true;
+			fitness[customers] = sampleFitness;
+			return sampleFitness;
 		}
+	}
+
+	/**
+	 * Waits for the result of a sampling block, unwrapping the exception it may have raised
+	 */
+	private SamplingBlock getSamplingResult(Future<SamplingBlock> result) throws Exception
+	{
+		try
+		{
+			return result.get();
+		}
+		catch (ExecutionException e)
+		{
+			if (e.getCause() instanceof Exception)
+				throw (Exception) e.getCause();
 
-		return new RandomSamplingResult(bestSolution, bestFitness, numberOfCustomersBest);
+			throw e;
+		}
 	}
 
 	/**
-	 * Visits all neighbors of a given solution
+	 * Class that represents a block of the random sampling phase, covering the sample sizes
+	 * first, first + SAMPLING_BLOCKS, first + 2 * SAMPLING_BLOCKS, and so on
 	 */
-	@Override
-	protected NeighborhoodVisitorResult visitNeighbors(Solution solution, IFitnessCalculator calculator, double bestFitness)
+	private class SamplingBlock implements Callable<SamplingBlock>
 	{
-		double startingFitness = evaluate(solution, calculator, bestFitness);
+		private Project project;
+		private IFitnessCalculator calculator;
+		private PseudoRandom random;
+		private int firstCustomers;
+		private boolean[] bestSolution;
+		private double bestFitness;
+		private int bestCustomers;
+		private int bestSample;
 
-		if (getEvaluationsConsumed() > getMaximumEvaluations())
+		public SamplingBlock(Project project, IFitnessCalculator calculator, PseudoRandom random, int firstCustomers)
 		{
-			return new NeighborhoodVisitorResult(NeighborhoodVisitorStatus.SEARCH_EXHAUSTED);
+			this.project = project;
+			this.calculator = calculator;
+			this.random = random;
+			this.firstCustomers = firstCustomers;
+			this.bestSolution = new boolean[project.getCustomerCount()];
+			this.bestFitness = Double.MIN_VALUE;
+			this.bestCustomers = 0;
+			this.bestSample = -1;
 		}
 
-		int customerCount = getProject().getCustomerCount();
-		int attendedCustomers = solution.countAttendedCustomers();
+		/**
+		 * Checks whether the best sample of the block is better than that of another block
+		 */
+		public boolean isBetterThan(SamplingBlock other)
+		{
+			if (bestFitness != other.bestFitness)
+				return bestFitness > other.bestFitness;
 
-		for (int i = 0; i < customerCount; i++)
+			return bestSample < other.bestSample;
+		}
+
+		@Override
+		public SamplingBlock call() throws Exception
 		{
-			int customerI = getSelectionOrderIndex(i);
-			int change = solution.isCustomerAttended(customerI) ? -1 : +1;
+			int customerCount = project.getCustomerCount();
+			Solution hcrs = createSolution();
+			Constructor sampConstructor = new GreedyConstructor(project, random);
+			boolean[] solution = new boolean[customerCount];
 
-			if (attendedCustomers + change >= minCustomers)
+			for (int i = firstCustomers; i <= customerCount; i += SAMPLING_BLOCKS)
 			{
-				solution.flipCustomer(customerI);
-				double neighborFitness = evaluate(solution, calculator, bestFitness);
-
-				if (getEvaluationsConsumed() > getMaximumEvaluations())
+				for (int j = 0; j < numberSamplingIter; j++)
 				{
-					return new NeighborhoodVisitorResult(NeighborhoodVisitorStatus.SEARCH_EXHAUSTED);
-				}
+					sampConstructor.generateSolutionWith(i, solution);
+					hcrs.setAllCustomers(solution);
+					double solutionFitness = calculator.evaluate(hcrs);
 
-				if (neighborFitness > startingFitness)
-				{
-					return new NeighborhoodVisitorResult(NeighborhoodVisitorStatus.FOUND_BETTER_NEIGHBOR, neighborFitness);
+					if (solutionFitness > bestFitness)
+					{
+						Solution.copySolution(solution, bestSolution);
+						bestFitness = solutionFitness;
+						bestCustomers = i;
+						bestSample = (i - 1) * numberSamplingIter + j;
+					}
 				}
-
-				solution.flipCustomer(customerI);
 			}
+
+			return this;
 		}
+	}
 
-		return new NeighborhoodVisitorResult(NeighborhoodVisitorStatus.NO_BETTER_NEIGHBOR);
+	/**
+	 * Only visits neighbors that keep the minimum number of customers found in the random sampling
+	 */
+	@Override
+	protected boolean isNeighborAllowed(Solution solution, int customer, int attendedCustomers)
+	{
+		int change = solution.isCustomerAttended(customer) ? -1 : +1;
+		return attendedCustomers + change >= minCustomers;
 	}
 	
 	/**
@@ -6,8 +6,7 @@ import br.unirio.visualnrp.model.Instance;
 import br.unirio.visualnrp.model.MaximumValues;
 import br.unirio.visualnrp.model.MaximumValuesList;
 import br.unirio.visualnrp.model.Project;
-import br.unirio.visualnrp.reader.MaximumValuesReader;
-import br.unirio.visualnrp.reader.RequirementReader;
+import br.unirio.visualnrp.reader.ProjectRepository;
 
 /**
  * Class that analizes the best solutions under the OCR-NRP formulation
@@ -118,11 +117,10 @@ public class CostRiskAnalysis
 	 */
 	private void handleInstance(Instance instance, int budgetFactor, int riskImportance, String bestILS, String bestVISILS, String bestProfit)
 	{
-		MaximumValuesList maximumValues = new MaximumValuesReader().execute();
+		MaximumValuesList maximumValues = ProjectRepository.getMaximumValues();
 		MaximumValues values = maximumValues.getMaximumValues(instance, budgetFactor);
 
-		RequirementReader reader = new RequirementReader();
-		Project project = reader.execute(instance);
+		Project project = ProjectRepository.getProject(instance);
 
 		int availableBudget = (int) (project.getTotalCost() * (budgetFactor / 100.0));
 		CostRiskFitnessCalculator ocrCalculator = new CostRiskFitnessCalculator(project, availableBudget, riskImportance, values.getMaximumProfit(), values.getMaximumCostRisk());
@@ -19,6 +19,11 @@ public class CostCapFitnessCalculator implements IFitnessCalculator
 		this.riskImportance = riskImportance / 100.0;
 	}
 	
+	public double getAvailableBudget()
+	{
+		return availableBudget;
+	}
+	
 	public double evaluate(Solution solution)
 	{
 		int cost = solution.getCost();
@@ -35,6 +40,25 @@ public class CostCapFitnessCalculator implements IFitnessCalculator
 		return solution.getProfit();
 	}
 	
+	public double deltaEvaluate(Solution solution, int customer)
+	{
+		return deltaEvaluate(solution, customer, solution.getFlippedCost(customer));
+	}
+	
+	public double deltaEvaluate(Solution solution, int customer, int cost)
+	{
+		if (cost > availableBudget)
+			return -cost;
+
+		double worstCost = solution.getFlippedWorstCost(customer);
+		double ratio = (worstCost - cost) / cost;
+
+		if (ratio > riskImportance)
+			return -cost;
+		
+		return solution.getFlippedProfit(customer);
+	}
+	
 	public double getRatio(Solution solution)
 	{
 		int cost = solution.getCost();
@@ -0,0 +1,55 @@
+package br.unirio.visualnrp.calc.fitness;
+
+import java.util.Arrays;
+
+import br.unirio.visualnrp.model.Project;
+
+/**
+ * Class that supports the calculation of fitness for cost cap under several risk importance levels.
+ * The cost ratio is calculated once per solution and compared to each level, giving the same values
+ * as a CostCapFitnessCalculator for each level.
+ * 
+ * @author marciobarros
+ */
+public class CostCapMultiWeightFitnessCalculator implements IMultiWeightFitnessCalculator
+{
+	private double availableBudget;
+	private double[] riskImportances;
+	
+	public CostCapMultiWeightFitnessCalculator(Project project, double availableBudget, int[] riskImportances)
+	{
+		this.availableBudget = availableBudget;
+		this.riskImportances = new double[riskImportances.length];
+		
+		for (int i = 0; i < riskImportances.length; i++)
+			this.riskImportances[i] = riskImportances[i] / 100.0;
+	}
+	
+	public int getWeightCount()
+	{
+		return riskImportances.length;
+	}
+	
+	public void evaluate(int cost, int profit, double costRisk, double profitRisk, double worstCost, double[] fitness)
+	{
+		if (cost > availableBudget)
+		{
+			Arrays.fill(fitness, 0, riskImportances.length, -cost);
+			return;
+		}
+
+		double ratio = (worstCost - cost) / cost;
+		
+		for (int i = 0; i < riskImportances.length; i++)
+			fitness[i] = (ratio > riskImportances[i]) ? -cost : profit;
+	}
+	
+	public double getRatio(int cost, double worstCost)
+	{
+		if (cost > availableBudget)
+			return -1.0;
+
+		double ratio = (worstCost - cost) / cost;
+		return ratio;
+	}
+}
@@ -0,0 +1,53 @@
+package br.unirio.visualnrp.calc.fitness;
+
+import java.util.Arrays;
+
+import br.unirio.visualnrp.model.Project;
+
+/**
+ * Class that supports the calculation of fitness for cost risk under several risk importance levels.
+ * The profit and risk factors are calculated once per solution and weighted by each level, giving
+ * the same values as a CostRiskFitnessCalculator for each level.
+ * 
+ * @author marciobarros
+ */
+public class CostRiskMultiWeightFitnessCalculator implements IMultiWeightFitnessCalculator
+{
+	private double totalCost;
+	private double availableBudget;
+	private double[] riskImportances;
+	private double maximumProfit;
+	private double maximumRisk;
+	
+	public CostRiskMultiWeightFitnessCalculator(Project project, double availableBudget, int[] riskImportances, int maximumProfit, double maximumRisk)
+	{
+		this.totalCost = project.getTotalCost();
+		this.availableBudget = availableBudget;
+		this.riskImportances = new double[riskImportances.length];
+		this.maximumProfit = maximumProfit;
+		this.maximumRisk = maximumRisk;
+		
+		for (int i = 0; i < riskImportances.length; i++)
+			this.riskImportances[i] = riskImportances[i] / 100.0;
+	}
+	
+	public int getWeightCount()
+	{
+		return riskImportances.length;
+	}
+	
+	public void evaluate(int cost, int profit, double costRisk, double profitRisk, double worstCost, double[] fitness)
+	{
+		if (cost > availableBudget)
+		{
+			Arrays.fill(fitness, 0, riskImportances.length, -cost / totalCost);
+			return;
+		}
+
+		double profitFactor = ((double)profit) / maximumProfit;
+		double riskFactor = Math.max(Math.min((maximumRisk - costRisk) / maximumRisk, 1.0), 0.0);
+		
+		for (int i = 0; i < riskImportances.length; i++)
+			fitness[i] = (1 - riskImportances[i]) * profitFactor + riskImportances[i] * riskFactor;
+	}
+}
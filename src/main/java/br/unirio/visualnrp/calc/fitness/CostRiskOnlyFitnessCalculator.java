@@ -17,6 +17,11 @@ public class CostRiskOnlyFitnessCalculator implements IFitnessCalculator
 		this.availableBudget = availableBudget;
 	}
 	
+	public double getAvailableBudget()
+	{
+		return availableBudget;
+	}
+	
 	public double evaluate(Solution solution)
 	{
 		int cost = solution.getCost();
@@ -26,4 +31,17 @@ public class CostRiskOnlyFitnessCalculator implements IFitnessCalculator
 
 		return solution.getCostRisk();
 	}
+	
+	public double deltaEvaluate(Solution solution, int customer)
+	{
+		return deltaEvaluate(solution, customer, solution.getFlippedCost(customer));
+	}
+	
+	public double deltaEvaluate(Solution solution, int customer, int cost)
+	{
+		if (cost > availableBudget)
+			return -cost;
+
+		return solution.getFlippedCostRisk(customer);
+	}
 }
\ No newline at end of file
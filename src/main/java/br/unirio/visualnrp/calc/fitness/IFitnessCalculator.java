@@ -10,4 +10,19 @@ import br.unirio.visualnrp.algorithm.search.Solution;
 public interface IFitnessCalculator
 {
 	double evaluate(Solution solution);
+
+	/**
+	 * Evaluates the fitness a solution would have if a customer was flipped, without changing the solution
+	 */
+	double deltaEvaluate(Solution solution, int customer);
+
+	/**
+	 * Evaluates the fitness a solution would have if a customer was flipped, given the cost it would have
+	 */
+	double deltaEvaluate(Solution solution, int customer, int flippedCost);
+
+	/**
+	 * Returns the budget above which solutions are penalized, being worse than any solution within it
+	 */
+	double getAvailableBudget();
 }
\ No newline at end of file
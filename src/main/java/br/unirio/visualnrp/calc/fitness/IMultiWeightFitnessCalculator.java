@@ -0,0 +1,20 @@
+package br.unirio.visualnrp.calc.fitness;
+
+/**
+ * Interface for the calculation of fitness under several risk importance levels at once
+ * 
+ * @author marciobarros
+ */
+public interface IMultiWeightFitnessCalculator
+{
+	/**
+	 * Returns the number of risk importance levels
+	 */
+	int getWeightCount();
+
+	/**
+	 * Evaluates the fitness of a solution under each risk importance level, in the order they were given,
+	 * from its cost, profit, cost-related risk, profit-related risk and worst-case cost
+	 */
+	void evaluate(int cost, int profit, double costRisk, double profitRisk, double worstCost, double[] fitness);
+}
@@ -17,9 +17,24 @@ public class ProfitFitnessCalculator implements IFitnessCalculator
 		this.availableBudget = availableBudget;
 	}
 	
+	public double getAvailableBudget()
+	{
+		return availableBudget;
+	}
+	
 	public double evaluate(Solution solution)
 	{
 		int cost = solution.getCost();
 		return (cost <= availableBudget) ? solution.getProfit() : -cost;
 	}
+	
+	public double deltaEvaluate(Solution solution, int customer)
+	{
+		return deltaEvaluate(solution, customer, solution.getFlippedCost(customer));
+	}
+	
+	public double deltaEvaluate(Solution solution, int customer, int cost)
+	{
+		return (cost <= availableBudget) ? solution.getFlippedProfit(customer) : -cost;
+	}
 }
\ No newline at end of file
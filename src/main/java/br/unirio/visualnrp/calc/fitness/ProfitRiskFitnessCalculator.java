@@ -25,6 +25,11 @@ public class ProfitRiskFitnessCalculator implements IFitnessCalculator
 		this.maximumRisk = maximumRisk;
 	}
 	
+	public double getAvailableBudget()
+	{
+		return availableBudget;
+	}
+	
 	public double evaluate(Solution solution)
 	{
 		int cost = solution.getCost();
@@ -39,4 +44,22 @@ public class ProfitRiskFitnessCalculator implements IFitnessCalculator
 		double riskFactor = Math.max(Math.min((maximumRisk - risk) / maximumRisk, 1.0), 0.0);
 		return (1 - riskImportance) * profitFactor + riskImportance * riskFactor;
 	}
+	
+	public double deltaEvaluate(Solution solution, int customer)
+	{
+		return deltaEvaluate(solution, customer, solution.getFlippedCost(customer));
+	}
+	
+	public double deltaEvaluate(Solution solution, int customer, int cost)
+	{
+		if (cost > availableBudget)
+			return -cost / totalCost;
+
+		int profit = solution.getFlippedProfit(customer);
+		double profitFactor = ((double)profit) / maximumProfit;
+		
+		double risk = solution.getFlippedProfitRisk(customer);
+		double riskFactor = Math.max(Math.min((maximumRisk - risk) / maximumRisk, 1.0), 0.0);
+		return (1 - riskImportance) * profitFactor + riskImportance * riskFactor;
+	}
 }
\ No newline at end of file
@@ -1,17 +1,15 @@
 package br.unirio.visualnrp.calc.landscape;
 
-import java.io.File;
-import java.io.FileWriter;
-import java.io.PrintWriter;
 import java.util.List;
 
-import br.unirio.visualnrp.algorithm.constructor.Constructor;
-import br.unirio.visualnrp.algorithm.constructor.RandomConstructor;
-import br.unirio.visualnrp.algorithm.search.Solution;
-import br.unirio.visualnrp.calc.fitness.CostCapFitnessCalculator;
+import br.unirio.visualnrp.calc.fitness.CostCapMultiWeightFitnessCalculator;
+import br.unirio.visualnrp.calc.fitness.IMultiWeightFitnessCalculator;
 import br.unirio.visualnrp.model.Instance;
 import br.unirio.visualnrp.model.Project;
-import br.unirio.visualnrp.reader.RequirementReader;
+import br.unirio.visualnrp.reader.ProjectRepository;
+import br.unirio.visualnrp.support.PseudoRandom;
+import br.unirio.visualnrp.writer.ColumnType;
+import br.unirio.visualnrp.writer.ResultColumn;
 
 /**
  * Class that represents the landscape report for the cost cap problem
@@ -21,58 +19,125 @@ import br.unirio.visualnrp.reader.RequirementReader;
 public class CostCapLandscapeReport
 {
 	/**
-	 * Number of solutions per costumer
+	 * Columns that precede the number of customers in the landscape files
 	 */
-	private static int SOLUTIONS_PER_CUSTOMER = 100;
+	private static final ResultColumn[] KEY_COLUMNS = 
+	{
+		new ResultColumn("budget", ColumnType.INTEGER),
+		new ResultColumn("risk", ColumnType.INTEGER)
+	};
+
+	/**
+	 * Columns that follow the number of customers in the sample rows of the landscape files
+	 */
+	private static final ResultColumn[] SAMPLE_COLUMNS = 
+	{
+		new ResultColumn("fit", ColumnType.DOUBLE),
+		new ResultColumn("ratio", ColumnType.DOUBLE)
+	};
 	
 	/**
-	 * Creates the landscape report for a given instance and budget factor
+	 * Number of worker threads used to sample and write the landscape
+	 */
+	private int workerCount = Runtime.getRuntime().availableProcessors();
+
+	/**
+	 * Sets the number of worker threads used to sample and write the landscape
 	 */
-	private void createLandscapeForBudget(PrintWriter out, Project project, Constructor constructor, int budgetFactor, int riskImportance, CostCapFitnessCalculator calculator) throws Exception
+	public void setWorkerCount(int workerCount)
 	{
-		Solution sSolution = new Solution(project);
+		this.workerCount = workerCount;
+	}
 
-		for (int i = 1; i <= project.getCustomerCount(); i++)
-		{
-			for (int j = 0; j < SOLUTIONS_PER_CUSTOMER; j++)
-			{
-				boolean[] solution = constructor.generateSolutionWith(i);
-				sSolution.setAllCustomers(solution);
-				double fitness = calculator.evaluate(sSolution);
-				out.println(budgetFactor + "," + riskImportance + "," + i + "," + fitness + "," + calculator.getRatio(sSolution));
-			}
-		}
+	/**
+	 * Contents written to the landscape files
+	 */
+	private LandscapeOutputMode outputMode = LandscapeOutputMode.SAMPLES;
+
+	/**
+	 * Sets the contents written to the landscape files
+	 */
+	public void setOutputMode(LandscapeOutputMode outputMode)
+	{
+		this.outputMode = outputMode;
 	}
 
 	/**
-	 * Creates the landscape report for a given instance
+	 * Number of solutions sampled per number of customers
 	 */
-	private void createLandscapeForInstance(Project project, int[] budgetFactors, int[] riskImportances, String outputFilename) throws Exception
+	private int solutionsPerCustomer = 100;
+
+	/**
+	 * Sets the number of solutions sampled per number of customers
+	 */
+	public void setSolutionsPerCustomer(int solutionsPerCustomer)
+	{
+		this.solutionsPerCustomer = solutionsPerCustomer;
+	}
+	
+	/**
+	 * Creates the landscape report for a given budget factor, scoring the sampled solutions for all
+	 * risk importance levels and writing the levels one after the other
+	 */
+	private void createLandscapeForBudget(LandscapeWriter out, LandscapeSamplePool samples, int budgetFactor, int[] riskImportances, CostCapMultiWeightFitnessCalculator calculator) throws Exception
 	{
-		Constructor constructor = new RandomConstructor(project);
+		double[][] fitness = samples.evaluate(calculator);
+		double[] ratios = new double[samples.getSampleCount()];
 
-		String landscapeFilename = String.format(outputFilename, project.getInstance().getName());
-		File file = new File(landscapeFilename);
-		file.getParentFile().mkdirs();
+		for (int sample = 0; sample < samples.getSampleCount(); sample++)
+			ratios[sample] = calculator.getRatio(samples.getCost(sample), samples.getWorstCost(sample));
+
+		for (int k = 0; k < riskImportances.length; k++)
+			out.write(new Object[] { budgetFactor, riskImportances[k] }, samples, fitness[k], ratios);
+	}
+
+	/**
+	 * Writes a row per sampled solution, with its risk/cost ratio, for each budget factor and risk importance level
+	 */
+	private void createSamples(LandscapeWriter out, Project project, int[] budgetFactors, int[] riskImportances, CostCapMultiWeightFitnessCalculator[] calculators) throws Exception
+	{
+		LandscapeSamplePool samples = new LandscapeSamplePool(project, PseudoRandom.current(), solutionsPerCustomer, workerCount);
+		
+		for (int i = 0; i < calculators.length; i++)
+			createLandscapeForBudget(out, samples, budgetFactors[i], riskImportances, calculators[i]);
+	}
+
+	/**
+	 * Writes a row of statistics per number of customers, for each budget factor and risk importance level,
+	 * without keeping the sampled solutions
+	 */
+	private void createSummary(LandscapeWriter out, Project project, int[] budgetFactors, int[] riskImportances, IMultiWeightFitnessCalculator[] calculators) throws Exception
+	{
+		LandscapeSummary summary = new LandscapeSummary(project, PseudoRandom.current(), solutionsPerCustomer, workerCount, calculators);
 		
-		FileWriter outFile = new FileWriter(landscapeFilename);
-		PrintWriter out = new PrintWriter(outFile);
-		out.println("budget,risk,cust,fit,ratio");
+		for (int i = 0; i < calculators.length; i++)
+			for (int k = 0; k < riskImportances.length; k++)
+				out.write(new Object[] { budgetFactors[i], riskImportances[k] }, summary, i, k);
+	}
+
+	/**
+	 * Creates the landscape report for a given instance, sampling its solutions once for all budget factors
+	 */
+	private void createLandscapeForInstance(Project project, int[] budgetFactors, int[] riskImportances, String outputFilename) throws Exception
+	{
+		CostCapMultiWeightFitnessCalculator[] calculators = new CostCapMultiWeightFitnessCalculator[budgetFactors.length];
 		
-		for (int budgetFactor : budgetFactors)
+		for (int i = 0; i < budgetFactors.length; i++)
 		{
-			double availableBudget = project.getTotalCost() * (budgetFactor / 100.0);
-			
-			for (int riskImportance : riskImportances)
-			{
-				System.out.println("Processing " + project.getName() + " ...");
-				CostCapFitnessCalculator calculator = new CostCapFitnessCalculator(project, availableBudget, riskImportance);
-				createLandscapeForBudget(out, project, constructor, budgetFactor, riskImportance, calculator);
-			}
+			double availableBudget = project.getTotalCost() * (budgetFactors[i] / 100.0);
+			System.out.println("Processing " + project.getName() + " ...");
+			calculators[i] = new CostCapMultiWeightFitnessCalculator(project, availableBudget, riskImportances);
 		}
+
+		String landscapeFilename = String.format(outputFilename, project.getInstance().getName());
+		LandscapeWriter writer = new LandscapeWriter(landscapeFilename, workerCount, outputMode, KEY_COLUMNS, SAMPLE_COLUMNS);
+		
+		if (outputMode == LandscapeOutputMode.SUMMARY)
+			createSummary(writer, project, budgetFactors, riskImportances, calculators);
+		else
+			createSamples(writer, project, budgetFactors, riskImportances, calculators);
 		
-		out.close();
-		outFile.close();
+		writer.close();
 	}
 	
 	/**
@@ -82,8 +147,7 @@ public class CostCapLandscapeReport
 	{
 		for (Instance instance : instances)
 		{
-			RequirementReader reader = new RequirementReader();
-			Project project = reader.execute(instance);
+			Project project = ProjectRepository.getProject(instance);
 			createLandscapeForInstance(project, budgetFactors, riskImportances, outputFilename);
 		}
 	}
@@ -0,0 +1,33 @@
+package br.unirio.visualnrp.calc.landscape;
+
+/**
+ * Enumeration of the contents written by the landscape reports
+ *
+ * @author marciobarros
+ */
+public enum LandscapeOutputMode
+{
+	/**
+	 * Writes one row per sampled solution
+	 */
+	SAMPLES,
+
+	/**
+	 * Writes one row per number of customers, with summary statistics of the sampled solutions
+	 */
+	SUMMARY;
+
+	/**
+	 * Returns a mode, given its name ("samples" or "summary")
+	 */
+	public static LandscapeOutputMode get(String name)
+	{
+		if (name.equalsIgnoreCase("samples"))
+			return SAMPLES;
+
+		if (name.equalsIgnoreCase("summary"))
+			return SUMMARY;
+
+		return null;
+	}
+}
@@ -0,0 +1,179 @@
+package br.unirio.visualnrp.calc.landscape;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import br.unirio.visualnrp.algorithm.search.Solution;
+import br.unirio.visualnrp.calc.fitness.IMultiWeightFitnessCalculator;
+import br.unirio.visualnrp.model.Project;
+import br.unirio.visualnrp.support.PseudoRandom;
+
+/**
+ * Class that represents the solutions sampled for the landscape of an instance. A fixed number of
+ * solutions is sampled for each number of customers, from one to the number of customers in the
+ * project, and only their aggregates (cost, profit, risks and worst-case cost) are kept, in one
+ * array per aggregate. Samples are numbered by number of customers and then by sampling order, so
+ * that they can be scored for any budget and risk importance level without rebuilding solutions.
+ * Numbers of customers are sampled in parallel by a fixed number of blocks (see SamplingBlock), so
+ * that the samples do not depend on the number of worker threads.
+ * 
+ * @author marciobarros
+ */
+public class LandscapeSamplePool
+{
+	private int samplesPerCustomer;
+	private int[] costs;
+	private int[] profits;
+	private double[] costRisks;
+	private double[] profitRisks;
+	private double[] worstCosts;
+
+	/**
+	 * Samples the solutions of a project, given the random number generator, the number of solutions per
+	 * number of customers, and the number of worker threads
+	 */
+	public LandscapeSamplePool(Project project, PseudoRandom random, int samplesPerCustomer, int workerCount) throws Exception
+	{
+		int sampleCount = project.getCustomerCount() * samplesPerCustomer;
+
+		this.samplesPerCustomer = samplesPerCustomer;
+		this.costs = new int[sampleCount];
+		this.profits = new int[sampleCount];
+		this.costRisks = new double[sampleCount];
+		this.profitRisks = new double[sampleCount];
+		this.worstCosts = new double[sampleCount];
+
+		List<StoringBlock> blocks = new ArrayList<StoringBlock>(SamplingBlock.BLOCK_COUNT);
+
+		for (int i = 0; i < SamplingBlock.BLOCK_COUNT; i++)
+			blocks.add(new StoringBlock(project, random.split(), samplesPerCustomer, i + 1));
+
+		SamplingBlock.sample(blocks, workerCount);
+	}
+
+	/**
+	 * Returns the number of samples in the pool
+	 */
+	public int getSampleCount()
+	{
+		return costs.length;
+	}
+
+	/**
+	 * Returns the number of customers attended by a sample
+	 */
+	public int getCustomers(int sample)
+	{
+		return sample / samplesPerCustomer + 1;
+	}
+
+	/**
+	 * Returns the cost of a sample
+	 */
+	public int getCost(int sample)
+	{
+		return costs[sample];
+	}
+
+	/**
+	 * Returns the profit of a sample
+	 */
+	public int getProfit(int sample)
+	{
+		return profits[sample];
+	}
+
+	/**
+	 * Returns the cost-related risk of a sample
+	 */
+	public double getCostRisk(int sample)
+	{
+		return costRisks[sample];
+	}
+
+	/**
+	 * Returns the profit-related risk of a sample
+	 */
+	public double getProfitRisk(int sample)
+	{
+		return profitRisks[sample];
+	}
+
+	/**
+	 * Returns the worst-case cost of a sample
+	 */
+	public double getWorstCost(int sample)
+	{
+		return worstCosts[sample];
+	}
+
+	/**
+	 * Scores all samples under each risk importance level of a calculator, indexed by level and sample
+	 */
+	public double[][] evaluate(IMultiWeightFitnessCalculator calculator)
+	{
+		int weightCount = calculator.getWeightCount();
+		double[][] fitness = new double[weightCount][costs.length];
+		double[] sampleFitness = new double[weightCount];
+
+		for (int sample = 0; sample < costs.length; sample++)
+		{
+			calculator.evaluate(costs[sample], profits[sample], costRisks[sample], profitRisks[sample], worstCosts[sample], sampleFitness);
+
+			for (int k = 0; k < weightCount; k++)
+				fitness[k][sample] = sampleFitness[k];
+		}
+
+		return fitness;
+	}
+
+	/**
+	 * Class that keeps the aggregates of the samples of a block, copying them to their positions in the pool
+	 */
+	private class StoringBlock extends SamplingBlock
+	{
+		private int[] costs;
+		private int[] profits;
+		private double[] costRisks;
+		private double[] profitRisks;
+		private double[] worstCosts;
+
+		public StoringBlock(Project project, PseudoRandom random, int samplesPerCustomer, int firstCustomers)
+		{
+			super(project, random, samplesPerCustomer, firstCustomers);
+			int sampleCount = getCustomerCounts() * samplesPerCustomer;
+			this.costs = new int[sampleCount];
+			this.profits = new int[sampleCount];
+			this.costRisks = new double[sampleCount];
+			this.profitRisks = new double[sampleCount];
+			this.worstCosts = new double[sampleCount];
+		}
+
+		@Override
+		protected void addSample(int index, int sample, Solution solution)
+		{
+			int position = index * getSamplesPerCustomer() + sample;
+			costs[position] = solution.getCost();
+			profits[position] = solution.getProfit();
+			costRisks[position] = solution.getCostRisk();
+			profitRisks[position] = solution.getProfitRisk();
+			worstCosts[position] = solution.getWorstCost();
+		}
+
+		@Override
+		protected void collect()
+		{
+			for (int index = 0; index < getCustomerCounts(); index++)
+			{
+				int source = index * samplesPerCustomer;
+				int target = (getCustomers(index) - 1) * samplesPerCustomer;
+
+				System.arraycopy(costs, source, LandscapeSamplePool.this.costs, target, samplesPerCustomer);
+				System.arraycopy(profits, source, LandscapeSamplePool.this.profits, target, samplesPerCustomer);
+				System.arraycopy(costRisks, source, LandscapeSamplePool.this.costRisks, target, samplesPerCustomer);
+				System.arraycopy(profitRisks, source, LandscapeSamplePool.this.profitRisks, target, samplesPerCustomer);
+				System.arraycopy(worstCosts, source, LandscapeSamplePool.this.worstCosts, target, samplesPerCustomer);
+			}
+		}
+	}
+}
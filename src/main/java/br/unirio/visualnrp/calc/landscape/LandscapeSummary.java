@@ -0,0 +1,124 @@
+package br.unirio.visualnrp.calc.landscape;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import br.unirio.visualnrp.algorithm.search.Solution;
+import br.unirio.visualnrp.calc.fitness.IMultiWeightFitnessCalculator;
+import br.unirio.visualnrp.model.Project;
+import br.unirio.visualnrp.support.PseudoRandom;
+import br.unirio.visualnrp.support.StreamingStatistics;
+
+/**
+ * Class that represents the statistics of the fitness of the solutions sampled for the landscape of an
+ * instance, per number of customers. Each sample is scored by a set of calculators, under each of their
+ * risk importance levels, and added to the statistics as soon as it is taken, so that the memory used
+ * does not grow with the number of samples. Solutions are sampled as in LandscapeSamplePool, so that a
+ * given seed summarizes the same solutions written in sample rows.
+ *
+ * @author marciobarros
+ */
+public class LandscapeSummary
+{
+	/**
+	 * Number of customers in the project
+	 */
+	private int customerCount;
+
+	/**
+	 * Statistics indexed by calculator, risk importance level, and number of customers minus one
+	 */
+	private StreamingStatistics[][][] statistics;
+
+	/**
+	 * Samples the solutions of a project and summarizes their fitness under a set of calculators, given the
+	 * random number generator, the number of solutions per number of customers, and the number of worker threads
+	 */
+	public LandscapeSummary(Project project, PseudoRandom random, int samplesPerCustomer, int workerCount, IMultiWeightFitnessCalculator[] calculators) throws Exception
+	{
+		this.customerCount = project.getCustomerCount();
+		this.statistics = new StreamingStatistics[calculators.length][][];
+
+		for (int i = 0; i < calculators.length; i++)
+			this.statistics[i] = new StreamingStatistics[calculators[i].getWeightCount()][customerCount];
+
+		List<SummarizingBlock> blocks = new ArrayList<SummarizingBlock>(SamplingBlock.BLOCK_COUNT);
+
+		for (int i = 0; i < SamplingBlock.BLOCK_COUNT; i++)
+			blocks.add(new SummarizingBlock(project, random.split(), samplesPerCustomer, i + 1, calculators));
+
+		SamplingBlock.sample(blocks, workerCount);
+	}
+
+	/**
+	 * Returns the number of customers in the project, the largest number of customers in the samples
+	 */
+	public int getCustomerCount()
+	{
+		return customerCount;
+	}
+
+	/**
+	 * Returns the statistics of the samples with a number of customers, given a calculator and one of its risk importance levels
+	 */
+	public StreamingStatistics getStatistics(int calculator, int weight, int customers)
+	{
+		return statistics[calculator][weight][customers - 1];
+	}
+
+	/**
+	 * Class that summarizes the samples of a block, moving the statistics to their positions in the summary
+	 */
+	private class SummarizingBlock extends SamplingBlock
+	{
+		private IMultiWeightFitnessCalculator[] calculators;
+		private StreamingStatistics[][][] statistics;
+		private double[][] fitness;
+
+		public SummarizingBlock(Project project, PseudoRandom random, int samplesPerCustomer, int firstCustomers, IMultiWeightFitnessCalculator[] calculators)
+		{
+			super(project, random, samplesPerCustomer, firstCustomers);
+			this.calculators = calculators;
+			this.statistics = new StreamingStatistics[calculators.length][][];
+			this.fitness = new double[calculators.length][];
+
+			for (int i = 0; i < calculators.length; i++)
+			{
+				int weightCount = calculators[i].getWeightCount();
+				this.statistics[i] = new StreamingStatistics[weightCount][getCustomerCounts()];
+				this.fitness[i] = new double[weightCount];
+
+				for (int k = 0; k < weightCount; k++)
+					for (int index = 0; index < getCustomerCounts(); index++)
+						this.statistics[i][k][index] = new StreamingStatistics();
+			}
+		}
+
+		@Override
+		protected void addSample(int index, int sample, Solution solution)
+		{
+			int cost = solution.getCost();
+			int profit = solution.getProfit();
+			double costRisk = solution.getCostRisk();
+			double profitRisk = solution.getProfitRisk();
+			double worstCost = solution.getWorstCost();
+
+			for (int i = 0; i < calculators.length; i++)
+			{
+				calculators[i].evaluate(cost, profit, costRisk, profitRisk, worstCost, fitness[i]);
+
+				for (int k = 0; k < fitness[i].length; k++)
+					statistics[i][k][index].add(fitness[i][k]);
+			}
+		}
+
+		@Override
+		protected void collect()
+		{
+			for (int i = 0; i < statistics.length; i++)
+				for (int k = 0; k < statistics[i].length; k++)
+					for (int index = 0; index < getCustomerCounts(); index++)
+						LandscapeSummary.this.statistics[i][k][getCustomers(index) - 1] = statistics[i][k][index];
+		}
+	}
+}
@@ -0,0 +1,265 @@
+package br.unirio.visualnrp.calc.landscape;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+
+import br.unirio.visualnrp.support.ParallelCycleExecutor;
+import br.unirio.visualnrp.support.ParallelCycleExecutor.CycleWriter;
+import br.unirio.visualnrp.support.StreamingStatistics;
+import br.unirio.visualnrp.writer.ColumnType;
+import br.unirio.visualnrp.writer.CsvResultSink;
+import br.unirio.visualnrp.writer.ResultColumn;
+import br.unirio.visualnrp.writer.ResultSink;
+import br.unirio.visualnrp.writer.ResultSinkFactory;
+
+/**
+ * Class that writes the rows of a landscape report. For comma-separated files, the samples are split
+ * into chunks, formatted in parallel into the buffer of each worker thread, and written to the output
+ * in sample order, so that the file is the same as the one written by a single thread. Other result
+ * sinks receive the rows one by one, in sample order. In summary mode, the writer receives the
+ * statistics of the samples taken with each number of customers and writes a single row for each.
+ *
+ * @author marciobarros
+ */
+public class LandscapeWriter
+{
+	/**
+	 * Number of samples formatted by each task
+	 */
+	private static final int SAMPLES_PER_CHUNK = 2048;
+
+	/**
+	 * Line separator used by the rows, the same used by println
+	 */
+	private static final String LINE_SEPARATOR = System.getProperty("line.separator");
+
+	/**
+	 * Columns of the summary rows, after the number of customers
+	 */
+	private static final ResultColumn[] SUMMARY_COLUMNS = 
+	{
+		new ResultColumn("count", ColumnType.INTEGER),
+		new ResultColumn("mean", ColumnType.DOUBLE),
+		new ResultColumn("var", ColumnType.DOUBLE),
+		new ResultColumn("min", ColumnType.DOUBLE),
+		new ResultColumn("q1", ColumnType.DOUBLE),
+		new ResultColumn("median", ColumnType.DOUBLE),
+		new ResultColumn("q3", ColumnType.DOUBLE),
+		new ResultColumn("max", ColumnType.DOUBLE)
+	};
+
+	/**
+	 * Formatting buffer of each worker thread
+	 */
+	private static final ThreadLocal<StringBuilder> buffers = new ThreadLocal<StringBuilder>()
+	{
+		@Override
+		protected StringBuilder initialValue()
+		{
+			return new StringBuilder(SAMPLES_PER_CHUNK * 32);
+		}
+	};
+
+	/**
+	 * Output file
+	 */
+	private ResultSink out;
+
+	/**
+	 * Number of worker threads
+	 */
+	private int workerCount;
+
+	/**
+	 * Creates the output file, in the format given by its extension, and writes the header. The key columns
+	 * precede the number of customers in every row, while the sample columns follow it in sample rows.
+	 */
+	public LandscapeWriter(String filename, int workerCount, LandscapeOutputMode outputMode, ResultColumn[] keyColumns, ResultColumn[] sampleColumns) throws IOException
+	{
+		ResultColumn[] valueColumns = (outputMode == LandscapeOutputMode.SUMMARY) ? SUMMARY_COLUMNS : sampleColumns;
+		List<ResultColumn> columns = new ArrayList<ResultColumn>();
+
+		for (ResultColumn column : keyColumns)
+			columns.add(column);
+
+		columns.add(new ResultColumn("cust", ColumnType.INTEGER));
+
+		for (ResultColumn column : valueColumns)
+			columns.add(column);
+
+		this.out = ResultSinkFactory.create(filename, columns.toArray(new ResultColumn[columns.size()]));
+		this.workerCount = workerCount;
+	}
+
+	/**
+	 * Writes one row per number of customers, with the keys and the statistics of the samples scored by a
+	 * calculator under one of its risk importance levels (summary mode)
+	 */
+	public void write(Object[] keys, LandscapeSummary summary, int calculator, int weight) throws IOException
+	{
+		Object[] row = new Object[keys.length + 1 + SUMMARY_COLUMNS.length];
+		System.arraycopy(keys, 0, row, 0, keys.length);
+
+		for (int customers = 1; customers <= summary.getCustomerCount(); customers++)
+		{
+			StreamingStatistics statistics = summary.getStatistics(calculator, weight, customers);
+			row[keys.length] = customers;
+			row[keys.length + 1] = statistics.getCount();
+			row[keys.length + 2] = statistics.getMean();
+			row[keys.length + 3] = statistics.getVariance();
+			row[keys.length + 4] = statistics.getMinimum();
+			row[keys.length + 5] = statistics.getQuantile(0.25);
+			row[keys.length + 6] = statistics.getQuantile(0.5);
+			row[keys.length + 7] = statistics.getQuantile(0.75);
+			row[keys.length + 8] = statistics.getMaximum();
+			out.writeRow(row);
+		}
+	}
+
+	/**
+	 * Writes one row per sample, with the keys, the number of customers and the fitness of the sample (samples mode)
+	 */
+	public void write(Object[] keys, LandscapeSamplePool samples, double[] fitness) throws Exception
+	{
+		write(keys, samples, fitness, null, null);
+	}
+
+	/**
+	 * Writes one row per sample, with the keys, the number of customers, the fitness and an extra value of the sample (samples mode)
+	 */
+	public void write(Object[] keys, LandscapeSamplePool samples, double[] fitness, double[] extras) throws Exception
+	{
+		write(keys, samples, fitness, null, extras);
+	}
+
+	/**
+	 * Writes one row per sample, with the keys, the number of customers and the integer fitness of the sample (samples mode)
+	 */
+	public void write(Object[] keys, LandscapeSamplePool samples, int[] fitness) throws Exception
+	{
+		write(keys, samples, null, fitness, null);
+	}
+
+	/**
+	 * Closes the output file
+	 */
+	public void close() throws IOException
+	{
+		out.close();
+	}
+
+	/**
+	 * Writes the rows of the samples, in sample order
+	 */
+	private void write(Object[] keys, LandscapeSamplePool samples, double[] fitness, int[] integerFitness, double[] extras) throws Exception
+	{
+		if (out instanceof CsvResultSink)
+			writeFormatted((CsvResultSink) out, keys, samples, fitness, integerFitness, extras);
+		else
+			writeRows(keys, samples, fitness, integerFitness, extras);
+	}
+
+	/**
+	 * Passes the rows of the samples to the output, one by one
+	 */
+	private void writeRows(Object[] keys, LandscapeSamplePool samples, double[] fitness, int[] integerFitness, double[] extras) throws Exception
+	{
+		Object[] row = new Object[keys.length + ((extras != null) ? 3 : 2)];
+		System.arraycopy(keys, 0, row, 0, keys.length);
+
+		for (int sample = 0; sample < samples.getSampleCount(); sample++)
+		{
+			row[keys.length] = samples.getCustomers(sample);
+			row[keys.length + 1] = (fitness != null) ? (Object) fitness[sample] : (Object) integerFitness[sample];
+
+			if (extras != null)
+				row[keys.length + 2] = extras[sample];
+
+			out.writeRow(row);
+		}
+	}
+
+	/**
+	 * Formats the chunks of samples in parallel, writing them in sample order
+	 */
+	private void writeFormatted(final CsvResultSink csv, Object[] keys, LandscapeSamplePool samples, double[] fitness, int[] integerFitness, double[] extras) throws Exception
+	{
+		StringBuilder prefix = new StringBuilder();
+
+		for (Object key : keys)
+			prefix.append(key).append(',');
+
+		List<Callable<String>> chunks = new ArrayList<Callable<String>>();
+
+		for (int start = 0; start < samples.getSampleCount(); start += SAMPLES_PER_CHUNK)
+		{
+			int end = Math.min(start + SAMPLES_PER_CHUNK, samples.getSampleCount());
+			chunks.add(new FormattingChunk(prefix.toString(), samples, fitness, integerFitness, extras, start, end));
+		}
+
+		new ParallelCycleExecutor(workerCount).execute(chunks, new CycleWriter<String>()
+		{
+			@Override
+			public void write(int cycle, String rows)
+			{
+				csv.writeFormattedRows(rows);
+			}
+		});
+	}
+
+	/**
+	 * Class that formats the rows of a range of samples
+	 */
+	private static class FormattingChunk implements Callable<String>
+	{
+		private String prefix;
+		private LandscapeSamplePool samples;
+		private double[] fitness;
+		private int[] integerFitness;
+		private double[] extras;
+		private int start;
+		private int end;
+
+		public FormattingChunk(String prefix, LandscapeSamplePool samples, double[] fitness, int[] integerFitness, double[] extras, int start, int end)
+		{
+			this.prefix = prefix;
+			this.samples = samples;
+			this.fitness = fitness;
+			this.integerFitness = integerFitness;
+			this.extras = extras;
+			this.start = start;
+			this.end = end;
+		}
+
+		@Override
+		public String call()
+		{
+			StringBuilder sb = buffers.get();
+			sb.setLength(0);
+
+			for (int sample = start; sample < end; sample++)
+			{
+				sb.append(prefix);
+				sb.append(samples.getCustomers(sample));
+				sb.append(',');
+
+				if (fitness != null)
+					sb.append(fitness[sample]);
+				else
+					sb.append(integerFitness[sample]);
+
+				if (extras != null)
+				{
+					sb.append(',');
+					sb.append(extras[sample]);
+				}
+
+				sb.append(LINE_SEPARATOR);
+			}
+
+			return sb.toString();
+		}
+	}
+}
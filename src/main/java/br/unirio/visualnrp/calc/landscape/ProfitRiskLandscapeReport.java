@@ -1,21 +1,18 @@
 package br.unirio.visualnrp.calc.landscape;
 
-import java.io.File;
-import java.io.FileWriter;
-import java.io.PrintWriter;
+import java.util.ArrayList;
 import java.util.List;
 
-import br.unirio.visualnrp.algorithm.constructor.Constructor;
-import br.unirio.visualnrp.algorithm.constructor.RandomConstructor;
-import br.unirio.visualnrp.algorithm.search.Solution;
-import br.unirio.visualnrp.calc.fitness.IFitnessCalculator;
-import br.unirio.visualnrp.calc.fitness.ProfitRiskFitnessCalculator;
+import br.unirio.visualnrp.calc.fitness.IMultiWeightFitnessCalculator;
+import br.unirio.visualnrp.calc.fitness.ProfitRiskMultiWeightFitnessCalculator;
 import br.unirio.visualnrp.model.Instance;
 import br.unirio.visualnrp.model.MaximumValues;
 import br.unirio.visualnrp.model.MaximumValuesList;
 import br.unirio.visualnrp.model.Project;
-import br.unirio.visualnrp.reader.MaximumValuesReader;
-import br.unirio.visualnrp.reader.RequirementReader;
+import br.unirio.visualnrp.reader.ProjectRepository;
+import br.unirio.visualnrp.support.PseudoRandom;
+import br.unirio.visualnrp.writer.ColumnType;
+import br.unirio.visualnrp.writer.ResultColumn;
 
 /**
  * Class that represents the profit risk landscape report
@@ -25,43 +22,105 @@ import br.unirio.visualnrp.reader.RequirementReader;
 public class ProfitRiskLandscapeReport
 {
 	/**
-	 * Number of solutions per costumer
+	 * Columns that precede the number of customers in the landscape files
 	 */
-	private static int SOLUTIONS_PER_CUSTOMER = 100;
+	private static final ResultColumn[] KEY_COLUMNS = 
+	{
+		new ResultColumn("budget", ColumnType.INTEGER),
+		new ResultColumn("risk", ColumnType.INTEGER)
+	};
+
+	/**
+	 * Columns that follow the number of customers in the sample rows of the landscape files
+	 */
+	private static final ResultColumn[] SAMPLE_COLUMNS = 
+	{
+		new ResultColumn("fit", ColumnType.DOUBLE)
+	};
 	
 	/**
-	 * Creates the landscape report for a given instance and budget factor
+	 * Number of worker threads used to sample and write the landscape
 	 */
-	private void createLandscapeForBudget(PrintWriter out, Project project, Constructor constructor, int budgetFactor, int riskImportance, IFitnessCalculator calculator) throws Exception
+	private int workerCount = Runtime.getRuntime().availableProcessors();
+
+	/**
+	 * Sets the number of worker threads used to sample and write the landscape
+	 */
+	public void setWorkerCount(int workerCount)
 	{
-		Solution sSolution = new Solution(project);
+		this.workerCount = workerCount;
+	}
 
-		for (int i = 1; i <= project.getCustomerCount(); i++)
-		{
-			for (int j = 0; j < SOLUTIONS_PER_CUSTOMER; j++)
-			{
-				boolean[] solution = constructor.generateSolutionWith(i);
-				sSolution.setAllCustomers(solution);
-				double fitness = calculator.evaluate(sSolution);
-				out.println(budgetFactor + "," + riskImportance + "," + i + "," + fitness);
-			}
-		}
+	/**
+	 * Contents written to the landscape files
+	 */
+	private LandscapeOutputMode outputMode = LandscapeOutputMode.SAMPLES;
+
+	/**
+	 * Sets the contents written to the landscape files
+	 */
+	public void setOutputMode(LandscapeOutputMode outputMode)
+	{
+		this.outputMode = outputMode;
 	}
 
 	/**
-	 * Creates the landscape report for a given instance
+	 * Number of solutions sampled per number of customers
 	 */
-	private void createLandscapeForInstance(Project project, Instance instance, int[] budgetFactors, int[] riskImportances, MaximumValuesList maximumValues, String outputFilename) throws Exception
+	private int solutionsPerCustomer = 100;
+
+	/**
+	 * Sets the number of solutions sampled per number of customers
+	 */
+	public void setSolutionsPerCustomer(int solutionsPerCustomer)
+	{
+		this.solutionsPerCustomer = solutionsPerCustomer;
+	}
+	
+	/**
+	 * Creates the landscape report for a given budget factor, scoring the sampled solutions for all
+	 * risk importance levels and writing the levels one after the other
+	 */
+	private void createLandscapeForBudget(LandscapeWriter out, LandscapeSamplePool samples, int budgetFactor, int[] riskImportances, IMultiWeightFitnessCalculator calculator) throws Exception
 	{
-		Constructor constructor = new RandomConstructor(project);
+		double[][] fitness = samples.evaluate(calculator);
 
-		String landscapeFilename = String.format(outputFilename, project.getInstance().getName());
-		File file = new File(landscapeFilename);
-		file.getParentFile().mkdirs();
+		for (int k = 0; k < riskImportances.length; k++)
+			out.write(new Object[] { budgetFactor, riskImportances[k] }, samples, fitness[k]);
+	}
+
+	/**
+	 * Writes a row per sampled solution, for each budget factor and risk importance level
+	 */
+	private void createSamples(LandscapeWriter out, Project project, List<Integer> budgetFactors, int[] riskImportances, List<IMultiWeightFitnessCalculator> calculators) throws Exception
+	{
+		LandscapeSamplePool samples = new LandscapeSamplePool(project, PseudoRandom.current(), solutionsPerCustomer, workerCount);
+		
+		for (int i = 0; i < calculators.size(); i++)
+			createLandscapeForBudget(out, samples, budgetFactors.get(i), riskImportances, calculators.get(i));
+	}
+
+	/**
+	 * Writes a row of statistics per number of customers, for each budget factor and risk importance level,
+	 * without keeping the sampled solutions
+	 */
+	private void createSummary(LandscapeWriter out, Project project, List<Integer> budgetFactors, int[] riskImportances, List<IMultiWeightFitnessCalculator> calculators) throws Exception
+	{
+		IMultiWeightFitnessCalculator[] summaryCalculators = calculators.toArray(new IMultiWeightFitnessCalculator[calculators.size()]);
+		LandscapeSummary summary = new LandscapeSummary(project, PseudoRandom.current(), solutionsPerCustomer, workerCount, summaryCalculators);
 		
-		FileWriter outFile = new FileWriter(landscapeFilename);
-		PrintWriter out = new PrintWriter(outFile);
-		out.println("budget,risk,cust,fit");
+		for (int i = 0; i < calculators.size(); i++)
+			for (int k = 0; k < riskImportances.length; k++)
+				out.write(new Object[] { budgetFactors.get(i), riskImportances[k] }, summary, i, k);
+	}
+
+	/**
+	 * Creates the landscape report for a given instance, sampling its solutions once for all budget factors
+	 */
+	private void createLandscapeForInstance(Project project, Instance instance, int[] budgetFactors, int[] riskImportances, MaximumValuesList maximumValues, String outputFilename) throws Exception
+	{
+		List<Integer> sampledBudgetFactors = new ArrayList<Integer>();
+		List<IMultiWeightFitnessCalculator> calculators = new ArrayList<IMultiWeightFitnessCalculator>();
 		
 		for (int budgetFactor : budgetFactors)
 		{
@@ -70,17 +129,27 @@ public class ProfitRiskLandscapeReport
 			
 			if (values != null)
 			{
-				for (int riskImportance : riskImportances)
-				{
-					System.out.println("Processing " + project.getName() + " ...");
-					IFitnessCalculator calculator = new ProfitRiskFitnessCalculator(project, availableBudget, riskImportance, values.getMaximumProfit(), values.getMaximumProfitRisk());
-					createLandscapeForBudget(out, project, constructor, budgetFactor, riskImportance, calculator);
-				}
+				System.out.println("Processing " + project.getName() + " ...");
+				sampledBudgetFactors.add(budgetFactor);
+				calculators.add(new ProfitRiskMultiWeightFitnessCalculator(project, availableBudget, riskImportances, values.getMaximumProfit(), values.getMaximumProfitRisk()));
 			}
 		}
+
+		String landscapeFilename = String.format(outputFilename, project.getInstance().getName());
+		LandscapeWriter writer = new LandscapeWriter(landscapeFilename, workerCount, outputMode, KEY_COLUMNS, SAMPLE_COLUMNS);
+		
+		if (calculators.isEmpty())
+		{
+			writer.close();
+			return;
+		}
+		
+		if (outputMode == LandscapeOutputMode.SUMMARY)
+			createSummary(writer, project, sampledBudgetFactors, riskImportances, calculators);
+		else
+			createSamples(writer, project, sampledBudgetFactors, riskImportances, calculators);
 		
-		out.close();
-		outFile.close();
+		writer.close();
 	}
 	
 	/**
@@ -88,13 +157,12 @@ public class ProfitRiskLandscapeReport
 	 */
 	public void execute(List<Instance> instances, int[] budgetFactors, int[] riskImportances, String outputFilename) throws Exception
 	{
-		MaximumValuesList maximumValues = new MaximumValuesReader().execute();
+		MaximumValuesList maximumValues = ProjectRepository.getMaximumValues();
 		
 		for (int instanceIndex = 0; instanceIndex < instances.size(); instanceIndex++)
 		{
 			Instance instance = instances.get(instanceIndex);
-			RequirementReader reader = new RequirementReader();
-			Project project = reader.execute(instance);
+			Project project = ProjectRepository.getProject(instance);
 			createLandscapeForInstance(project, instance, budgetFactors, riskImportances, maximumValues, outputFilename);
 		}
 	}
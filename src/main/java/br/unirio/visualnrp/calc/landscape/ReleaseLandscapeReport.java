@@ -1,16 +1,18 @@
 package br.unirio.visualnrp.calc.landscape;
 
-import java.io.FileWriter;
-import java.io.PrintWriter;
-
 import br.unirio.visualnrp.algorithm.constructor.Constructor;
 import br.unirio.visualnrp.algorithm.constructor.RandomConstructor;
 import br.unirio.visualnrp.algorithm.search.Algorithm;
 import br.unirio.visualnrp.algorithm.search.SearchAlgorithm;
+import br.unirio.visualnrp.calc.fitness.IMultiWeightFitnessCalculator;
 import br.unirio.visualnrp.calc.fitness.ProfitFitnessCalculator;
 import br.unirio.visualnrp.model.Instance;
 import br.unirio.visualnrp.model.Project;
-import br.unirio.visualnrp.reader.RequirementReader;
+import br.unirio.visualnrp.model.ProjectBuilder;
+import br.unirio.visualnrp.reader.ProjectRepository;
+import br.unirio.visualnrp.support.PseudoRandom;
+import br.unirio.visualnrp.writer.ColumnType;
+import br.unirio.visualnrp.writer.ResultColumn;
 
 /**
  * Class that represents the landscape report
@@ -20,9 +22,60 @@ import br.unirio.visualnrp.reader.RequirementReader;
 public class ReleaseLandscapeReport
 {
 	/**
-	 * Number of solutions per costumer
+	 * Columns that precede the number of customers in the landscape files
+	 */
+	private static final ResultColumn[] KEY_COLUMNS = 
+	{
+		new ResultColumn("budget", ColumnType.INTEGER),
+		new ResultColumn("round", ColumnType.INTEGER)
+	};
+
+	/**
+	 * Columns that follow the number of customers in the sample rows of the landscape files
 	 */
-	private static int SOLUTIONS_PER_CUSTOMER = 100;
+	private static final ResultColumn[] SAMPLE_COLUMNS = 
+	{
+		new ResultColumn("fit", ColumnType.INTEGER)
+	};
+	
+	/**
+	 * Number of worker threads used to sample and write the landscape
+	 */
+	private int workerCount = Runtime.getRuntime().availableProcessors();
+
+	/**
+	 * Sets the number of worker threads used to sample and write the landscape
+	 */
+	public void setWorkerCount(int workerCount)
+	{
+		this.workerCount = workerCount;
+	}
+
+	/**
+	 * Contents written to the landscape files
+	 */
+	private LandscapeOutputMode outputMode = LandscapeOutputMode.SAMPLES;
+
+	/**
+	 * Sets the contents written to the landscape files
+	 */
+	public void setOutputMode(LandscapeOutputMode outputMode)
+	{
+		this.outputMode = outputMode;
+	}
+
+	/**
+	 * Number of solutions sampled per number of customers
+	 */
+	private int solutionsPerCustomer = 100;
+
+	/**
+	 * Sets the number of solutions sampled per number of customers
+	 */
+	public void setSolutionsPerCustomer(int solutionsPerCustomer)
+	{
+		this.solutionsPerCustomer = solutionsPerCustomer;
+	}
 	
 	/**
 	 * Creates the landscape reports without risk for all instances
@@ -30,12 +83,9 @@ public class ReleaseLandscapeReport
 	public void execute(Instance instance, int budgetFactor, String outputFilename, int rounds) throws Exception
 	{
 		String landscapeFilename = String.format(outputFilename, instance.getName());
-		FileWriter outFile = new FileWriter(landscapeFilename);
-		PrintWriter out = new PrintWriter(outFile);
-		out.println("budget,round,cust,fit");
+		LandscapeWriter writer = new LandscapeWriter(landscapeFilename, workerCount, outputMode, KEY_COLUMNS, SAMPLE_COLUMNS);
 
-		RequirementReader reader = new RequirementReader();
-		Project project = reader.execute(instance);
+		Project project = ProjectRepository.getProject(instance);
 		System.out.println("Source: profit=" + project.getTotalProfit() + "; cost=" + project.getTotalCost());
 
 		Constructor constructor = new RandomConstructor(project);
@@ -46,7 +96,7 @@ public class ReleaseLandscapeReport
 		boolean[] solution = visils.execute(calculator);
 
 		System.out.println("Solution: profit=" + project.calculateProfit(solution) + "; cost=" + project.calculateCost(solution));
-		createLandscape(out, project, constructor, budgetFactor, 0);
+		createLandscape(writer, project, budgetFactor, 0);
 		
 		for (int i = 1; i < rounds; i++)
 		{
@@ -61,11 +111,10 @@ public class ReleaseLandscapeReport
 			solution = visils.execute(calculator);
 
 			System.out.println("Solution: profit=" + project.calculateProfit(solution) + "; cost=" + project.calculateCost(solution));
-			createLandscape(out, project, nextConstructor, budgetFactor, i);
+			createLandscape(writer, project, budgetFactor, i);
 		}
 
-		out.close();
-		outFile.close();
+		writer.close();
 	}
 
 	/**
@@ -76,13 +125,13 @@ public class ReleaseLandscapeReport
 		int attendedCustomers = countAttendedCustomers(solution);
 		boolean[] resolvedRequirements = source.getCustomersRequirements(solution);
 
-		Project target = new Project(source.getInstance());
+		ProjectBuilder target = new ProjectBuilder(source.getInstance());
 		target.setCustomerCount(source.getCustomerCount() - attendedCustomers);
 		target.addRequirements(source.getRequirementCount());
 		
 		copyRequirements(source, resolvedRequirements, target);
 		copyUnattendedCustomers(source, solution, resolvedRequirements, target);
-		return target;
+		return target.build();
 	}
 
 	/**
@@ -102,7 +151,7 @@ public class ReleaseLandscapeReport
 	/**
 	 * Copies all requirements from the source solution to the target, eliminating resolved requirements from dependencies
 	 */
-	private void copyRequirements(Project source, boolean[] resolvedRequirements, Project target) 
+	private void copyRequirements(Project source, boolean[] resolvedRequirements, ProjectBuilder target) 
 	{
 		for (int i = 0; i < source.getRequirementCount(); i++)
 		{
@@ -111,18 +160,14 @@ public class ReleaseLandscapeReport
 			else
 				target.setRequirementCost(i, source.getRequirementCost(i));
 			
-			if (source.requirementHasPrecedents(i))
-			{
-				int position = 0;
-				int index = source.getRequirementPrecedentIndex(i, position++);
+			int precedents = source.getRequirementPrecedentsCount(i);
 	
-				while (index != -1)
-				{
-					if (!resolvedRequirements[index])
-						target.addRequirementDependency(i, index);
+			for (int position = 0; position < precedents; position++)
+			{
+				int index = source.getRequirementPrecedentIndex(i, position);
 
-					index = source.getRequirementPrecedentIndex(i, position++);
-				}
+				if (!resolvedRequirements[index])
+					target.addRequirementDependency(i, index);
 			}
 		}
 	}
@@ -130,7 +175,7 @@ public class ReleaseLandscapeReport
 	/**
 	 * Copies unattended customers from a source solution to a target one
 	 */
-	private void copyUnattendedCustomers(Project source, boolean[] solution, boolean[] resolvedRequirements, Project target) 
+	private void copyUnattendedCustomers(Project source, boolean[] solution, boolean[] resolvedRequirements, ProjectBuilder target) 
 	{
 		int customerPosition = 0;
 		
@@ -160,31 +205,60 @@ public class ReleaseLandscapeReport
 	/**
 	 * Creates the landscape report for a given instance and budget factor
 	 */
-	private void createLandscape(PrintWriter out, Project project, Constructor constructor, int budgetFactor, int round) throws Exception
+	private void createLandscape(LandscapeWriter out, Project project, int budgetFactor, int round) throws Exception
 	{
 		double availableBudget = project.getTotalCost() * (budgetFactor / 100.0);
-
-		for (int i = 1; i <= project.getCustomerCount(); i++)
+		
+		if (outputMode == LandscapeOutputMode.SUMMARY)
 		{
-			for (int j = 0; j < SOLUTIONS_PER_CUSTOMER; j++)
-			{
-				boolean[] solution = constructor.generateSolutionWith(i);
-				int fitness = evaluate(solution, project, availableBudget);
-				out.println(budgetFactor + "," + round + "," + i + "," + fitness);
-			}
+			IMultiWeightFitnessCalculator[] calculators = { new ReleaseFitnessCalculator(availableBudget) };
+			LandscapeSummary summary = new LandscapeSummary(project, PseudoRandom.current(), solutionsPerCustomer, workerCount, calculators);
+			out.write(new Object[] { budgetFactor, round }, summary, 0, 0);
+			return;
 		}
+		
+		LandscapeSamplePool samples = new LandscapeSamplePool(project, PseudoRandom.current(), solutionsPerCustomer, workerCount);
+		int[] fitness = new int[samples.getSampleCount()];
+
+		for (int sample = 0; sample < samples.getSampleCount(); sample++)
+			fitness[sample] = evaluate(samples.getCost(sample), samples.getProfit(sample), availableBudget);
+
+		out.write(new Object[] { budgetFactor, round }, samples, fitness);
 	}
 	
 	/**
-	 * Calculates the fitness of a given solution
+	 * Calculates the fitness of a solution, given its cost and profit
 	 */
-	private int evaluate(boolean[] solution, Project project, double availableBudget) throws Exception
+	private static int evaluate(int cost, int profit, double availableBudget)
 	{
-		int cost = project.calculateCost(solution);
-		
 		if (cost > availableBudget)
 			return -cost;
 
-		return project.calculateProfit(solution);
+		return profit;
+	}
+	
+	/**
+	 * Class that scores the samples summarized for a round, as they are taken
+	 */
+	private static class ReleaseFitnessCalculator implements IMultiWeightFitnessCalculator
+	{
+		private double availableBudget;
+		
+		public ReleaseFitnessCalculator(double availableBudget)
+		{
+			this.availableBudget = availableBudget;
+		}
+
+		@Override
+		public int getWeightCount()
+		{
+			return 1;
+		}
+
+		@Override
+		public void evaluate(int cost, int profit, double costRisk, double profitRisk, double worstCost, double[] fitness)
+		{
+			fitness[0] = ReleaseLandscapeReport.evaluate(cost, profit, availableBudget);
+		}
 	}
 }
\ No newline at end of file
@@ -0,0 +1,122 @@
+package br.unirio.visualnrp.calc.landscape;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+
+import br.unirio.visualnrp.algorithm.constructor.RandomConstructor;
+import br.unirio.visualnrp.algorithm.search.Solution;
+import br.unirio.visualnrp.model.Project;
+import br.unirio.visualnrp.support.ParallelCycleExecutor;
+import br.unirio.visualnrp.support.ParallelCycleExecutor.CycleWriter;
+import br.unirio.visualnrp.support.PseudoRandom;
+
+/**
+ * Class that samples the solutions for the numbers of customers dealt to a block. Numbers of customers
+ * are dealt to a fixed number of blocks (the first block takes one, BLOCK_COUNT + 1, and so on), each
+ * sampled with its own random number stream, so that the samples do not depend on the number of worker
+ * threads. Subclasses decide what is kept from each sample and how it is collected once the block is done.
+ *
+ * @author marciobarros
+ */
+abstract class SamplingBlock implements Callable<SamplingBlock>
+{
+	/**
+	 * Number of blocks among which the numbers of customers are dealt
+	 */
+	public static final int BLOCK_COUNT = 16;
+
+	private Project project;
+	private PseudoRandom random;
+	private int samplesPerCustomer;
+	private int firstCustomers;
+	private int customerCounts;
+
+	/**
+	 * Initializes the block, given its random number generator, the number of solutions per number of
+	 * customers, and the first number of customers dealt to it
+	 */
+	protected SamplingBlock(Project project, PseudoRandom random, int samplesPerCustomer, int firstCustomers)
+	{
+		int customerCount = project.getCustomerCount();
+
+		this.project = project;
+		this.random = random;
+		this.samplesPerCustomer = samplesPerCustomer;
+		this.firstCustomers = firstCustomers;
+		this.customerCounts = (customerCount < firstCustomers) ? 0 : (customerCount - firstCustomers) / BLOCK_COUNT + 1;
+	}
+
+	/**
+	 * Returns the number of solutions sampled per number of customers
+	 */
+	public int getSamplesPerCustomer()
+	{
+		return samplesPerCustomer;
+	}
+
+	/**
+	 * Returns how many numbers of customers were dealt to the block
+	 */
+	public int getCustomerCounts()
+	{
+		return customerCounts;
+	}
+
+	/**
+	 * Returns a number of customers dealt to the block, given its position in the block
+	 */
+	public int getCustomers(int index)
+	{
+		return firstCustomers + index * BLOCK_COUNT;
+	}
+
+	@Override
+	public SamplingBlock call() throws Exception
+	{
+		RandomConstructor constructor = new RandomConstructor(project, random);
+		Solution solution = new Solution(project);
+		boolean[] selection = new boolean[project.getCustomerCount()];
+
+		for (int index = 0; index < customerCounts; index++)
+		{
+			int customers = getCustomers(index);
+
+			for (int sample = 0; sample < samplesPerCustomer; sample++)
+			{
+				constructor.generateSolutionWith(customers, selection);
+				solution.setAllCustomers(selection);
+				addSample(index, sample, solution);
+			}
+		}
+
+		return this;
+	}
+
+	/**
+	 * Keeps a sampled solution, given the position of its number of customers in the block and its sampling order
+	 */
+	protected abstract void addSample(int index, int sample, Solution solution);
+
+	/**
+	 * Collects what was kept from the samples, once all of them were taken
+	 */
+	protected abstract void collect();
+
+	/**
+	 * Samples the blocks on a pool of worker threads, collecting their samples in block order
+	 */
+	public static void sample(List<? extends SamplingBlock> blocks, int workerCount) throws Exception
+	{
+		List<Callable<SamplingBlock>> tasks = new ArrayList<Callable<SamplingBlock>>(blocks);
+
+		new ParallelCycleExecutor(workerCount).execute(tasks, new CycleWriter<SamplingBlock>()
+		{
+			@Override
+			public void write(int cycle, SamplingBlock block)
+			{
+				block.collect();
+			}
+		});
+	}
+}
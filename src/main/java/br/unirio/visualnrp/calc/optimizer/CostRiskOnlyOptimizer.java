@@ -1,13 +1,13 @@
 package br.unirio.visualnrp.calc.optimizer;
 
-import java.io.PrintWriter;
 import java.util.List;
 
 import br.unirio.visualnrp.algorithm.search.Algorithm;
 import br.unirio.visualnrp.calc.fitness.CostRiskOnlyFitnessCalculator;
 import br.unirio.visualnrp.model.Instance;
 import br.unirio.visualnrp.model.Project;
-import br.unirio.visualnrp.reader.RequirementReader;
+import br.unirio.visualnrp.reader.ProjectRepository;
+import br.unirio.visualnrp.writer.ResultSink;
 
 /**
  * Class that performs the cost risk based optimization (maximization)
@@ -19,7 +19,7 @@ public class CostRiskOnlyOptimizer extends GenericOptimizer
 	/**
 	 * Creates the optimization report for a given instance
 	 */
-	private void createReportForInstance(PrintWriter out, Project project, int[] budgetFactors, Algorithm[] algorithms) throws Exception
+	private void createReportForInstance(ResultSink out, Project project, int[] budgetFactors, Algorithm[] algorithms) throws Exception
 	{
 		for (int i = 0; i < budgetFactors.length; i++)
 		{
@@ -39,15 +39,14 @@ public class CostRiskOnlyOptimizer extends GenericOptimizer
 	 */
 	public void execute(List<Instance> instances, int[] budgetFactors, String outputFilename) throws Exception
 	{
-		PrintWriter out = createOutputFile(outputFilename);
+		ResultSink out = createOutputFile(outputFilename);
 
 		for (int i = 0; i < instances.size(); i++)
 		{
 			Instance instance = instances.get(i);
-			RequirementReader reader = new RequirementReader();
-			Project project = reader.execute(instance);
+			Project project = ProjectRepository.getProject(instance);
 			System.out.println("Processing " + project.getName() + " ...");
-			createReportForInstance(out, project, budgetFactors, ALGORITHM_ILS_VISILS);
+			createReportForInstance(out, project, budgetFactors, getAlgorithms(ALGORITHM_ILS_VISILS));
 		}
 		
 		out.close();
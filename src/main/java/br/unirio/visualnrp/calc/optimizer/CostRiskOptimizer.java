@@ -1,6 +1,5 @@
 package br.unirio.visualnrp.calc.optimizer;
 
-import java.io.PrintWriter;
 import java.util.List;
 
 import br.unirio.visualnrp.algorithm.search.Algorithm;
@@ -9,8 +8,8 @@ import br.unirio.visualnrp.model.Instance;
 import br.unirio.visualnrp.model.MaximumValues;
 import br.unirio.visualnrp.model.MaximumValuesList;
 import br.unirio.visualnrp.model.Project;
-import br.unirio.visualnrp.reader.MaximumValuesReader;
-import br.unirio.visualnrp.reader.RequirementReader;
+import br.unirio.visualnrp.reader.ProjectRepository;
+import br.unirio.visualnrp.writer.ResultSink;
 
 /**
  * Class that performs the cost risk based optimization
@@ -22,7 +21,7 @@ public class CostRiskOptimizer extends GenericOptimizer
 	/**
 	 * Creates the optimization report for a given instance
 	 */
-	private void createReportForInstance(PrintWriter out, Project project, Instance instance, int[] budgetFactors, int[] riskImportances, MaximumValuesList maximumValues, Algorithm[] algorithms) throws Exception
+	private void createReportForInstance(ResultSink out, Project project, Instance instance, int[] budgetFactors, int[] riskImportances, MaximumValuesList maximumValues, Algorithm[] algorithms) throws Exception
 	{
 		for (int budgetFactor : budgetFactors)
 		{
@@ -49,17 +48,16 @@ public class CostRiskOptimizer extends GenericOptimizer
 	 */
 	public void execute(List<Instance> instances, int[] budgetFactors, int[] riskImportances, String outputFilename) throws Exception
 	{
-		MaximumValuesList maximumValues = new MaximumValuesReader().execute();
+		MaximumValuesList maximumValues = ProjectRepository.getMaximumValues();
 		
-		PrintWriter out = createOutputFile(outputFilename);
+		ResultSink out = createOutputFile(outputFilename);
 
 		for (int i = 0; i < instances.size(); i++)
 		{
 			Instance instance = instances.get(i);
-			RequirementReader reader = new RequirementReader();
-			Project project = reader.execute(instance);
+			Project project = ProjectRepository.getProject(instance);
 			System.out.println("Processing " + project.getName() + " ...");
-			createReportForInstance(out, project, instance, budgetFactors, riskImportances, maximumValues, ALGORITHM_ILS_VISILS);
+			createReportForInstance(out, project, instance, budgetFactors, riskImportances, maximumValues, getAlgorithms(ALGORITHM_ILS_VISILS));
 		}
 		
 		out.close();
@@ -1,17 +1,29 @@
 package br.unirio.visualnrp.calc.optimizer;
 
-import java.io.File;
-import java.io.FileWriter;
 import java.io.IOException;
-import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
 
 import br.unirio.visualnrp.algorithm.constructor.Constructor;
 import br.unirio.visualnrp.algorithm.constructor.GreedyConstructor;
 import br.unirio.visualnrp.algorithm.search.Algorithm;
 import br.unirio.visualnrp.algorithm.search.SearchAlgorithm;
+import br.unirio.visualnrp.algorithm.search.SearchOptions;
 import br.unirio.visualnrp.algorithm.search.Solution;
+import br.unirio.visualnrp.algorithm.search.SolutionBackend;
+import br.unirio.visualnrp.algorithm.search.TargetFitnessCriterion;
 import br.unirio.visualnrp.calc.fitness.IFitnessCalculator;
 import br.unirio.visualnrp.model.Project;
+import br.unirio.visualnrp.support.ParallelCycleExecutor;
+import br.unirio.visualnrp.support.ParallelCycleExecutor.CycleWriter;
+import br.unirio.visualnrp.support.PseudoRandom;
+import br.unirio.visualnrp.writer.ColumnType;
+import br.unirio.visualnrp.writer.ResultColumn;
+import br.unirio.visualnrp.writer.ResultSink;
+import br.unirio.visualnrp.writer.ResultSinkFactory;
 
 /**
  * Superclass for all optimizers
@@ -51,50 +63,223 @@ public class GenericOptimizer
 	protected static final Algorithm[] ALGORITHM_ILS_VISILS = { Algorithm.ILS, Algorithm.VISILS };
 
 	/**
-	 * Creates the landscape report for a given instance and budget factor
+	 * Columns of the output file
 	 */
-	protected void createReportForBudget(PrintWriter out, Project project, int budgetFactor, int riskImportance, Algorithm algorithm, IFitnessCalculator calculator) throws Exception
+	private static final ResultColumn[] COLUMNS = 
 	{
-		Constructor constructor = new GreedyConstructor(project);
+		new ResultColumn("alg", ColumnType.STRING),
+		new ResultColumn("instance", ColumnType.STRING),
+		new ResultColumn("cycle", ColumnType.INTEGER),
+		new ResultColumn("budget", ColumnType.INTEGER),
+		new ResultColumn("risk", ColumnType.INTEGER),
+		new ResultColumn("fit", ColumnType.DOUBLE),
+		new ResultColumn("solution", ColumnType.SOLUTION),
+		new ResultColumn("stop", ColumnType.STRING)
+	};
+
+	/**
+	 * Number of worker threads used to run the optimization cycles
+	 */
+	private int workerCount = Runtime.getRuntime().availableProcessors();
+
+	/**
+	 * Algorithms run by the optimizer, replacing its default configuration (null to use the default)
+	 */
+	private Algorithm[] algorithms = null;
+
+	/**
+	 * Options used to configure the searches
+	 */
+	private SearchOptions searchOptions = new SearchOptions();
+
+	/**
+	 * Fitness values that stop the searches, indexed by instance name and budget factor (such as "nrp1-30")
+	 */
+	private Map<String, Double> targetFitness = new HashMap<String, Double>();
+
+	/**
+	 * Sets the number of worker threads used to run the optimization cycles
+	 */
+	public void setWorkerCount(int workerCount)
+	{
+		this.workerCount = workerCount;
+	}
+
+	/**
+	 * Sets the algorithms run by the optimizer, replacing its default configuration
+	 */
+	public void setAlgorithms(Algorithm[] algorithms)
+	{
+		this.algorithms = algorithms;
+	}
 
-		double sum = 0.0;
-		double maxFitness = 0;
+	/**
+	 * Returns the algorithms run by the optimizer, given its default configuration
+	 */
+	protected Algorithm[] getAlgorithms(Algorithm[] defaultAlgorithms)
+	{
+		return (algorithms != null) ? algorithms : defaultAlgorithms;
+	}
+
+	/**
+	 * Sets the options used to configure the searches
+	 */
+	public void setSearchOptions(SearchOptions searchOptions)
+	{
+		this.searchOptions = searchOptions;
+	}
+
+	/**
+	 * Sets the fitness values that stop the searches, indexed by instance name and budget factor
+	 */
+	public void setTargetFitness(Map<String, Double> targetFitness)
+	{
+		this.targetFitness = targetFitness;
+	}
+
+	/**
+	 * Creates the landscape report for a given instance and budget factor
+	 */
+	protected void createReportForBudget(ResultSink out, Project project, int budgetFactor, int riskImportance, Algorithm algorithm, IFitnessCalculator calculator) throws Exception
+	{
+		List<Callable<CycleResult>> cycles = new ArrayList<Callable<CycleResult>>(CYCLES);
+		Double target = targetFitness.get(project.getName() + "-" + budgetFactor);
 		
 		for (int i = 0; i < CYCLES; i++)
+			cycles.add(new OptimizationCycle(project, algorithm, searchOptions, calculator, target, PseudoRandom.randSeed()));
+
+		CycleReportWriter writer = new CycleReportWriter(out, project, budgetFactor, riskImportance, algorithm, searchOptions.getSolutionBackend(), calculator);
+		new ParallelCycleExecutor(workerCount).execute(cycles, writer);
+
+		String summary = String.format(" %-6s\t%-14s\t%.4f\t%.4f", algorithm.name(), project.getName() + "-" + budgetFactor, (writer.sum/CYCLES), writer.maxFitness);
+		long cacheLookups = writer.cacheHits + writer.cacheMisses;
+		
+		if (cacheLookups > 0)
+			summary += String.format("\tcache hits %.2f%%", 100.0 * writer.cacheHits / cacheLookups);
+		
+		if (writer.prunedMoves > 0)
+			summary += String.format("\tpruned moves %d", writer.prunedMoves / CYCLES);
+		
+		System.out.println(summary);
+	}
+	
+	/**
+	 * Creates the output file, in the format given by its extension, and writes the header
+	 */
+	protected ResultSink createOutputFile(String outputFilename) throws IOException
+	{
+		return ResultSinkFactory.create(outputFilename, COLUMNS);
+	}
+
+	/**
+	 * Class that represents a single optimization cycle, running on its own random number stream
+	 */
+	private static class OptimizationCycle implements Callable<CycleResult>
+	{
+		private Project project;
+		private Algorithm algorithm;
+		private SearchOptions searchOptions;
+		private IFitnessCalculator calculator;
+		private Double targetFitness;
+		private long seed;
+		
+		public OptimizationCycle(Project project, Algorithm algorithm, SearchOptions searchOptions, IFitnessCalculator calculator, Double targetFitness, long seed)
 		{
-			SearchAlgorithm searchAlgorithm = Algorithm.createAlgorithm(algorithm, null, project, constructor);
-			boolean[] solution = searchAlgorithm.execute(calculator);
+			this.project = project;
+			this.algorithm = algorithm;
+			this.searchOptions = searchOptions;
+			this.calculator = calculator;
+			this.targetFitness = targetFitness;
+			this.seed = seed;
+		}
 
-			Solution sol = new Solution(project);
-			sol.setAllCustomers(solution);
-			double fitness = calculator.evaluate(sol);
+		@Override
+		public CycleResult call() throws Exception
+		{
+			PseudoRandom random = new PseudoRandom(seed);
+			Constructor constructor = new GreedyConstructor(project, random);
+			SearchAlgorithm searchAlgorithm = Algorithm.createAlgorithm(algorithm, searchOptions, null, project, constructor, random);
 			
-			String s = algorithm.name() + "," + project.getName() + "," + i + "," + budgetFactor + "," + riskImportance;
-			s += "," + fitness + "," + Solution.printSolution(solution);
-			out.println(s);
+			if (targetFitness != null)
+				searchAlgorithm.addTerminationCriterion(new TargetFitnessCriterion(targetFitness));
 			
-			sum += fitness;
-			if (fitness > maxFitness) maxFitness = fitness;
-			System.out.print("*");
+			boolean[] solution = searchAlgorithm.execute(calculator);
+			return new CycleResult(solution, searchAlgorithm.getStopReason(), searchAlgorithm.getFitnessCacheHits(), searchAlgorithm.getFitnessCacheMisses(), searchAlgorithm.getPrunedMoves());
 		}
-
-		System.out.println(String.format(" %-6s\t%-14s\t%.4f\t%.4f", algorithm.name(), project.getName() + "-" + budgetFactor, (sum/CYCLES), maxFitness));
 	}
 	
 	/**
-	 * Creates the output file and writes the header
+	 * Class that represents the result of an optimization cycle
 	 */
-	protected PrintWriter createOutputFile(String outputFilename) throws IOException
+	private static class CycleResult
 	{
-		File file = new File(outputFilename);
-		
-		if (file.getParentFile() != null)
-			file.getParentFile().mkdirs();
+		private boolean[] solution;
+		private String stopReason;
+		private long cacheHits;
+		private long cacheMisses;
+		private long prunedMoves;
 		
-		FileWriter outFile = new FileWriter(outputFilename);
-		PrintWriter out = new PrintWriter(outFile);
-		out.println("alg,instance,cycle,budget,risk,fit,solution");
+		public CycleResult(boolean[] solution, String stopReason, long cacheHits, long cacheMisses, long prunedMoves)
+		{
+			this.solution = solution;
+			this.stopReason = stopReason;
+			this.cacheHits = cacheHits;
+			this.cacheMisses = cacheMisses;
+			this.prunedMoves = prunedMoves;
+		}
+	}
+	
+	/**
+	 * Class that writes the results of the optimization cycles, in cycle order
+	 */
+	private static class CycleReportWriter implements CycleWriter<CycleResult>
+	{
+		private ResultSink out;
+		private Project project;
+		private int budgetFactor;
+		private int riskImportance;
+		private Algorithm algorithm;
+		private SolutionBackend solutionBackend;
+		private IFitnessCalculator calculator;
+		private double sum;
+		private double maxFitness;
+		private long cacheHits;
+		private long cacheMisses;
+		private long prunedMoves;
 		
-		return out;
+		public CycleReportWriter(ResultSink out, Project project, int budgetFactor, int riskImportance, Algorithm algorithm, SolutionBackend solutionBackend, IFitnessCalculator calculator)
+		{
+			this.out = out;
+			this.project = project;
+			this.budgetFactor = budgetFactor;
+			this.riskImportance = riskImportance;
+			this.algorithm = algorithm;
+			this.solutionBackend = solutionBackend;
+			this.calculator = calculator;
+			this.sum = 0.0;
+			this.maxFitness = 0.0;
+			this.cacheHits = 0;
+			this.cacheMisses = 0;
+			this.prunedMoves = 0;
+		}
+
+		@Override
+		public void write(int cycle, CycleResult result) throws Exception
+		{
+			boolean[] solution = result.solution;
+			cacheHits += result.cacheHits;
+			cacheMisses += result.cacheMisses;
+			prunedMoves += result.prunedMoves;
+			
+			Solution sol = new Solution(project, solutionBackend);
+			sol.setAllCustomers(solution);
+			double fitness = calculator.evaluate(sol);
+			
+			out.writeRow(algorithm.name(), project.getName(), cycle, budgetFactor, riskImportance, fitness, solution, result.stopReason);
+			
+			sum += fitness;
+			if (fitness > maxFitness) maxFitness = fitness;
+			System.out.print("*");
+		}
 	}
 }
\ No newline at end of file
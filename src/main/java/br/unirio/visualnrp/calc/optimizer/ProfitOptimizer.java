@@ -1,13 +1,13 @@
 package br.unirio.visualnrp.calc.optimizer;
 
-import java.io.PrintWriter;
 import java.util.List;
 
 import br.unirio.visualnrp.algorithm.search.Algorithm;
 import br.unirio.visualnrp.calc.fitness.ProfitFitnessCalculator;
 import br.unirio.visualnrp.model.Instance;
 import br.unirio.visualnrp.model.Project;
-import br.unirio.visualnrp.reader.RequirementReader;
+import br.unirio.visualnrp.reader.ProjectRepository;
+import br.unirio.visualnrp.writer.ResultSink;
 
 /**
  * Classe responsável pela otimização do modelo baseado em lucro
@@ -19,7 +19,7 @@ public class ProfitOptimizer extends GenericOptimizer
 	/**
 	 * Optimizes a given instance
 	 */
-	private void createReportForInstance(PrintWriter out, Project project, int[] budgetFactors, Algorithm[] algorithms) throws Exception
+	private void createReportForInstance(ResultSink out, Project project, int[] budgetFactors, Algorithm[] algorithms) throws Exception
 	{
 		for (int budgetFactor : budgetFactors)
 		{
@@ -38,14 +38,13 @@ public class ProfitOptimizer extends GenericOptimizer
 	 */
 	public void execute(List<Instance> instances, int[] budgetFactors, String outputFilename) throws Exception
 	{
-		PrintWriter out = createOutputFile(outputFilename);
+		ResultSink out = createOutputFile(outputFilename);
 
 		for (Instance instance : instances)
 		{
-			RequirementReader reader = new RequirementReader();
-			Project project = reader.execute(instance);
+			Project project = ProjectRepository.getProject(instance);
 			System.out.println("Processing " + project.getName() + " ...");
-			createReportForInstance(out, project, budgetFactors, ALGORITHM_ALL);
+			createReportForInstance(out, project, budgetFactors, getAlgorithms(ALGORITHM_ALL));
 		}
 		
 		out.close();
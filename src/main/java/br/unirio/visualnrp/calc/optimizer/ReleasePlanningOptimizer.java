@@ -1,9 +1,6 @@
 package br.unirio.visualnrp.calc.optimizer;
 
-import java.io.File;
-import java.io.FileWriter;
 import java.io.IOException;
-import java.io.PrintWriter;
 import java.util.List;
 
 import br.unirio.visualnrp.algorithm.constructor.Constructor;
@@ -13,7 +10,12 @@ import br.unirio.visualnrp.algorithm.search.SearchAlgorithm;
 import br.unirio.visualnrp.calc.fitness.ProfitFitnessCalculator;
 import br.unirio.visualnrp.model.Instance;
 import br.unirio.visualnrp.model.Project;
-import br.unirio.visualnrp.reader.RequirementReader;
+import br.unirio.visualnrp.model.ProjectBuilder;
+import br.unirio.visualnrp.reader.ProjectRepository;
+import br.unirio.visualnrp.writer.ColumnType;
+import br.unirio.visualnrp.writer.ResultColumn;
+import br.unirio.visualnrp.writer.ResultSink;
+import br.unirio.visualnrp.writer.ResultSinkFactory;
 
 /**
  * Class that performs the release planning optimization
@@ -27,18 +29,32 @@ public class ReleasePlanningOptimizer
 	 */
 	private static int CYCLES = 30;
 
+	/**
+	 * Columns of the output file: the names are those of the original header, while the values are
+	 * the number of rounds, the interest rate and the present value of the releases
+	 */
+	private static final ResultColumn[] COLUMNS = 
+	{
+		new ResultColumn("alg", ColumnType.STRING),
+		new ResultColumn("instance", ColumnType.STRING),
+		new ResultColumn("cycle", ColumnType.INTEGER),
+		new ResultColumn("budget", ColumnType.INTEGER),
+		new ResultColumn("risk", ColumnType.INTEGER),
+		new ResultColumn("fit", ColumnType.DOUBLE),
+		new ResultColumn("solution", ColumnType.DOUBLE)
+	};
+
 	/**
 	 * Runs the optimization report for release planning
 	 */
 	public void execute(List<Instance> instances, int budgetFactor, String outputFilename, int rounds, double interestRate) throws Exception
 	{
-		PrintWriter out = createOutputFile(outputFilename);
+		ResultSink out = createOutputFile(outputFilename);
 
 		for (int i = 0; i < instances.size(); i++)
 		{
 			Instance instance = instances.get(i);
-			RequirementReader reader = new RequirementReader();
-			Project project = reader.execute(instance);
+			Project project = ProjectRepository.getProject(instance);
 			System.out.println("Processing " + project.getName() + " ...");
 		
 			createReportForBudget(out, project, budgetFactor, rounds, interestRate, Algorithm.VISILS);
@@ -49,26 +65,17 @@ public class ReleasePlanningOptimizer
 	}
 	
 	/**
-	 * Creates the output file and writes the header
+	 * Creates the output file, in the format given by its extension, and writes the header
 	 */
-	protected PrintWriter createOutputFile(String outputFilename) throws IOException
+	protected ResultSink createOutputFile(String outputFilename) throws IOException
 	{
-		File file = new File(outputFilename);
-		
-		if (file.getParentFile() != null)
-			file.getParentFile().mkdirs();
-		
-		FileWriter outFile = new FileWriter(outputFilename);
-		PrintWriter out = new PrintWriter(outFile);
-		out.println("alg,instance,cycle,budget,risk,fit,solution");
-		
-		return out;
+		return ResultSinkFactory.create(outputFilename, COLUMNS);
 	}
 
 	/**
 	 * Creates the optimization report for a given instance and budget factor
 	 */
-	protected void createReportForBudget(PrintWriter out, Project project, int budgetFactor, int rounds, double interestRate, Algorithm algorithm) throws Exception
+	protected void createReportForBudget(ResultSink out, Project project, int budgetFactor, int rounds, double interestRate, Algorithm algorithm) throws Exception
 	{
 		double sum = 0.0;
 		double maxFitness = 0;
@@ -76,7 +83,7 @@ public class ReleasePlanningOptimizer
 		for (int i = 0; i < CYCLES; i++)
 		{
 			double fitness = createReportForCycle(project, budgetFactor, rounds, interestRate, algorithm);
-			out.println(algorithm.name() + "," + project.getName() + "," + i + "," + budgetFactor + "," + rounds + "," + interestRate + "," + fitness);
+			out.writeRow(algorithm.name(), project.getName(), i, budgetFactor, rounds, interestRate, fitness);
 			
 			sum += fitness;
 			if (fitness > maxFitness) maxFitness = fitness;
@@ -123,13 +130,13 @@ public class ReleasePlanningOptimizer
 		int attendedCustomers = countAttendedCustomers(solution);
 		boolean[] resolvedRequirements = source.getCustomersRequirements(solution);
 
-		Project target = new Project(source.getInstance());
+		ProjectBuilder target = new ProjectBuilder(source.getInstance());
 		target.setCustomerCount(source.getCustomerCount() - attendedCustomers);
 		target.addRequirements(source.getRequirementCount());
 		
 		copyRequirements(source, resolvedRequirements, target);
 		copyUnattendedCustomers(source, solution, resolvedRequirements, target);
-		return target;
+		return target.build();
 	}
 
 	/**
@@ -149,7 +156,7 @@ public class ReleasePlanningOptimizer
 	/**
 	 * Copies all requirements from the source solution to the target, eliminating resolved requirements from dependencies
 	 */
-	private void copyRequirements(Project source, boolean[] resolvedRequirements, Project target) 
+	private void copyRequirements(Project source, boolean[] resolvedRequirements, ProjectBuilder target) 
 	{
 		for (int i = 0; i < source.getRequirementCount(); i++)
 		{
@@ -158,18 +165,14 @@ public class ReleasePlanningOptimizer
 			else
 				target.setRequirementCost(i, source.getRequirementCost(i));
 			
-			if (source.requirementHasPrecedents(i))
-			{
-				int position = 0;
-				int index = source.getRequirementPrecedentIndex(i, position++);
+			int precedents = source.getRequirementPrecedentsCount(i);
 	
-				while (index != -1)
-				{
-					if (!resolvedRequirements[index])
-						target.addRequirementDependency(i, index);
+			for (int position = 0; position < precedents; position++)
+			{
+				int index = source.getRequirementPrecedentIndex(i, position);
 
-					index = source.getRequirementPrecedentIndex(i, position++);
-				}
+				if (!resolvedRequirements[index])
+					target.addRequirementDependency(i, index);
 			}
 		}
 	}
@@ -177,7 +180,7 @@ public class ReleasePlanningOptimizer
 	/**
 	 * Copies unattended customers from a source solution to a target one
 	 */
-	private void copyUnattendedCustomers(Project source, boolean[] solution, boolean[] resolvedRequirements, Project target) 
+	private void copyUnattendedCustomers(Project source, boolean[] solution, boolean[] resolvedRequirements, ProjectBuilder target) 
 	{
 		int customerPosition = 0;
 		
@@ -16,7 +16,7 @@ import br.unirio.visualnrp.calc.fitness.IFitnessCalculator;
 import br.unirio.visualnrp.calc.fitness.ProfitFitnessCalculator;
 import br.unirio.visualnrp.model.Instance;
 import br.unirio.visualnrp.model.Project;
-import br.unirio.visualnrp.reader.RequirementReader;
+import br.unirio.visualnrp.reader.ProjectRepository;
 
 /**
  * Classe responsável pela definição do parâmetro de gerador de sementes para início da busca
@@ -99,8 +99,7 @@ public class InitialSeedTunning
 
 		for (Instance instance : instances)
 		{
-			RequirementReader reader = new RequirementReader();
-			Project project = reader.execute(instance);
+			Project project = ProjectRepository.getProject(instance);
 			System.out.println("Processing " + project.getName() + " ...");
 			createReportForInstance(out, project, budgetFactors);
 		}
@@ -14,10 +14,16 @@ import br.unirio.visualnrp.calc.fitness.IFitnessCalculator;
 import br.unirio.visualnrp.calc.fitness.ProfitFitnessCalculator;
 import br.unirio.visualnrp.model.Instance;
 import br.unirio.visualnrp.model.Project;
-import br.unirio.visualnrp.reader.RequirementReader;
+import br.unirio.visualnrp.reader.ProjectRepository;
+import br.unirio.visualnrp.support.PseudoRandom;
 
 /**
- * Classe responsável por calcular o tamanho do corte da fase de random sampling
+ * Class that calculates the cut size of the random sampling phase. Each cycle runs the exhaustive
+ * and the adaptive sampling, reporting their cuts, evaluations and running times (in milliseconds).
+ * The exhaustive sampling runs its blocks in parallel while the adaptive one is sequential, so the
+ * summary compares them by evaluations only: it shows the average cut, the maximum cut, the
+ * evaluation speedup of the adaptive sampling, and the average cut difference (as a fraction of
+ * the number of customers).
  * 
  * @author Marcio
  */
@@ -40,7 +46,7 @@ public class RandomSamplingCutSize
 		
 		FileWriter outFile = new FileWriter(outputFilename);
 		PrintWriter out = new PrintWriter(outFile);
-		out.println("alg,instance,cycle,budget,risk,fit,solution");
+		out.println("instance,cycle,budget,cut,adaptiveCut,evaluations,adaptiveEvaluations,time,adaptiveTime");
 		
 		return out;
 	}
@@ -52,20 +58,34 @@ public class RandomSamplingCutSize
 	{
 		double sum = 0.0;
 		int maxCustomerCount = 0;
+		long evaluations = 0;
+		long adaptiveEvaluations = 0;
+		double cutDifference = 0.0;
 		
 		for (int i = 0; i < CYCLES; i++)
 		{
-			VisIteratedLocalSearch visils = new VisIteratedLocalSearch(null, project, Algorithm.MAXEVALUATIONS, Algorithm.SAMPLE_SIZE, constructor);
-			int customerCount = visils.executeRandomSampling(project, calculator).getCustomerCount();
+			VisIteratedLocalSearch visils = new VisIteratedLocalSearch(null, project, Algorithm.MAXEVALUATIONS, Algorithm.SAMPLE_SIZE, constructor, PseudoRandom.current());
+			long start = System.nanoTime();
+			int customerCount = visils.executeExhaustiveSampling(project, calculator).getCustomerCount();
+			long cycleTime = (System.nanoTime() - start) / 1000000;
+
+			VisIteratedLocalSearch adaptiveVisils = new VisIteratedLocalSearch(null, project, Algorithm.MAXEVALUATIONS, Algorithm.SAMPLE_SIZE, constructor, PseudoRandom.current());
+			start = System.nanoTime();
+			int adaptiveCustomerCount = adaptiveVisils.executeAdaptiveSampling(project, calculator).getCustomerCount();
+			long adaptiveCycleTime = (System.nanoTime() - start) / 1000000;
 			
-			out.println(project.getName() + "," + i + "," + budgetFactor + "," + customerCount);
+			out.println(project.getName() + "," + i + "," + budgetFactor + "," + customerCount + "," + adaptiveCustomerCount + "," + visils.getEvaluationsConsumed() + "," + adaptiveVisils.getEvaluationsConsumed() + "," + cycleTime + "," + adaptiveCycleTime);
 			
 			sum += customerCount;
 			if (customerCount > maxCustomerCount) maxCustomerCount = customerCount;
+			evaluations += visils.getEvaluationsConsumed();
+			adaptiveEvaluations += adaptiveVisils.getEvaluationsConsumed();
+			cutDifference += Math.abs(customerCount - adaptiveCustomerCount) / (double) project.getCustomerCount();
 			System.out.print("*");
 		}
 
-		System.out.println(String.format(" %-14s\t%.4f\t%4d", project.getName() + "-" + budgetFactor, (sum/CYCLES), maxCustomerCount));
+		double evaluationSpeedup = evaluations / (double) Math.max(adaptiveEvaluations, 1);
+		System.out.println(String.format(" %-14s\t%.4f\t%4d\t%.2fx\t%.4f", project.getName() + "-" + budgetFactor, (sum/CYCLES), maxCustomerCount, evaluationSpeedup, (cutDifference/CYCLES)));
 	}
 
 	/**
@@ -90,8 +110,7 @@ public class RandomSamplingCutSize
 
 		for (Instance instance : instances)
 		{
-			RequirementReader reader = new RequirementReader();
-			Project project = reader.execute(instance);
+			Project project = ProjectRepository.getProject(instance);
 			System.out.println("Processing " + project.getName() + " ...");
 			createReportForInstance(out, project, budgetFactors);
 		}
@@ -63,6 +63,14 @@ public abstract class Command
 		return -1;
 	}
 
+	/**
+	 * Determines whether a parameter was given
+	 */
+	protected boolean hasParameter(String[] parameters, String identifier)
+	{
+		return getParameterIndex(parameters, identifier) != -1;
+	}
+
 	/**
 	 * Returns a single value for a parameter
 	 */
@@ -3,6 +3,7 @@ package br.unirio.visualnrp.command;
 import java.util.ArrayList;
 import java.util.List;
 
+import br.unirio.visualnrp.command.converter.CommandConvertResults;
 import br.unirio.visualnrp.command.landscape.CommandCostCapLandscape;
 import br.unirio.visualnrp.command.landscape.CommandCostRiskLandscape;
 import br.unirio.visualnrp.command.landscape.CommandProfitRiskLandscape;
@@ -56,6 +57,8 @@ public class CommandFactory
 		
 		this.commands.add(new CommandInitialSeedTunning());
 		this.commands.add(new CommandRandomSamplingCut());
+		
+		this.commands.add(new CommandConvertResults());
 	}
 	
 	/**
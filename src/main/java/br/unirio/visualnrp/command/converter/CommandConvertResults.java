@@ -0,0 +1,69 @@
+package br.unirio.visualnrp.command.converter;
+
+import br.unirio.visualnrp.command.Command;
+import br.unirio.visualnrp.reader.ColumnarResultReader;
+import br.unirio.visualnrp.writer.ResultSink;
+import br.unirio.visualnrp.writer.ResultSinkFactory;
+
+/**
+ * Class that represents the command that converts a columnar result file to the format given by
+ * the extension of the output file, such as the comma-separated layout read by the R scripts
+ * 
+ * @author marciobarros
+ */
+public class CommandConvertResults extends Command
+{
+	private String inputFilename;
+	private String outputFilename;
+	
+	/**
+	 * Initializes the command
+	 */
+	public CommandConvertResults()
+	{
+		super("CONV", "Converts a columnar result file (.vnrc or .vnrc.gz) to comma-separated text or another columnar file");
+		
+		this.inputFilename = "";
+		this.outputFilename = "";
+		
+		addParameterHelp("-i", "Input filename");
+		addParameterHelp("-o", "Output filename (.vnrc for columnar, .gz suffix for compressed, comma-separated otherwise)");
+	}
+
+	/**
+	 * Parses the parameters used by the command
+	 */
+	@Override
+	public void parseParameters(String[] parameters) throws Exception
+	{
+		inputFilename = getParameterValue(parameters, "-i");
+		outputFilename = getParameterValue(parameters, "-o");
+	}
+
+	/**
+	 * Runs the command
+	 */
+	@Override
+	public boolean run() throws Exception
+	{
+		ColumnarResultReader reader = new ColumnarResultReader(inputFilename);
+		ResultSink sink = ResultSinkFactory.create(outputFilename, reader.getColumns());
+		Object[] row;
+		
+		while ((row = reader.readRow()) != null)
+			sink.writeRow(row);
+		
+		sink.close();
+		reader.close();
+		return false;
+	}
+
+	/**
+	 * Creates a new instance for the command
+	 */
+	@Override
+	public Command clone()
+	{
+		return new CommandConvertResults();
+	}
+}
@@ -4,6 +4,7 @@ import java.util.ArrayList;
 import java.util.List;
 
 import br.unirio.visualnrp.calc.landscape.CostCapLandscapeReport;
+import br.unirio.visualnrp.calc.landscape.LandscapeOutputMode;
 import br.unirio.visualnrp.command.Command;
 import br.unirio.visualnrp.model.Instance;
 import br.unirio.visualnrp.model.InstanceCategory;
@@ -22,6 +23,9 @@ public class CommandCostCapLandscape extends Command
 	private int[] riskLevels;
 	private String outputFilename;
 	private long seed;
+	private int workers;
+	private LandscapeOutputMode outputMode;
+	private int solutionsPerCustomer;
 	
 	/**
 	 * Initializes the command
@@ -35,12 +39,18 @@ public class CommandCostCapLandscape extends Command
 		this.riskLevels = null;
 		this.outputFilename = "";
 		this.seed = -1;
+		this.workers = 1;
+		this.outputMode = LandscapeOutputMode.SAMPLES;
+		this.solutionsPerCustomer = 100;
 		
 		addParameterHelp("-i", "List of instances, separated by whitespaces, or category");
 		addParameterHelp("-b", "Budget percentiles, separated by whitespaces (0 to 100)");
 		addParameterHelp("-r", "Risk levels, separated by whitespaces (0 to 100)");
 		addParameterHelp("-o", "Output filename");
 		addParameterHelp("-s", "Fixed random number generator seed (optional)");
+		addParameterHelp("-w", "Number of worker threads for sampling and writing the landscape (optional)");
+		addParameterHelp("-m", "Landscape output, either samples or summary statistics per number of customers (optional, samples)");
+		addParameterHelp("-c", "Number of solutions sampled per number of customers (optional, 100)");
 	}
 
 	/**
@@ -57,6 +67,43 @@ public class CommandCostCapLandscape extends Command
 		
 		String sSeedValue = getOptionalParameterValue(parameters, "-s");
 		this.seed = Conversion.safeParseLong(sSeedValue, System.nanoTime());
+		
+		String sWorkersValue = getOptionalParameterValue(parameters, "-w");
+		this.workers = Conversion.safeParseInteger(sWorkersValue, Runtime.getRuntime().availableProcessors());
+		
+		parseOutputModeParameter(parameters);
+		parseSolutionsPerCustomerParameter(parameters);
+	}
+
+	/**
+	 * Parse the parameter related to the landscape output
+	 */
+	private void parseOutputModeParameter(String[] parameters) throws Exception
+	{
+		String sOutputValue = getOptionalParameterValue(parameters, "-m");
+		
+		if (sOutputValue == null)
+		{
+			this.outputMode = LandscapeOutputMode.SAMPLES;
+			return;
+		}
+		
+		this.outputMode = LandscapeOutputMode.get(sOutputValue);
+		
+		if (this.outputMode == null)
+			throw new Exception("Landscape output '" + sOutputValue + "' not found.");
+	}
+
+	/**
+	 * Parse the parameter related to the number of solutions sampled per number of customers
+	 */
+	private void parseSolutionsPerCustomerParameter(String[] parameters) throws Exception
+	{
+		String sSolutionsValue = getOptionalParameterValue(parameters, "-c");
+		this.solutionsPerCustomer = Conversion.safeParseInteger(sSolutionsValue, 100);
+		
+		if (this.solutionsPerCustomer < 1)
+			throw new Exception("The number of solutions per number of customers must be positive.");
 	}
 
 	/**
@@ -117,7 +164,11 @@ public class CommandCostCapLandscape extends Command
 	public boolean run() throws Exception
 	{
 		PseudoRandom.init(seed);
-		new CostCapLandscapeReport().execute(instances, budgets, riskLevels, outputFilename);
+		CostCapLandscapeReport report = new CostCapLandscapeReport();
+		report.setWorkerCount(workers);
+		report.setOutputMode(outputMode);
+		report.setSolutionsPerCustomer(solutionsPerCustomer);
+		report.execute(instances, budgets, riskLevels, outputFilename);
 		return false;
 	}
 
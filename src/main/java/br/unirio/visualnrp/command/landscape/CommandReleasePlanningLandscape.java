@@ -1,5 +1,6 @@
 package br.unirio.visualnrp.command.landscape;
 
+import br.unirio.visualnrp.calc.landscape.LandscapeOutputMode;
 import br.unirio.visualnrp.calc.landscape.ReleaseLandscapeReport;
 import br.unirio.visualnrp.command.Command;
 import br.unirio.visualnrp.model.Instance;
@@ -18,6 +19,9 @@ public class CommandReleasePlanningLandscape extends Command
 	private int budget = -1;
 	private int rounds = -1;
 	private long seed = -1;
+	private int workers = 1;
+	private LandscapeOutputMode outputMode = LandscapeOutputMode.SAMPLES;
+	private int solutionsPerCustomer = 100;
 
 	/**
 	 * Initializes the command
@@ -30,6 +34,9 @@ public class CommandReleasePlanningLandscape extends Command
 		addParameterHelp("-b", "Budget percentile (0 to 100)");
 		addParameterHelp("-r", "Number of rounds (1 or more)");
 		addParameterHelp("-s", "Fixed random number generator seed (optional)");
+		addParameterHelp("-w", "Number of worker threads for sampling and writing the landscape (optional)");
+		addParameterHelp("-m", "Landscape output, either samples or summary statistics per number of customers (optional, samples)");
+		addParameterHelp("-c", "Number of solutions sampled per number of customers (optional, 100)");
 	}
 
 	/**
@@ -49,6 +56,43 @@ public class CommandReleasePlanningLandscape extends Command
 		
 		String sSeedValue = getOptionalParameterValue(parameters, "-s");
 		this.seed = Conversion.safeParseLong(sSeedValue, System.nanoTime());
+		
+		String sWorkersValue = getOptionalParameterValue(parameters, "-w");
+		this.workers = Conversion.safeParseInteger(sWorkersValue, Runtime.getRuntime().availableProcessors());
+		
+		parseOutputModeParameter(parameters);
+		parseSolutionsPerCustomerParameter(parameters);
+	}
+
+	/**
+	 * Parse the parameter related to the landscape output
+	 */
+	private void parseOutputModeParameter(String[] parameters) throws Exception
+	{
+		String sOutputValue = getOptionalParameterValue(parameters, "-m");
+		
+		if (sOutputValue == null)
+		{
+			this.outputMode = LandscapeOutputMode.SAMPLES;
+			return;
+		}
+		
+		this.outputMode = LandscapeOutputMode.get(sOutputValue);
+		
+		if (this.outputMode == null)
+			throw new Exception("Landscape output '" + sOutputValue + "' not found.");
+	}
+
+	/**
+	 * Parse the parameter related to the number of solutions sampled per number of customers
+	 */
+	private void parseSolutionsPerCustomerParameter(String[] parameters) throws Exception
+	{
+		String sSolutionsValue = getOptionalParameterValue(parameters, "-c");
+		this.solutionsPerCustomer = Conversion.safeParseInteger(sSolutionsValue, 100);
+		
+		if (this.solutionsPerCustomer < 1)
+			throw new Exception("The number of solutions per number of customers must be positive.");
 	}
 
 	/**
@@ -63,7 +107,11 @@ public class CommandReleasePlanningLandscape extends Command
 			throw new Exception("Instance '" + instanceName + "' not found.");
 		
 		PseudoRandom.init(seed);
-		new ReleaseLandscapeReport().execute(instance, budget, outputFilename, rounds);
+		ReleaseLandscapeReport report = new ReleaseLandscapeReport();
+		report.setWorkerCount(workers);
+		report.setOutputMode(outputMode);
+		report.setSolutionsPerCustomer(solutionsPerCustomer);
+		report.execute(instance, budget, outputFilename, rounds);
 		return true;
 	}
 
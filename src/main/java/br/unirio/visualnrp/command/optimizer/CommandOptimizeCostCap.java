@@ -15,13 +15,14 @@ import br.unirio.visualnrp.support.PseudoRandom;
  * 
  * @author marciobarros
  */
-public class CommandOptimizeCostCap extends Command
+public class CommandOptimizeCostCap extends OptimizerCommand
 {
 	private List<Instance> instances;
 	private int[] budgets;
 	private int[] riskLevels;
 	private String outputFilename;
 	private long seed;
+	private int workers;
 	
 	/**
 	 * Initializes the command
@@ -41,6 +42,8 @@ public class CommandOptimizeCostCap extends Command
 		addParameterHelp("-r", "Risk levels, separated by whitespaces (0 to 100)");
 		addParameterHelp("-o", "Output filename");
 		addParameterHelp("-s", "Fixed random number generator seed (optional)");
+		addParameterHelp("-w", "Number of worker threads for the optimization cycles (optional)");
+		addSearchParameterHelp();
 	}
 
 	/**
@@ -57,6 +60,11 @@ public class CommandOptimizeCostCap extends Command
 		
 		String sSeedValue = getOptionalParameterValue(parameters, "-s");
 		this.seed = Conversion.safeParseLong(sSeedValue, System.nanoTime());
+		
+		String sWorkersValue = getOptionalParameterValue(parameters, "-w");
+		this.workers = Conversion.safeParseInteger(sWorkersValue, Runtime.getRuntime().availableProcessors());
+		
+		parseSearchParameters(parameters);
 	}
 
 	/**
@@ -117,7 +125,10 @@ public class CommandOptimizeCostCap extends Command
 	public boolean run() throws Exception
 	{
 		PseudoRandom.init(seed);
-		new CostCapOptimizer().execute(instances, budgets, riskLevels, outputFilename);
+		CostCapOptimizer optimizer = new CostCapOptimizer();
+		optimizer.setWorkerCount(workers);
+		optimizer.setSearchOptions(searchOptions);
+		optimizer.execute(instances, budgets, riskLevels, outputFilename);
 		return false;
 	}
 
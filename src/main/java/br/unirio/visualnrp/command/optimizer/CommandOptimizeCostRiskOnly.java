@@ -15,12 +15,13 @@ import br.unirio.visualnrp.support.PseudoRandom;
  * 
  * @author marciobarros
  */
-public class CommandOptimizeCostRiskOnly extends Command
+public class CommandOptimizeCostRiskOnly extends OptimizerCommand
 {
 	private List<Instance> instances;
 	private int[] budgets;
 	private String outputFilename;
 	private long seed;
+	private int workers;
 	
 	/**
 	 * Initializes the command
@@ -38,6 +39,8 @@ public class CommandOptimizeCostRiskOnly extends Command
 		addParameterHelp("-b", "Budget percentiles, separated by whitespaces (0 to 100)");
 		addParameterHelp("-o", "Output filename");
 		addParameterHelp("-s", "Fixed random number generator seed (optional)");
+		addParameterHelp("-w", "Number of worker threads for the optimization cycles (optional)");
+		addSearchParameterHelp();
 	}
 
 	/**
@@ -53,6 +56,11 @@ public class CommandOptimizeCostRiskOnly extends Command
 		
 		String sSeedValue = getOptionalParameterValue(parameters, "-s");
 		this.seed = Conversion.safeParseLong(sSeedValue, System.nanoTime());
+		
+		String sWorkersValue = getOptionalParameterValue(parameters, "-w");
+		this.workers = Conversion.safeParseInteger(sWorkersValue, Runtime.getRuntime().availableProcessors());
+		
+		parseSearchParameters(parameters);
 	}
 
 	/**
@@ -101,7 +109,10 @@ public class CommandOptimizeCostRiskOnly extends Command
 	public boolean run() throws Exception
 	{
 		PseudoRandom.init(seed);
-		new CostRiskOnlyOptimizer().execute(instances, budgets, outputFilename);
+		CostRiskOnlyOptimizer optimizer = new CostRiskOnlyOptimizer();
+		optimizer.setWorkerCount(workers);
+		optimizer.setSearchOptions(searchOptions);
+		optimizer.execute(instances, budgets, outputFilename);
 		return false;
 	}
 
@@ -3,10 +3,12 @@ package br.unirio.visualnrp.command.optimizer;
 import java.util.ArrayList;
 import java.util.List;
 
+import br.unirio.visualnrp.algorithm.search.Algorithm;
 import br.unirio.visualnrp.calc.optimizer.ProfitOptimizer;
 import br.unirio.visualnrp.command.Command;
 import br.unirio.visualnrp.model.Instance;
 import br.unirio.visualnrp.model.InstanceCategory;
+import br.unirio.visualnrp.reader.OptimaReader;
 import br.unirio.visualnrp.support.Conversion;
 import br.unirio.visualnrp.support.PseudoRandom;
 
@@ -15,12 +17,15 @@ import br.unirio.visualnrp.support.PseudoRandom;
  * 
  * @author Marcio
  */
-public class CommandOptimizeProfit extends Command
+public class CommandOptimizeProfit extends OptimizerCommand
 {
 	private List<Instance> instances;
 	private int[] budgets;
 	private String outputFilename;
 	private long seed;
+	private int workers;
+	private Algorithm[] algorithms;
+	private String optimaFilename;
 	
 	/**
 	 * Initializes the command
@@ -37,6 +42,12 @@ public class CommandOptimizeProfit extends Command
 		addParameterHelp("-b", "Budget percentiles, separated by whitespaces (0 to 100)");
 		addParameterHelp("-o", "Output filename");
 		addParameterHelp("-s", "Fixed random number generator seed (optional)");
+		addParameterHelp("-w", "Number of worker threads for the optimization cycles (optional)");
+		addParameterHelp("-a", "Algorithms, separated by whitespaces: HC, ILS, VISILS or IILS (optional, HC ILS VISILS)");
+		addParameterHelp("-l", "Number of islands of IILS (optional, 4)");
+		addParameterHelp("-m", "Number of evaluations performed by each island of IILS between migrations (optional, 50000)");
+		addSearchParameterHelp();
+		addParameterHelp("-t", "File with the best known profits that stop the searches, such as optima.txt (optional)");
 	}
 
 	/**
@@ -52,6 +63,60 @@ public class CommandOptimizeProfit extends Command
 		
 		String sSeedValue = getOptionalParameterValue(parameters, "-s");
 		this.seed = Conversion.safeParseLong(sSeedValue, System.nanoTime());
+		
+		String sWorkersValue = getOptionalParameterValue(parameters, "-w");
+		this.workers = Conversion.safeParseInteger(sWorkersValue, Runtime.getRuntime().availableProcessors());
+		
+		parseAlgorithmParameter(parameters);
+		parseIslandParameters(parameters);
+		parseSearchParameters(parameters);
+		
+		this.optimaFilename = getOptionalParameterValue(parameters, "-t");
+	}
+
+	/**
+	 * Parse the parameter related to the algorithms
+	 */
+	private void parseAlgorithmParameter(String[] parameters) throws Exception
+	{
+		String[] algorithmNames = getOptionalParameterValues(parameters, "-a");
+		
+		if (algorithmNames.length == 0)
+		{
+			this.algorithms = null;
+			return;
+		}
+		
+		this.algorithms = new Algorithm[algorithmNames.length];
+		
+		for (int i = 0; i < algorithmNames.length; i++)
+		{
+			this.algorithms[i] = Algorithm.get(algorithmNames[i]);
+			
+			if (this.algorithms[i] == null)
+				throw new Exception("Algorithm '" + algorithmNames[i] + "' not found.");
+		}
+	}
+
+	/**
+	 * Parse the parameters related to the islands of IILS
+	 */
+	private void parseIslandParameters(String[] parameters) throws Exception
+	{
+		String sIslandsValue = getOptionalParameterValue(parameters, "-l");
+		int islandCount = Conversion.safeParseInteger(sIslandsValue, searchOptions.getIslandCount());
+		
+		if (islandCount < 1)
+			throw new Exception("IILS must have at least one island.");
+		
+		String sMigrationValue = getOptionalParameterValue(parameters, "-m");
+		int migrationInterval = Conversion.safeParseInteger(sMigrationValue, searchOptions.getMigrationInterval());
+		
+		if (migrationInterval < 1)
+			throw new Exception("The migration interval must have at least one evaluation.");
+		
+		searchOptions.setIslandCount(islandCount);
+		searchOptions.setMigrationInterval(migrationInterval);
 	}
 
 	/**
@@ -100,7 +165,15 @@ public class CommandOptimizeProfit extends Command
 	public boolean run() throws Exception
 	{
 		PseudoRandom.init(seed);
-		new ProfitOptimizer().execute(instances, budgets, outputFilename);
+		ProfitOptimizer optimizer = new ProfitOptimizer();
+		optimizer.setWorkerCount(workers);
+		optimizer.setAlgorithms(algorithms);
+		optimizer.setSearchOptions(searchOptions);
+		
+		if (optimaFilename != null)
+			optimizer.setTargetFitness(new OptimaReader().execute(optimaFilename));
+		
+		optimizer.execute(instances, budgets, outputFilename);
 		return false;
 	}
 
@@ -0,0 +1,143 @@
+package br.unirio.visualnrp.command.optimizer;
+
+import br.unirio.visualnrp.algorithm.search.FitnessCacheMode;
+import br.unirio.visualnrp.algorithm.search.NeighborhoodMode;
+import br.unirio.visualnrp.algorithm.search.SamplingStrategy;
+import br.unirio.visualnrp.algorithm.search.SearchOptions;
+import br.unirio.visualnrp.algorithm.search.SolutionBackend;
+import br.unirio.visualnrp.command.Command;
+import br.unirio.visualnrp.support.Conversion;
+
+/**
+ * Class that represents an optimization command, parsing the parameters that configure its searches
+ * 
+ * @author marciobarros
+ */
+public abstract class OptimizerCommand extends Command
+{
+	/**
+	 * Options used to configure the searches
+	 */
+	protected SearchOptions searchOptions;
+
+	/**
+	 * Initializes the command
+	 */
+	protected OptimizerCommand(String code, String description)
+	{
+		super(code, description);
+		this.searchOptions = new SearchOptions();
+	}
+
+	/**
+	 * Adds help for the parameters that configure the searches
+	 */
+	protected void addSearchParameterHelp()
+	{
+		addParameterHelp("-n", "Neighborhood visit, either first or best improvement (optional, first)");
+		addParameterHelp("-e", "Requirement accounting of the solutions, either counter or bitset (optional, counter)");
+		addParameterHelp("-c", "Fitness cache, either off, speedup or distinct (optional, off)");
+		addParameterHelp("-k", "Number of entries in the fitness cache of each search (optional, 65536)");
+		addParameterHelp("-p", "Skips the moves that add a customer beyond the available budget (optional)");
+		addParameterHelp("-v", "Sampling of the number of customers by VISILS, either exhaustive or adaptive (optional, exhaustive)");
+		addParameterHelp("-x", "Time limit for each search, in seconds (optional)");
+		addParameterHelp("-g", "Number of evaluations without improvement that stops each search (optional)");
+	}
+
+	/**
+	 * Parses the parameters that configure the searches
+	 */
+	protected void parseSearchParameters(String[] parameters) throws Exception
+	{
+		parseNeighborhoodParameter(parameters);
+		parseSolutionBackendParameter(parameters);
+		parseFitnessCacheParameter(parameters);
+		searchOptions.setBudgetPruning(hasParameter(parameters, "-p"));
+		parseSamplingStrategyParameter(parameters);
+		
+		String sTimeLimitValue = getOptionalParameterValue(parameters, "-x");
+		searchOptions.setTimeLimit((long) (Conversion.safeParseDouble(sTimeLimitValue, 0.0) * 1000));
+		
+		String sStagnationValue = getOptionalParameterValue(parameters, "-g");
+		searchOptions.setStagnationLimit(Conversion.safeParseInteger(sStagnationValue, 0));
+	}
+
+	/**
+	 * Parse the parameter related to the neighborhood visit
+	 */
+	private void parseNeighborhoodParameter(String[] parameters) throws Exception
+	{
+		String sNeighborhoodValue = getOptionalParameterValue(parameters, "-n");
+		
+		if (sNeighborhoodValue == null)
+			return;
+		
+		NeighborhoodMode neighborhoodMode = NeighborhoodMode.get(sNeighborhoodValue);
+		
+		if (neighborhoodMode == null)
+			throw new Exception("Neighborhood visit '" + sNeighborhoodValue + "' not found.");
+		
+		searchOptions.setNeighborhoodMode(neighborhoodMode);
+	}
+
+	/**
+	 * Parse the parameter related to the requirement accounting of the solutions
+	 */
+	private void parseSolutionBackendParameter(String[] parameters) throws Exception
+	{
+		String sBackendValue = getOptionalParameterValue(parameters, "-e");
+		
+		if (sBackendValue == null)
+			return;
+		
+		SolutionBackend solutionBackend = SolutionBackend.get(sBackendValue);
+		
+		if (solutionBackend == null)
+			throw new Exception("Requirement accounting '" + sBackendValue + "' not found.");
+		
+		searchOptions.setSolutionBackend(solutionBackend);
+	}
+
+	/**
+	 * Parse the parameter related to the sampling strategy of VISILS
+	 */
+	private void parseSamplingStrategyParameter(String[] parameters) throws Exception
+	{
+		String sSamplingValue = getOptionalParameterValue(parameters, "-v");
+		
+		if (sSamplingValue == null)
+			return;
+		
+		SamplingStrategy samplingStrategy = SamplingStrategy.get(sSamplingValue);
+		
+		if (samplingStrategy == null)
+			throw new Exception("Sampling strategy '" + sSamplingValue + "' not found.");
+		
+		searchOptions.setSamplingStrategy(samplingStrategy);
+	}
+
+	/**
+	 * Parse the parameters related to the fitness cache
+	 */
+	private void parseFitnessCacheParameter(String[] parameters) throws Exception
+	{
+		FitnessCacheMode fitnessCacheMode = searchOptions.getFitnessCacheMode();
+		String sCacheValue = getOptionalParameterValue(parameters, "-c");
+		
+		if (sCacheValue != null)
+		{
+			fitnessCacheMode = FitnessCacheMode.get(sCacheValue);
+			
+			if (fitnessCacheMode == null)
+				throw new Exception("Fitness cache '" + sCacheValue + "' not found.");
+		}
+		
+		String sCacheSizeValue = getOptionalParameterValue(parameters, "-k");
+		int fitnessCacheSize = Conversion.safeParseInteger(sCacheSizeValue, searchOptions.getFitnessCacheSize());
+		
+		if (fitnessCacheSize < 1)
+			throw new Exception("The fitness cache must have at least one entry.");
+		
+		searchOptions.setFitnessCache(fitnessCacheMode, fitnessCacheSize);
+	}
+}
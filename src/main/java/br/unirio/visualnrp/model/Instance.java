@@ -64,6 +64,22 @@ public enum Instance
 		return category.getDirectory() + "/" + name + ".txt";
 	}
 	
+	/**
+	 * Returns the filename containing the risk estimates for the instance
+	 */
+	public String getRiskFilename()
+	{
+		return category.getDirectory() + "/" + name + "-risk.txt";
+	}
+	
+	/**
+	 * Returns the filename containing the binary snapshot of the instance data
+	 */
+	public String getSnapshotFilename()
+	{
+		return category.getDirectory() + "/" + name + ".snapshot";
+	}
+	
 	/**
 	 * Returns an instance, given its name
 	 */
@@ -1,15 +1,21 @@
 package br.unirio.visualnrp.model;
 
+import java.util.Arrays;
+
 /**
- * Class that represents the next-release problem
- * 
+ * Class that represents the next-release problem. Projects are immutable: they are created
+ * by a ProjectBuilder, which stores dependencies and customer requirements in flat arrays
+ * (the entries of the i-th requirement or customer go from offsets[i] to offsets[i+1]).
+ *
  * @author Marcio
  */
 public class Project
 {
 	private Instance instance;
-	private int[][] requirementDependencySources;
-	private int[][] customerRequirements;
+	private int[] requirementDependencyOffsets;
+	private int[] requirementDependencySources;
+	private int[] customerRequirementOffsets;
+	private int[] customerRequirementIndices;
 	private int[] requirementCosts;
 	private double[] requirementCostMinimumEstimate;
 	private double[] requirementCostMaximumEstimate;
@@ -18,27 +24,63 @@ public class Project
 	private double[] customerProfitMinimumEstimate;
 	private double[] customerProfitMaximumEstimate;
 	private double[] customerProfitRisks;
-	
+	private int totalCost;
+	private double totalCostRisk;
+	private int totalProfit;
+	private double totalProfitRisk;
+	private RequirementClosure requirementClosure;
+
 	/**
-	 * Creates a project, given its name
+	 * Creates a project, given its data (see ProjectBuilder)
 	 */
-	public Project(Instance instance)
+	Project(Instance instance, int[] requirementDependencyOffsets, int[] requirementDependencySources, int[] customerRequirementOffsets, int[] customerRequirementIndices,
+		int[] requirementCosts, double[] requirementCostMinimumEstimate, double[] requirementCostMaximumEstimate, double[] requirementCostRisks,
+		int[] customerProfits, double[] customerProfitMinimumEstimate, double[] customerProfitMaximumEstimate, double[] customerProfitRisks)
 	{
 		this.instance = instance;
-		this.requirementDependencySources = null;
-		this.customerRequirements = null;
-		
-		this.requirementCosts = null;
-		this.requirementCostMinimumEstimate = null;
-		this.requirementCostMaximumEstimate = null;
-		this.requirementCostRisks = null;
+		this.requirementDependencyOffsets = requirementDependencyOffsets;
+		this.requirementDependencySources = requirementDependencySources;
+		this.customerRequirementOffsets = customerRequirementOffsets;
+		this.customerRequirementIndices = customerRequirementIndices;
+
+		this.requirementCosts = requirementCosts;
+		this.requirementCostMinimumEstimate = requirementCostMinimumEstimate;
+		this.requirementCostMaximumEstimate = requirementCostMaximumEstimate;
+		this.requirementCostRisks = requirementCostRisks;
+
+		this.customerProfits = customerProfits;
+		this.customerProfitMinimumEstimate = customerProfitMinimumEstimate;
+		this.customerProfitMaximumEstimate = customerProfitMaximumEstimate;
+		this.customerProfitRisks = customerProfitRisks;
 
-		this.customerProfits = null;
-		this.customerProfitMinimumEstimate = null;
-		this.customerProfitMaximumEstimate = null;
-		this.customerProfitRisks = null;
+		calculateTotals();
+		this.requirementClosure = null;
 	}
-	
+
+	/**
+	 * Calculates the total cost, profit, and risks of the project
+	 */
+	private void calculateTotals()
+	{
+		this.totalCost = 0;
+		this.totalCostRisk = 0;
+
+		for (int i = 0; i < requirementCosts.length; i++)
+		{
+			totalCost += requirementCosts[i];
+			totalCostRisk += requirementCostRisks[i];
+		}
+
+		this.totalProfit = 0;
+		this.totalProfitRisk = 0;
+
+		for (int i = 0; i < customerProfits.length; i++)
+		{
+			totalProfit += customerProfits[i];
+			totalProfitRisk += customerProfitRisks[i];
+		}
+	}
+
 	/**
 	 * Returns the instance of the project
 	 */
@@ -46,7 +88,7 @@ public class Project
 	{
 		return instance;
 	}
-	
+
 	/**
 	 * Returns the name of the project
 	 */
@@ -54,80 +96,29 @@ public class Project
 	{
 		return instance.getName();
 	}
-	
+
 	/**
 	 * Returns the number of requirements
 	 */
 	public int getRequirementCount()
 	{
-		if (requirementCosts == null)
-			return 0;
-		
 		return requirementCosts.length;
 	}
-	
+
 	/**
 	 * Returns the total cost of the set of requirements
 	 */
 	public int getTotalCost()
 	{
-		int sum = 0;
-		
-		for (int i = 0; i < requirementCosts.length; i++)
-			sum += requirementCosts[i];
-		
-		return sum;
+		return totalCost;
 	}
-	
+
 	/**
 	 * Returns the total requirement related risk attained by the set of requirements
 	 */
 	public double getTotalCostRisk()
 	{
-		double sum = 0;
-		
-		for (int i = 0; i < requirementCostRisks.length; i++)
-			sum += requirementCostRisks[i];
-		
-		return sum;
-	}
-
-	/**
-	 * Adds a number of requirements to the project
-	 */
-	public void addRequirements(int count)
-	{
-		if (requirementCosts == null)
-		{
-			requirementCosts = new int[count];
-			requirementCostRisks = new double[count];
-			requirementCostMinimumEstimate = new double[count];
-			requirementCostMaximumEstimate = new double[count];
-			requirementDependencySources = new int[count][];
-			return;
-		}
-		
-		int len = requirementCosts.length;
-		int[] newCosts = new int[len + count];
-		double[] newRequirementRisk = new double[len + count];
-		double[] newRequirementCostMinimumEstimate = new double[len + count];
-		double[] newRequirementCostMaximumEstimate = new double[len + count];
-		int[][] newDependencySources = new int[len + count][];
-		
-		for (int i = 0; i < len; i++)
-		{
-			newCosts[i] = requirementCosts[i];
-			newRequirementRisk[i] = requirementCostRisks[i];
-			newRequirementCostMinimumEstimate[i] = requirementCostMinimumEstimate[i];
-			newRequirementCostMaximumEstimate[i] = requirementCostMaximumEstimate[i];
-			newDependencySources[i] = requirementDependencySources[i];
-		}
-		
-		this.requirementCosts = newCosts;
-		this.requirementCostRisks = newRequirementRisk;
-		this.requirementCostMinimumEstimate = newRequirementCostMinimumEstimate;
-		this.requirementCostMaximumEstimate = newRequirementCostMaximumEstimate;
-		this.requirementDependencySources = newDependencySources;
+		return totalCostRisk;
 	}
 
 	/**
@@ -147,37 +138,27 @@ public class Project
 	}
 
 	/**
-	 * Returns the cost-related risk of a given requirement
+	 * Returns the minimum cost estimate of a given requirement
 	 */
-	public double getRequirementCostRisk(int requirement)
+	public double getRequirementCostMinimumEstimate(int requirement)
 	{
-		return requirementCostRisks[requirement];
+		return requirementCostMinimumEstimate[requirement];
 	}
 
 	/**
-	 * Sets the cost for a given requirement
+	 * Returns the cost-related risk of a given requirement
 	 */
-	public void setRequirementCost(int requirement, int cost)
+	public double getRequirementCostRisk(int requirement)
 	{
-		requirementCosts[requirement] = cost;
+		return requirementCostRisks[requirement];
 	}
-	
+
 	/**
 	 * Count the number of precedent requirements for a given requirement
 	 */
 	public int getRequirementDependencySourcesCount(int requirement)
 	{
-		int[] sources = requirementDependencySources[requirement];
-		
-		if (sources == null)
-			return 0;
-
-		int count = 0;
-		
-		for (int i = 0; sources[i] >= 0; i++)
-			count++;
-		
-		return count;
+		return requirementDependencyOffsets[requirement+1] - requirementDependencyOffsets[requirement];
 	}
 
 	/**
@@ -185,49 +166,7 @@ public class Project
 	 */
 	public int[] getRequirementDependencySources(int requirement)
 	{
-		return requirementDependencySources[requirement];
-	}
-
-	/**
-	 * Adds a dependency among a precedent (source) and a dependent (target) requirement
-	 */
-	public void addRequirementDependency(int source, int target)
-	{
-		int[] sources = requirementDependencySources[target];
-		
-		if (sources == null)
-		{
-			requirementDependencySources[target] = new int[10];
-			
-			for (int i = 1; i < 10; i++)
-				requirementDependencySources[target][i] = -1;
-			
-			requirementDependencySources[target][0] = source;
-			return;
-		}
-		
-		for (int i = 0; i < sources.length-1; i++)
-		{
-			if (sources[i] < 0)
-			{
-				sources[i] = source;
-				return;
-			}
-
-			if (sources[i] == source)
-				return;
-		}
-		
-		int[] newSources = new int[sources.length + 10];
-		
-		for (int i = 0; i < sources.length; i++)
-			newSources[i] = sources[i];
-		
-		for (int i = 0; i < 10; i++)
-			newSources[sources.length + i] = -1;
-		
-		newSources[sources.length-1] = source;
-		requirementDependencySources[target] = newSources;	
+		return Arrays.copyOfRange(requirementDependencySources, requirementDependencyOffsets[requirement], requirementDependencyOffsets[requirement+1]);
 	}
 
 	/**
@@ -238,42 +177,20 @@ public class Project
 		return customerProfits.length;
 	}
 
-	/**
-	 * Sets the number of costumers for the project
-	 */
-	public void setCustomerCount(int count)
-	{
-		this.customerProfits = new int[count];
-		this.customerRequirements = new int[count][];
-		this.customerProfitRisks = new double[count];
-		this.customerProfitMinimumEstimate = new double[count];
-		this.customerProfitMaximumEstimate = new double[count];
-	}
-	
 	/**
 	 * Returns the total profit to be yielded by the set of requirements
 	 */
 	public int getTotalProfit()
 	{
-		int sum = 0;
-		
-		for (int i = 0; i < customerProfits.length; i++)
-			sum += customerProfits[i];
-		
-		return sum;
+		return totalProfit;
 	}
-	
+
 	/**
 	 * Returns the total customer related risk attained by the set of requirements
 	 */
 	public double getTotalProfitRisk()
 	{
-		double sum = 0;
-		
-		for (int i = 0; i < customerProfitRisks.length; i++)
-			sum += customerProfitRisks[i];
-		
-		return sum;
+		return totalProfitRisk;
 	}
 
 	/**
@@ -293,11 +210,19 @@ public class Project
 	}
 
 	/**
-	 * Sets the profit for a given customer
+	 * Returns the minimum profit estimate for a given customer
 	 */
-	public void setCustomerProfit(int customer, int profit)
+	public double getCustomerProfitMinimumEstimate(int customer)
 	{
-		this.customerProfits[customer] = profit;
+		return customerProfitMinimumEstimate[customer];
+	}
+
+	/**
+	 * Returns the maximum profit estimate for a given customer
+	 */
+	public double getCustomerProfitMaximumEstimate(int customer)
+	{
+		return customerProfitMaximumEstimate[customer];
 	}
 
 	/**
@@ -305,80 +230,45 @@ public class Project
 	 */
 	public int[] getCustomerRequirements(int customer)
 	{
-		return customerRequirements[customer];
+		return Arrays.copyOfRange(customerRequirementIndices, customerRequirementOffsets[customer], customerRequirementOffsets[customer+1]);
 	}
 
 	/**
-	 * Sets the requirements desired by a given customer
+	 * Returns the requirements desired by each customer, along with their precedents
 	 */
-	public void setCustomerRequirements(int customer, int[] requirements)
+	public synchronized RequirementClosure getRequirementClosure()
 	{
-		this.customerRequirements[customer] = requirements;
+		if (requirementClosure == null)
+			requirementClosure = new RequirementClosure(this);
+
+		return requirementClosure;
 	}
-	
+
 	/**
 	 * Gets all requirements desired by a customer (with dependencies)
 	 */
 	public boolean[] getCustomersRequirements(boolean[] customerSelection)
 	{
+		RequirementClosure closure = getRequirementClosure();
 		boolean[] requirements = new boolean[requirementCosts.length];
-		
-		for (int i = 0; i < requirements.length; i++)
-			requirements[i] = false;
-		
+
 		for (int i = 0; i < customerSelection.length; i++)
 			if (customerSelection[i])
-				addCustomerRequirements(i, requirements);
-		
-		return requirements;
-	}
+				for (int j = closure.getStart(i); j < closure.getEnd(i); j++)
+					requirements[closure.getRequirement(j)] = true;
 
-	/**
-	 * Adds all requirements of a given customer and their precedents
-	 */
-	private void addCustomerRequirements(int customer, boolean[] requirements)
-	{
-		int len = customerRequirements[customer].length;
-		
-		for (int j = 0; j < len; j++)
-		{
-			int requirement = customerRequirements[customer][j];
-			
-			if (requirement >= 0 && !requirements[requirement])
-				addRequirementAndDependencies(requirement, requirements);
-		}
+		return requirements;
 	}
 
-	/**
-	 * Adds a requirement and the sources of its dependencies
-	 */
-	private void addRequirementAndDependencies(int requirement, boolean[] requirements)
-	{
-		requirements[requirement] = true;
-		
-		if (requirementDependencySources[requirement] == null)
-			return;
-		
-		int len = requirementDependencySources[requirement].length;
-			
-		for (int k = 0; k < len; k++)
-		{
-			int source = requirementDependencySources[requirement][k];
-			
-			if (source >= 0 && !requirements[source])
-				addRequirementAndDependencies(source, requirements);
-		}
-	}
-	
 	/**
 	 * Calculates the cost of attending a set of customers
 	 */
 	public int calculateCost(boolean[] customerSelection)
 	{
 		boolean[] requirements = getCustomersRequirements(customerSelection);
-		
+
 		int sum = 0;
-		
+
 		for (int i = 0; i < requirements.length; i++)
 			if (requirements[i])
 				sum += requirementCosts[i];
@@ -392,11 +282,11 @@ public class Project
 	public int calculateProfit(boolean[] customerSelection)
 	{
 		int sum = 0;
-		
+
 		for (int i = 0; i < customerProfits.length; i++)
 			if (customerSelection[i])
 				sum += customerProfits[i];
-		
+
 		return sum;
 	}
 
@@ -406,11 +296,11 @@ public class Project
 	public double calculateProfitRisk(boolean[] customerSelection)
 	{
 		double sum = 0;
-		
+
 		for (int i = 0; i < customerProfitRisks.length; i++)
 			if (customerSelection[i])
 				sum += customerProfitRisks[i];
-		
+
 		return sum;
 	}
 
@@ -419,17 +309,9 @@ public class Project
 	 */
 	public double calculateCostRisk(boolean[] customerSelection)
 	{
-		boolean[] requirements = new boolean[requirementCosts.length];
-		
-		for (int i = 0; i < requirements.length; i++)
-			requirements[i] = false;
-		
-		for (int i = 0; i < customerSelection.length; i++)
-			if (customerSelection[i])
-				addCustomerRequirements(i, requirements);
-		
+		boolean[] requirements = getCustomersRequirements(customerSelection);
 		double sum = 0;
-		
+
 		for (int i = 0; i < requirements.length; i++)
 			if (requirements[i])
 				sum += requirementCostRisks[i];
@@ -442,7 +324,7 @@ public class Project
 	 */
 	public int getCustomerRequirementsCount(int customerIndex)
 	{
-		return customerRequirements[customerIndex].length;
+		return customerRequirementOffsets[customerIndex+1] - customerRequirementOffsets[customerIndex];
 	}
 
 	/**
@@ -450,7 +332,7 @@ public class Project
 	 */
 	public int getCustomerRequirementIndex(int customerIndex, int index)
 	{
-		return customerRequirements[customerIndex][index];
+		return customerRequirementIndices[customerRequirementOffsets[customerIndex] + index];
 	}
 
 	/**
@@ -458,7 +340,7 @@ public class Project
 	 */
 	public boolean requirementHasPrecedents(int requirementIndex)
 	{
-		return requirementDependencySources[requirementIndex] != null;
+		return requirementDependencyOffsets[requirementIndex+1] > requirementDependencyOffsets[requirementIndex];
 	}
 
 	/**
@@ -466,7 +348,7 @@ public class Project
 	 */
 	public int getRequirementPrecedentsCount(int requirementIndex)
 	{
-		return requirementDependencySources[requirementIndex].length;
+		return requirementDependencyOffsets[requirementIndex+1] - requirementDependencyOffsets[requirementIndex];
 	}
 
 	/**
@@ -474,20 +356,6 @@ public class Project
 	 */
 	public int getRequirementPrecedentIndex(int requirementIndex, int index)
 	{
-		return requirementDependencySources[requirementIndex][index];
-	}
-
-	public void setRequirementCostEstimates(int requirementIndex, double minimumCost, double maximumCost)
-	{
-		this.requirementCostMinimumEstimate[requirementIndex] = minimumCost;
-		this.requirementCostMaximumEstimate[requirementIndex] = maximumCost;
-		this.requirementCostRisks[requirementIndex] = (maximumCost - minimumCost) / 6.0;
-	}
-
-	public void setCustomerProfitEstimates(int customerIndex, double minimumProfit, double maximumProfit)
-	{
-		this.customerProfitMinimumEstimate[customerIndex] = minimumProfit;
-		this.customerProfitMaximumEstimate[customerIndex] = maximumProfit;
-		this.customerProfitRisks[customerIndex] = (maximumProfit - minimumProfit) / 6.0;
+		return requirementDependencySources[requirementDependencyOffsets[requirementIndex] + index];
 	}
-}
\ No newline at end of file
+}
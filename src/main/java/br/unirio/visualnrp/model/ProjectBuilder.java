@@ -0,0 +1,203 @@
+package br.unirio.visualnrp.model;
+
+import java.util.Arrays;
+
+/**
+ * Class that collects the data of a next-release problem while it is being loaded or derived
+ * from another project, and freezes it into an immutable project
+ *
+ * @author marciobarros
+ */
+public class ProjectBuilder
+{
+	private Instance instance;
+	private int[][] requirementDependencySources;
+	private int[] requirementDependencyCounts;
+	private int[][] customerRequirements;
+	private int[] requirementCosts;
+	private double[] requirementCostMinimumEstimate;
+	private double[] requirementCostMaximumEstimate;
+	private double[] requirementCostRisks;
+	private int[] customerProfits;
+	private double[] customerProfitMinimumEstimate;
+	private double[] customerProfitMaximumEstimate;
+	private double[] customerProfitRisks;
+
+	/**
+	 * Initializes the builder, given the instance of the project
+	 */
+	public ProjectBuilder(Instance instance)
+	{
+		this.instance = instance;
+		this.requirementDependencySources = new int[0][];
+		this.requirementDependencyCounts = new int[0];
+		this.requirementCosts = new int[0];
+		this.requirementCostMinimumEstimate = new double[0];
+		this.requirementCostMaximumEstimate = new double[0];
+		this.requirementCostRisks = new double[0];
+		setCustomerCount(0);
+	}
+
+	/**
+	 * Returns the number of requirements
+	 */
+	public int getRequirementCount()
+	{
+		return requirementCosts.length;
+	}
+
+	/**
+	 * Adds a number of requirements to the project
+	 */
+	public void addRequirements(int count)
+	{
+		int len = requirementCosts.length + count;
+		this.requirementCosts = Arrays.copyOf(requirementCosts, len);
+		this.requirementCostRisks = Arrays.copyOf(requirementCostRisks, len);
+		this.requirementCostMinimumEstimate = Arrays.copyOf(requirementCostMinimumEstimate, len);
+		this.requirementCostMaximumEstimate = Arrays.copyOf(requirementCostMaximumEstimate, len);
+		this.requirementDependencySources = Arrays.copyOf(requirementDependencySources, len);
+		this.requirementDependencyCounts = Arrays.copyOf(requirementDependencyCounts, len);
+	}
+
+	/**
+	 * Returns the cost of a given requirement
+	 */
+	public int getRequirementCost(int requirement)
+	{
+		return requirementCosts[requirement];
+	}
+
+	/**
+	 * Sets the cost for a given requirement
+	 */
+	public void setRequirementCost(int requirement, int cost)
+	{
+		requirementCosts[requirement] = cost;
+	}
+
+	/**
+	 * Sets the minimum and maximum cost estimates for a given requirement
+	 */
+	public void setRequirementCostEstimates(int requirementIndex, double minimumCost, double maximumCost)
+	{
+		this.requirementCostMinimumEstimate[requirementIndex] = minimumCost;
+		this.requirementCostMaximumEstimate[requirementIndex] = maximumCost;
+		this.requirementCostRisks[requirementIndex] = (maximumCost - minimumCost) / 6.0;
+	}
+
+	/**
+	 * Adds a dependency among a precedent (source) and a dependent (target) requirement
+	 */
+	public void addRequirementDependency(int source, int target)
+	{
+		int[] sources = requirementDependencySources[target];
+		int count = requirementDependencyCounts[target];
+
+		for (int i = 0; i < count; i++)
+			if (sources[i] == source)
+				return;
+
+		if (sources == null)
+		{
+			sources = new int[10];
+			requirementDependencySources[target] = sources;
+		}
+		else if (count == sources.length)
+		{
+			sources = Arrays.copyOf(sources, count + 10);
+			requirementDependencySources[target] = sources;
+		}
+
+		sources[count] = source;
+		requirementDependencyCounts[target] = count + 1;
+	}
+
+	/**
+	 * Returns the number of customers for the project
+	 */
+	public int getCustomerCount()
+	{
+		return customerProfits.length;
+	}
+
+	/**
+	 * Sets the number of costumers for the project
+	 */
+	public void setCustomerCount(int count)
+	{
+		this.customerProfits = new int[count];
+		this.customerRequirements = new int[count][];
+		this.customerProfitRisks = new double[count];
+		this.customerProfitMinimumEstimate = new double[count];
+		this.customerProfitMaximumEstimate = new double[count];
+	}
+
+	/**
+	 * Returns the profit for a given customer
+	 */
+	public int getCustomerProfit(int customer)
+	{
+		return customerProfits[customer];
+	}
+
+	/**
+	 * Sets the profit for a given customer
+	 */
+	public void setCustomerProfit(int customer, int profit)
+	{
+		this.customerProfits[customer] = profit;
+	}
+
+	/**
+	 * Sets the minimum and maximum profit estimates for a given customer
+	 */
+	public void setCustomerProfitEstimates(int customerIndex, double minimumProfit, double maximumProfit)
+	{
+		this.customerProfitMinimumEstimate[customerIndex] = minimumProfit;
+		this.customerProfitMaximumEstimate[customerIndex] = maximumProfit;
+		this.customerProfitRisks[customerIndex] = (maximumProfit - minimumProfit) / 6.0;
+	}
+
+	/**
+	 * Sets the requirements desired by a given customer
+	 */
+	public void setCustomerRequirements(int customer, int[] requirements)
+	{
+		this.customerRequirements[customer] = requirements;
+	}
+
+	/**
+	 * Creates the immutable project holding the data collected so far
+	 */
+	public Project build()
+	{
+		int requirementCount = requirementCosts.length;
+		int[] dependencyOffsets = new int[requirementCount + 1];
+
+		for (int i = 0; i < requirementCount; i++)
+			dependencyOffsets[i + 1] = dependencyOffsets[i] + requirementDependencyCounts[i];
+
+		int[] dependencySources = new int[dependencyOffsets[requirementCount]];
+
+		for (int i = 0; i < requirementCount; i++)
+			if (requirementDependencyCounts[i] > 0)
+				System.arraycopy(requirementDependencySources[i], 0, dependencySources, dependencyOffsets[i], requirementDependencyCounts[i]);
+
+		int customerCount = customerProfits.length;
+		int[] customerRequirementOffsets = new int[customerCount + 1];
+
+		for (int i = 0; i < customerCount; i++)
+			customerRequirementOffsets[i + 1] = customerRequirementOffsets[i] + (customerRequirements[i] != null ? customerRequirements[i].length : 0);
+
+		int[] customerRequirementIndices = new int[customerRequirementOffsets[customerCount]];
+
+		for (int i = 0; i < customerCount; i++)
+			if (customerRequirements[i] != null)
+				System.arraycopy(customerRequirements[i], 0, customerRequirementIndices, customerRequirementOffsets[i], customerRequirements[i].length);
+
+		return new Project(instance, dependencyOffsets, dependencySources, customerRequirementOffsets, customerRequirementIndices,
+			requirementCosts.clone(), requirementCostMinimumEstimate.clone(), requirementCostMaximumEstimate.clone(), requirementCostRisks.clone(),
+			customerProfits.clone(), customerProfitMinimumEstimate.clone(), customerProfitMaximumEstimate.clone(), customerProfitRisks.clone());
+	}
+}
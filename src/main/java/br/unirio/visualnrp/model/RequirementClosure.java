@@ -0,0 +1,256 @@
+package br.unirio.visualnrp.model;
+
+import java.util.Arrays;
+
+/**
+ * Class that represents the requirements desired by each customer of a project, along with
+ * all their precedents. The closures are stored in two flat arrays: the requirements of the
+ * i-th customer are found from offsets[i] (inclusive) to offsets[i+1] (exclusive), in the
+ * order they are reached by a depth-first visit of the customer's requirements.
+ *
+ * @author marciobarros
+ */
+public class RequirementClosure
+{
+	private int requirementCount;
+	private int[] offsets;
+	private int[] requirements;
+	private long[][] customerRequirementBits;
+	private int[][] customerRequirementWords;
+	private int[][] overlappingCustomers;
+
+	/**
+	 * Calculates the closures for all customers of a project
+	 */
+	public RequirementClosure(Project project)
+	{
+		int customerCount = project.getCustomerCount();
+		this.requirementCount = project.getRequirementCount();
+		this.offsets = new int[customerCount + 1];
+		this.requirements = new int[Math.max(requirementCount, 16)];
+
+		int[] marks = new int[requirementCount];
+		Arrays.fill(marks, -1);
+
+		int position = 0;
+
+		for (int i = 0; i < customerCount; i++)
+		{
+			offsets[i] = position;
+			int customerRequirementCount = project.getCustomerRequirementsCount(i);
+
+			for (int j = 0; j < customerRequirementCount; j++)
+			{
+				int requirementIndex = project.getCustomerRequirementIndex(i, j);
+
+				if (requirementIndex >= 0)
+					position = addRequirementAndPrecedents(project, i, requirementIndex, marks, position);
+			}
+		}
+
+		offsets[customerCount] = position;
+		this.requirements = Arrays.copyOf(requirements, position);
+	}
+
+	/**
+	 * Adds a requirement and its precedents to the closure of a customer, if not already there
+	 */
+	private int addRequirementAndPrecedents(Project project, int customerIndex, int requirementIndex, int[] marks, int position)
+	{
+		if (marks[requirementIndex] == customerIndex)
+			return position;
+
+		marks[requirementIndex] = customerIndex;
+
+		if (position == requirements.length)
+			requirements = Arrays.copyOf(requirements, 2 * position);
+
+		requirements[position++] = requirementIndex;
+
+		if (project.requirementHasPrecedents(requirementIndex))
+		{
+			int dependencies = project.getRequirementPrecedentsCount(requirementIndex);
+
+			for (int i = 0; i < dependencies; i++)
+			{
+				int source = project.getRequirementPrecedentIndex(requirementIndex, i);
+
+				if (source >= 0)
+					position = addRequirementAndPrecedents(project, customerIndex, source, marks, position);
+			}
+		}
+
+		return position;
+	}
+
+	/**
+	 * Returns the number of customers
+	 */
+	public int getCustomerCount()
+	{
+		return offsets.length - 1;
+	}
+
+	/**
+	 * Returns the position where the closure of a customer starts
+	 */
+	public int getStart(int customerIndex)
+	{
+		return offsets[customerIndex];
+	}
+
+	/**
+	 * Returns the position where the closure of a customer ends (exclusive)
+	 */
+	public int getEnd(int customerIndex)
+	{
+		return offsets[customerIndex + 1];
+	}
+
+	/**
+	 * Returns the number of requirements in the closure of a customer
+	 */
+	public int getSize(int customerIndex)
+	{
+		return offsets[customerIndex + 1] - offsets[customerIndex];
+	}
+
+	/**
+	 * Returns the requirement found in a given position of the closures
+	 */
+	public int getRequirement(int position)
+	{
+		return requirements[position];
+	}
+
+	/**
+	 * Returns the offsets of the closures, indexed by customer (not to be changed)
+	 */
+	public int[] getOffsets()
+	{
+		return offsets;
+	}
+
+	/**
+	 * Returns the requirements of all closures (not to be changed)
+	 */
+	public int[] getRequirements()
+	{
+		return requirements;
+	}
+
+	/**
+	 * Checks whether the closure of a customer contains a given requirement
+	 */
+	public boolean contains(int customerIndex, int requirementIndex)
+	{
+		int end = offsets[customerIndex + 1];
+
+		for (int i = offsets[customerIndex]; i < end; i++)
+			if (requirements[i] == requirementIndex)
+				return true;
+
+		return false;
+	}
+
+	/**
+	 * Returns the closures as bitsets, indexed by customer (not to be changed)
+	 */
+	public synchronized long[][] getCustomerRequirementBits()
+	{
+		if (customerRequirementBits == null)
+			prepareCustomerRequirementBits();
+
+		return customerRequirementBits;
+	}
+
+	/**
+	 * Returns the indices of the non-empty words in the bitset of each customer (not to be changed)
+	 */
+	public synchronized int[][] getCustomerRequirementWords()
+	{
+		if (customerRequirementWords == null)
+			prepareCustomerRequirementBits();
+
+		return customerRequirementWords;
+	}
+
+	/**
+	 * Returns, for each customer, the other customers that share at least one requirement with it (not to be changed)
+	 */
+	public synchronized int[][] getOverlappingCustomers()
+	{
+		if (overlappingCustomers == null)
+			prepareOverlappingCustomers();
+
+		return overlappingCustomers;
+	}
+
+	/**
+	 * Converts the closure of each customer to a bitset and the list of its non-empty words
+	 */
+	private void prepareCustomerRequirementBits()
+	{
+		int customerCount = getCustomerCount();
+		int wordCount = (requirementCount + 63) >>> 6;
+		long[][] bits = new long[customerCount][wordCount];
+		int[][] words = new int[customerCount][];
+		int[] buffer = new int[wordCount];
+
+		for (int i = 0; i < customerCount; i++)
+		{
+			long[] customerBits = bits[i];
+
+			for (int j = offsets[i]; j < offsets[i + 1]; j++)
+				customerBits[requirements[j] >>> 6] |= 1L << requirements[j];
+
+			int count = 0;
+
+			for (int w = 0; w < wordCount; w++)
+				if (customerBits[w] != 0)
+					buffer[count++] = w;
+
+			words[i] = Arrays.copyOf(buffer, count);
+		}
+
+		this.customerRequirementBits = bits;
+		this.customerRequirementWords = words;
+	}
+
+	/**
+	 * Prepares the list of customers sharing requirements with each customer
+	 */
+	private void prepareOverlappingCustomers()
+	{
+		long[][] bits = getCustomerRequirementBits();
+		int[][] words = getCustomerRequirementWords();
+		int customerCount = getCustomerCount();
+		int[] buffer = new int[customerCount];
+		int[][] result = new int[customerCount][];
+
+		for (int i = 0; i < customerCount; i++)
+		{
+			int count = 0;
+
+			for (int j = 0; j < customerCount; j++)
+				if (j != i && sharesRequirements(bits[i], words[i], bits[j]))
+					buffer[count++] = j;
+
+			result[i] = Arrays.copyOf(buffer, count);
+		}
+
+		this.overlappingCustomers = result;
+	}
+
+	/**
+	 * Checks whether two bitsets have a requirement in common, given the non-empty words of the first one
+	 */
+	private static boolean sharesRequirements(long[] first, int[] firstWords, long[] second)
+	{
+		for (int word : firstWords)
+			if ((first[word] & second[word]) != 0)
+				return true;
+
+		return false;
+	}
+}
@@ -0,0 +1,267 @@
+package br.unirio.visualnrp.reader;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import br.unirio.visualnrp.writer.ColumnType;
+import br.unirio.visualnrp.writer.ColumnarFormat;
+import br.unirio.visualnrp.writer.ResultColumn;
+
+/**
+ * Class that reads the rows of a columnar result file, compressed with gzip or not. Rows are
+ * returned with one value per column: Long for INTEGER columns, Double for DOUBLE columns, String
+ * for STRING columns and boolean[] for SOLUTION columns.
+ *
+ * @author marciobarros
+ */
+public class ColumnarResultReader
+{
+	private InputStream in;
+	private ResultColumn[] columns;
+	private ColumnDecoder[] decoders;
+	private int pendingRows;
+
+	/**
+	 * Opens a columnar result file, reading its columns
+	 */
+	public ColumnarResultReader(String filename) throws Exception
+	{
+		this.in = openStream(filename);
+		byte[] magic = new byte[ColumnarFormat.MAGIC.length];
+		ColumnarFormat.readFully(in, magic);
+
+		for (int i = 0; i < magic.length; i++)
+			if (magic[i] != ColumnarFormat.MAGIC[i])
+				throw new Exception("File '" + filename + "' is not a columnar result file.");
+
+		int version = in.read();
+
+		if (version != ColumnarFormat.VERSION)
+			throw new Exception("Unsupported columnar result file version " + version + ".");
+
+		int columnCount = (int) ColumnarFormat.readVarLong(in);
+		this.columns = new ResultColumn[columnCount];
+		this.decoders = new ColumnDecoder[columnCount];
+
+		for (int i = 0; i < columnCount; i++)
+		{
+			String name = ColumnarFormat.readString(in);
+			int typeCode = in.read();
+
+			if (typeCode < 0 || typeCode >= ColumnType.values().length)
+				throw new Exception("File '" + filename + "' is not a columnar result file.");
+
+			ColumnType type = ColumnType.values()[typeCode];
+			columns[i] = new ResultColumn(name, type);
+			decoders[i] = createDecoder(type);
+		}
+
+		this.pendingRows = 0;
+	}
+
+	/**
+	 * Opens the stream of a file, decompressing it if it starts with the gzip magic number
+	 */
+	private static InputStream openStream(String filename) throws IOException
+	{
+		InputStream in = new BufferedInputStream(new FileInputStream(filename));
+		in.mark(2);
+		int first = in.read();
+		int second = in.read();
+		in.reset();
+
+		if (first == (GZIPInputStream.GZIP_MAGIC & 0xFF) && second == (GZIPInputStream.GZIP_MAGIC >> 8))
+			return new BufferedInputStream(new GZIPInputStream(in, 65536));
+
+		return in;
+	}
+
+	/**
+	 * Creates the decoder for a type of column
+	 */
+	private static ColumnDecoder createDecoder(ColumnType type)
+	{
+		switch (type)
+		{
+			case INTEGER:
+				return new IntegerDecoder();
+
+			case DOUBLE:
+				return new DoubleDecoder();
+
+			case STRING:
+				return new StringDecoder();
+
+			default:
+				return new SolutionDecoder();
+		}
+	}
+
+	/**
+	 * Returns the columns of the file
+	 */
+	public ResultColumn[] getColumns()
+	{
+		return columns;
+	}
+
+	/**
+	 * Reads the next row, returning null at the end of the file
+	 */
+	public Object[] readRow() throws IOException
+	{
+		if (pendingRows == 0 && !readBlock())
+			return null;
+
+		Object[] row = new Object[decoders.length];
+
+		for (int i = 0; i < decoders.length; i++)
+			row[i] = decoders[i].read();
+
+		pendingRows--;
+		return row;
+	}
+
+	/**
+	 * Reads the next block of rows, returning false at the end of the file
+	 */
+	private boolean readBlock() throws IOException
+	{
+		pendingRows = (int) ColumnarFormat.readVarLong(in);
+
+		if (pendingRows == 0)
+			return false;
+
+		for (ColumnDecoder decoder : decoders)
+		{
+			byte[] bytes = new byte[(int) ColumnarFormat.readVarLong(in)];
+			ColumnarFormat.readFully(in, bytes);
+			decoder.reset(bytes);
+		}
+
+		return true;
+	}
+
+	/**
+	 * Closes the file
+	 */
+	public void close() throws IOException
+	{
+		in.close();
+	}
+
+	/**
+	 * Class that decodes the values of a column in the current block
+	 */
+	private static abstract class ColumnDecoder
+	{
+		protected InputStream bytes;
+
+		public abstract Object read() throws IOException;
+
+		public void reset(byte[] block)
+		{
+			bytes = new ByteArrayInputStream(block);
+		}
+	}
+
+	/**
+	 * Class that decodes integers encoded as zig-zag deltas from the previous value
+	 */
+	private static class IntegerDecoder extends ColumnDecoder
+	{
+		private long previous;
+
+		@Override
+		public Object read() throws IOException
+		{
+			previous += ColumnarFormat.decodeZigZag(ColumnarFormat.readVarLong(bytes));
+			return previous;
+		}
+
+		@Override
+		public void reset(byte[] block)
+		{
+			super.reset(block);
+			previous = 0;
+		}
+	}
+
+	/**
+	 * Class that decodes doubles encoded as the reversed bits that differ from the previous value
+	 */
+	private static class DoubleDecoder extends ColumnDecoder
+	{
+		private long previous;
+
+		@Override
+		public Object read() throws IOException
+		{
+			previous ^= Long.reverse(ColumnarFormat.readVarLong(bytes));
+			return Double.longBitsToDouble(previous);
+		}
+
+		@Override
+		public void reset(byte[] block)
+		{
+			super.reset(block);
+			previous = 0;
+		}
+	}
+
+	/**
+	 * Class that decodes strings encoded as indexes into a dictionary
+	 */
+	private static class StringDecoder extends ColumnDecoder
+	{
+		private List<String> dictionary = new ArrayList<String>();
+
+		@Override
+		public Object read() throws IOException
+		{
+			int code = (int) ColumnarFormat.readVarLong(bytes);
+
+			if (code == 0)
+				return null;
+
+			if (code <= dictionary.size())
+				return dictionary.get(code - 1);
+
+			String text = ColumnarFormat.readString(bytes);
+			dictionary.add(text);
+			return text;
+		}
+
+		@Override
+		public void reset(byte[] block)
+		{
+			super.reset(block);
+			dictionary.clear();
+		}
+	}
+
+	/**
+	 * Class that decodes bit-packed solutions
+	 */
+	private static class SolutionDecoder extends ColumnDecoder
+	{
+		@Override
+		public Object read() throws IOException
+		{
+			boolean[] solution = new boolean[(int) ColumnarFormat.readVarLong(bytes)];
+			byte[] packed = new byte[(solution.length + 7) / 8];
+			ColumnarFormat.readFully(bytes, packed);
+
+			for (int i = 0; i < solution.length; i++)
+				solution[i] = (packed[i >> 3] & (1 << (i & 7))) != 0;
+
+			return solution;
+		}
+	}
+}
@@ -0,0 +1,229 @@
+package br.unirio.visualnrp.reader;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * Class that splits a text file into lines of integer and decimal tokens separated by blanks.
+ * The file is memory-mapped and tokens are parsed straight from its bytes, so that no strings
+ * are created while reading numbers.
+ *
+ * @author marciobarros
+ */
+public class LineTokenizer
+{
+	private static final double[] POWERS_OF_TEN = { 1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11, 1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22 };
+
+	private ByteBuffer buffer;
+	private int lineEnd;
+	private int position;
+
+	/**
+	 * Opens a file for reading
+	 */
+	public LineTokenizer(String filename) throws IOException
+	{
+		RandomAccessFile file = new RandomAccessFile(filename, "r");
+
+		try
+		{
+			FileChannel channel = file.getChannel();
+			this.buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+		}
+		finally
+		{
+			file.close();
+		}
+
+		this.lineEnd = -1;
+		this.position = 0;
+	}
+
+	/**
+	 * Moves to the next line of the file, returning false if there are no more lines
+	 */
+	public boolean nextLine()
+	{
+		int limit = buffer.limit();
+		int start = (lineEnd < 0) ? 0 : lineEnd + 1;
+
+		if (lineEnd >= 0 && lineEnd < limit && buffer.get(lineEnd) == '\r' && lineEnd + 1 < limit && buffer.get(lineEnd + 1) == '\n')
+			start++;
+
+		if (start >= limit)
+			return false;
+
+		int end = start;
+
+		while (end < limit && buffer.get(end) != '\n' && buffer.get(end) != '\r')
+			end++;
+
+		this.position = start;
+		this.lineEnd = end;
+		return true;
+	}
+
+	/**
+	 * Checks whether a byte separates tokens
+	 */
+	private static boolean isBlank(byte b)
+	{
+		return b == ' ' || b == '\t';
+	}
+
+	/**
+	 * Skips the blanks before the next token in the current line
+	 */
+	private void skipBlanks()
+	{
+		while (position < lineEnd && isBlank(buffer.get(position)))
+			position++;
+	}
+
+	/**
+	 * Checks whether there are more tokens in the current line
+	 */
+	public boolean hasMoreTokens()
+	{
+		skipBlanks();
+		return position < lineEnd;
+	}
+
+	/**
+	 * Counts the tokens remaining in the current line
+	 */
+	public int countTokens()
+	{
+		int count = 0;
+		boolean inToken = false;
+
+		for (int i = position; i < lineEnd; i++)
+		{
+			boolean blank = isBlank(buffer.get(i));
+
+			if (!blank && !inToken)
+				count++;
+
+			inToken = !blank;
+		}
+
+		return count;
+	}
+
+	/**
+	 * Returns the next token of the current line as an integer
+	 */
+	public int nextInt()
+	{
+		skipBlanks();
+		int start = position;
+		boolean negative = false;
+
+		if (position < lineEnd && (buffer.get(position) == '-' || buffer.get(position) == '+'))
+			negative = (buffer.get(position++) == '-');
+
+		int digitsStart = position;
+		long value = 0;
+
+		while (position < lineEnd && !isBlank(buffer.get(position)))
+		{
+			int digit = buffer.get(position) - '0';
+
+			if (digit < 0 || digit > 9)
+				throw new NumberFormatException("For input string: \"" + getToken(start) + "\"");
+
+			value = value * 10 + digit;
+
+			if (value > (long) Integer.MAX_VALUE + 1)
+				throw new NumberFormatException("For input string: \"" + getToken(start) + "\"");
+
+			position++;
+		}
+
+		if (position == digitsStart || (!negative && value > Integer.MAX_VALUE))
+			throw new NumberFormatException("For input string: \"" + getToken(start) + "\"");
+
+		return (int) (negative ? -value : value);
+	}
+
+	/**
+	 * Returns the next token of the current line as a decimal number
+	 */
+	public double nextDouble()
+	{
+		skipBlanks();
+		int start = position;
+		boolean negative = false;
+
+		if (position < lineEnd && (buffer.get(position) == '-' || buffer.get(position) == '+'))
+			negative = (buffer.get(position++) == '-');
+
+		long mantissa = 0;
+		int digits = 0;
+		int exponent = 0;
+		boolean hasPoint = false;
+		boolean hasDigits = false;
+		boolean exact = true;
+
+		while (position < lineEnd && !isBlank(buffer.get(position)))
+		{
+			byte b = buffer.get(position);
+
+			if (b == '.' && !hasPoint)
+				hasPoint = true;
+			else if (b >= '0' && b <= '9')
+			{
+				hasDigits = true;
+
+				if (mantissa > 0 || b != '0')
+					digits++;
+
+				if (digits > 18)
+					exact = false;
+				else
+					mantissa = mantissa * 10 + (b - '0');
+
+				if (hasPoint)
+					exponent--;
+			}
+			else
+			{
+				exact = false;
+
+				while (position < lineEnd && !isBlank(buffer.get(position)))
+					position++;
+
+				break;
+			}
+
+			position++;
+		}
+
+		if (position == start)
+			throw new NumberFormatException("empty String");
+
+		if (!exact || !hasDigits || mantissa >= (1L << 53) || exponent < -22)
+			return Double.parseDouble(getToken(start));
+
+		double value = mantissa / POWERS_OF_TEN[-exponent];
+		return negative ? -value : value;
+	}
+
+	/**
+	 * Returns the token starting at a given position, up to the current position
+	 */
+	private String getToken(int start)
+	{
+		while (position < lineEnd && !isBlank(buffer.get(position)))
+			position++;
+
+		StringBuilder sb = new StringBuilder(position - start);
+
+		for (int i = start; i < position; i++)
+			sb.append((char) buffer.get(i));
+
+		return sb.toString();
+	}
+}
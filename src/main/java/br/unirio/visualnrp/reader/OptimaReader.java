@@ -0,0 +1,74 @@
+package br.unirio.visualnrp.reader;
+
+import java.io.FileInputStream;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Scanner;
+
+/**
+ * Class that reads the best known profits for the instances, as in the optima.txt file. Each line
+ * holds an instance name and budget factor (such as "nrp1-30"), the profit and, optionally, the
+ * solution, separated by semicolons.
+ *  
+ * @author marciobarros
+ */
+public class OptimaReader
+{
+	private int lineCounter;
+
+	/**
+	 * Loads a file containing the best known profits, indexed by instance name and budget factor
+	 */
+	public Map<String, Double> execute(String filename) throws Exception
+	{
+		Map<String, Double> result = new HashMap<String, Double>();
+		Scanner scanner = new Scanner(new FileInputStream(filename));
+		this.lineCounter = 0;
+		
+		try
+		{
+			while (scanner.hasNextLine())
+			{
+				lineCounter++;
+				String line = scanner.nextLine().trim();
+				
+				if (line.length() > 0)
+					loadOptimum(line, result);
+			}
+		}
+		finally
+		{
+			scanner.close();
+		}
+		
+		return result;
+	}
+
+	/**
+	 * Loads a line from the file containing the best known profit for an instance and budget factor
+	 */
+	private void loadOptimum(String line, Map<String, Double> result) throws Exception
+	{
+		String[] tokens = line.split(";");
+		
+		if (tokens.length < 2)
+			addError("Invalid number of columns");
+		
+		try
+		{
+			result.put(tokens[0].trim(), Double.parseDouble(tokens[1].trim()));
+		}
+		catch (NumberFormatException e)
+		{
+			addError("Invalid profit " + tokens[1]);
+		}
+	}
+
+	/**
+	 * Registers an error during file processing
+	 */
+	private void addError(String message) throws Exception
+	{
+		throw new Exception("Line #" + lineCounter + ": " + message);
+	}
+}
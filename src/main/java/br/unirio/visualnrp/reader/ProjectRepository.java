@@ -0,0 +1,81 @@
+package br.unirio.visualnrp.reader;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import br.unirio.visualnrp.model.Instance;
+import br.unirio.visualnrp.model.MaximumValuesList;
+import br.unirio.visualnrp.model.Project;
+
+/**
+ * Class that keeps the projects loaded during a session, so that each instance is read from
+ * disk only once. Projects are immutable, so the same project (along with its totals and
+ * requirement closure) is shared by all commands and threads. The least recently used
+ * projects are discarded when more than CAPACITY instances are loaded.
+ *
+ * @author marciobarros
+ */
+public class ProjectRepository
+{
+	/**
+	 * Maximum number of projects kept in memory
+	 */
+	public static int CAPACITY = 8;
+
+	/**
+	 * Projects loaded so far, in access order
+	 */
+	private static Map<Instance, Project> projects = new LinkedHashMap<Instance, Project>(16, 0.75f, true)
+	{
+		private static final long serialVersionUID = 1L;
+
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<Instance, Project> eldest)
+		{
+			return size() > CAPACITY;
+		}
+	};
+
+	/**
+	 * Maximum values for the instances, loaded on first use
+	 */
+	private static MaximumValuesList maximumValues = null;
+
+	/**
+	 * Returns the project for a given instance, loading it if required (null if it cannot be loaded)
+	 */
+	public static synchronized Project getProject(Instance instance)
+	{
+		Project project = projects.get(instance);
+
+		if (project == null)
+		{
+			project = new RequirementReader().execute(instance);
+
+			if (project != null)
+				projects.put(instance, project);
+		}
+
+		return project;
+	}
+
+	/**
+	 * Returns the maximum values for the instances, loading them if required
+	 */
+	public static synchronized MaximumValuesList getMaximumValues()
+	{
+		if (maximumValues == null)
+			maximumValues = new MaximumValuesReader().execute();
+
+		return maximumValues;
+	}
+
+	/**
+	 * Discards all projects and maximum values loaded so far
+	 */
+	public static synchronized void clear()
+	{
+		projects.clear();
+		maximumValues = null;
+	}
+}
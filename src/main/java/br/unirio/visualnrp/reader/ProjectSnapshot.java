@@ -0,0 +1,275 @@
+package br.unirio.visualnrp.reader;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.zip.CRC32;
+
+import br.unirio.visualnrp.model.Instance;
+import br.unirio.visualnrp.model.Project;
+import br.unirio.visualnrp.model.ProjectBuilder;
+
+/**
+ * Class that saves and loads projects in a binary format. A snapshot starts with a header
+ * holding a magic number, the format version, the payload size, and the payload's CRC32.
+ * The payload holds requirement costs and estimates, the precedents of each requirement, and
+ * the profit, estimates, and requirements of each customer, lists being prefixed by their size.
+ *
+ * @author marciobarros
+ */
+public class ProjectSnapshot
+{
+	private static final int MAGIC = 0x4E525053;
+	private static final int VERSION = 1;
+	private static final int HEADER_SIZE = 16;
+
+	/**
+	 * Checks whether the snapshot of an instance exists and is newer than its source files
+	 */
+	public boolean isUpToDate(Instance instance)
+	{
+		File snapshot = new File(instance.getSnapshotFilename());
+
+		if (!snapshot.exists())
+			return false;
+
+		File source = new File(instance.getFilename());
+
+		if (source.exists() && source.lastModified() > snapshot.lastModified())
+			return false;
+
+		File risk = new File(instance.getRiskFilename());
+		return !risk.exists() || risk.lastModified() <= snapshot.lastModified();
+	}
+
+	/**
+	 * Loads the snapshot of an instance, returning null if it is missing, outdated, or corrupted
+	 */
+	public Project read(Instance instance)
+	{
+		return read(instance, instance.getSnapshotFilename());
+	}
+
+	/**
+	 * Loads the data of an instance from a snapshot file, returning null if it is missing or corrupted
+	 */
+	public Project read(Instance instance, String filename)
+	{
+		try
+		{
+			return readFile(instance, filename);
+		}
+		catch (Exception e)
+		{
+			return null;
+		}
+	}
+
+	/**
+	 * Loads a project from a snapshot file
+	 */
+	private Project readFile(Instance instance, String filename) throws Exception
+	{
+		ByteBuffer buffer = map(filename);
+
+		if (buffer.remaining() < HEADER_SIZE || buffer.getInt() != MAGIC)
+			throw new Exception("Invalid snapshot file " + filename);
+
+		if (buffer.getInt() != VERSION)
+			throw new Exception("Unsupported snapshot version in " + filename);
+
+		int payloadSize = buffer.getInt();
+		int checksum = buffer.getInt();
+
+		if (buffer.remaining() != payloadSize || calculateChecksum(buffer) != checksum)
+			throw new Exception("Corrupted snapshot file " + filename);
+
+		ProjectBuilder project = new ProjectBuilder(instance);
+		int requirementCount = buffer.getInt();
+		int customerCount = buffer.getInt();
+
+		project.addRequirements(requirementCount);
+
+		for (int i = 0; i < requirementCount; i++)
+			project.setRequirementCost(i, buffer.getInt());
+
+		for (int i = 0; i < requirementCount; i++)
+			project.setRequirementCostEstimates(i, buffer.getDouble(), buffer.getDouble());
+
+		for (int i = 0; i < requirementCount; i++)
+		{
+			int precedents = buffer.getInt();
+
+			for (int j = 0; j < precedents; j++)
+				project.addRequirementDependency(buffer.getInt(), i);
+		}
+
+		project.setCustomerCount(customerCount);
+
+		for (int i = 0; i < customerCount; i++)
+		{
+			project.setCustomerProfit(i, buffer.getInt());
+			project.setCustomerProfitEstimates(i, buffer.getDouble(), buffer.getDouble());
+
+			int[] requirements = new int[buffer.getInt()];
+			buffer.asIntBuffer().get(requirements);
+			buffer.position(buffer.position() + 4 * requirements.length);
+			project.setCustomerRequirements(i, requirements);
+		}
+
+		return project.build();
+	}
+
+	/**
+	 * Maps a file into memory
+	 */
+	private ByteBuffer map(String filename) throws IOException
+	{
+		RandomAccessFile file = new RandomAccessFile(filename, "r");
+
+		try
+		{
+			FileChannel channel = file.getChannel();
+			return channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+		}
+		finally
+		{
+			file.close();
+		}
+	}
+
+	/**
+	 * Calculates the CRC32 of the remaining bytes of a buffer, without moving its position
+	 */
+	private int calculateChecksum(ByteBuffer buffer)
+	{
+		ByteBuffer data = buffer.slice();
+		byte[] chunk = new byte[8192];
+		CRC32 crc = new CRC32();
+
+		while (data.hasRemaining())
+		{
+			int length = Math.min(chunk.length, data.remaining());
+			data.get(chunk, 0, length);
+			crc.update(chunk, 0, length);
+		}
+
+		return (int) crc.getValue();
+	}
+
+	/**
+	 * Saves the snapshot of a project next to its instance files
+	 */
+	public void write(Project project) throws IOException
+	{
+		write(project, project.getInstance().getSnapshotFilename());
+	}
+
+	/**
+	 * Saves the snapshot of a project to a given file
+	 */
+	public void write(Project project, String filename) throws IOException
+	{
+		ByteBuffer payload = createPayload(project);
+
+		ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+		header.putInt(MAGIC);
+		header.putInt(VERSION);
+		header.putInt(payload.remaining());
+		header.putInt(calculateChecksum(payload));
+		header.flip();
+
+		File temporary = File.createTempFile(project.getName(), ".tmp", new File(filename).getParentFile());
+
+		try
+		{
+			writeFile(temporary, header, payload);
+			Files.move(temporary.toPath(), new File(filename).toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		}
+		finally
+		{
+			temporary.delete();
+		}
+	}
+
+	/**
+	 * Writes the header and payload of a snapshot to a file
+	 */
+	private void writeFile(File target, ByteBuffer header, ByteBuffer payload) throws IOException
+	{
+		RandomAccessFile file = new RandomAccessFile(target, "rw");
+
+		try
+		{
+			FileChannel channel = file.getChannel();
+
+			while (header.hasRemaining())
+				channel.write(header);
+
+			while (payload.hasRemaining())
+				channel.write(payload);
+		}
+		finally
+		{
+			file.close();
+		}
+	}
+
+	/**
+	 * Serializes the data of a project
+	 */
+	private ByteBuffer createPayload(Project project)
+	{
+		int requirementCount = project.getRequirementCount();
+		int customerCount = project.getCustomerCount();
+		int size = 8 + requirementCount * (4 + 16 + 4) + customerCount * (4 + 16 + 4);
+
+		for (int i = 0; i < requirementCount; i++)
+			size += 4 * project.getRequirementPrecedentsCount(i);
+
+		for (int i = 0; i < customerCount; i++)
+			size += 4 * project.getCustomerRequirementsCount(i);
+
+		ByteBuffer buffer = ByteBuffer.allocate(size);
+		buffer.putInt(requirementCount);
+		buffer.putInt(customerCount);
+
+		for (int i = 0; i < requirementCount; i++)
+			buffer.putInt(project.getRequirementCost(i));
+
+		for (int i = 0; i < requirementCount; i++)
+		{
+			buffer.putDouble(project.getRequirementCostMinimumEstimate(i));
+			buffer.putDouble(project.getRequirementWorstCost(i));
+		}
+
+		for (int i = 0; i < requirementCount; i++)
+		{
+			int precedents = project.getRequirementPrecedentsCount(i);
+			buffer.putInt(precedents);
+
+			for (int j = 0; j < precedents; j++)
+				buffer.putInt(project.getRequirementPrecedentIndex(i, j));
+		}
+
+		for (int i = 0; i < customerCount; i++)
+		{
+			buffer.putInt(project.getCustomerProfit(i));
+			buffer.putDouble(project.getCustomerProfitMinimumEstimate(i));
+			buffer.putDouble(project.getCustomerProfitMaximumEstimate(i));
+
+			int requirements = project.getCustomerRequirementsCount(i);
+			buffer.putInt(requirements);
+
+			for (int j = 0; j < requirements; j++)
+				buffer.putInt(project.getCustomerRequirementIndex(i, j));
+		}
+
+		buffer.flip();
+		return buffer;
+	}
+}
@@ -1,12 +1,11 @@
 package br.unirio.visualnrp.reader;
 
 import java.io.File;
-import java.io.FileInputStream;
 import java.io.IOException;
-import java.util.Scanner;
 
 import br.unirio.visualnrp.model.Instance;
 import br.unirio.visualnrp.model.Project;
+import br.unirio.visualnrp.model.ProjectBuilder;
 
 /**
  * Class that reads data from a requirements file
@@ -15,13 +14,32 @@ import br.unirio.visualnrp.model.Project;
  */
 public class RequirementReader
 {
+	/**
+	 * System property that disables the binary snapshots when set to false
+	 */
+	public static final String SNAPSHOTS_PROPERTY = "visualnrp.snapshots";
+	
+	/**
+	 * Whether binary snapshots are used to speed up loading, being saved after parsing text files
+	 */
+	private boolean useSnapshots;
+	
 	private int lineCounter;
 	
 	/**
-	 * Initializes the requirement file reader
+	 * Initializes the requirement file reader, using snapshots unless disabled by a system property
 	 */
 	public RequirementReader()
 	{
+		this(Boolean.parseBoolean(System.getProperty(SNAPSHOTS_PROPERTY, "true")));
+	}
+	
+	/**
+	 * Initializes the requirement file reader, stating whether it uses snapshots
+	 */
+	public RequirementReader(boolean useSnapshots)
+	{
+		this.useSnapshots = useSnapshots;
 	}
 	
 	/**
@@ -29,11 +47,26 @@ public class RequirementReader
 	 */
 	public Project execute(Instance instance)
 	{
+		ProjectSnapshot snapshot = new ProjectSnapshot();
+		
+		if (useSnapshots && snapshot.isUpToDate(instance))
+		{
+			Project project = snapshot.read(instance);
+			
+			if (project != null)
+				return project;
+		}
+		
 		try
 		{
-			Project project = new Project(instance);		
-			loadMainFile(instance, project);
-			loadRiskFile(instance, project);
+			ProjectBuilder builder = new ProjectBuilder(instance);		
+			loadMainFile(instance, builder);
+			loadRiskFile(instance, builder);
+			Project project = builder.build();
+			
+			if (useSnapshots)
+				saveSnapshot(snapshot, project);
+			
 			return project;
 		}
 		catch (Exception e)
@@ -43,30 +76,44 @@ public class RequirementReader
 	}
 	
 	/**
-	 * Gets the next line from the file
+	 * Saves the snapshot of a project, ignoring failures (the text files remain the reference)
 	 */
-	private String nextLine(Scanner scanner) throws Exception
+	private void saveSnapshot(ProjectSnapshot snapshot, Project project)
+	{
+		try
+		{
+			snapshot.write(project);
+		}
+		catch (IOException e)
+		{
+		}
+	}
+	
+	/**
+	 * Moves to the next line of the file
+	 */
+	private void nextLine(LineTokenizer tokenizer) throws Exception
 	{
 		lineCounter++;
-		return scanner.nextLine();
+		
+		if (!tokenizer.nextLine())
+			addError("Unexpected end of file");
 	}
 	
 	/**
 	 * Loads the main file containing an instance's requirements
 	 */
-	private void loadMainFile(Instance instance, Project project) throws Exception
+	private void loadMainFile(Instance instance, ProjectBuilder project) throws Exception
 	{
 		try
 		{
-			String filename = instance.getCategory().getDirectory() + "/" + instance.getName() + ".txt";
-			Scanner scanner = new Scanner(new FileInputStream(filename));
+			String filename = instance.getFilename();
+			LineTokenizer tokenizer = new LineTokenizer(filename);
 			this.lineCounter = 0;
 			
-			loadRequirements(scanner, project);		
-			loadRequirementDependencies(scanner, project);		
-			loadCustomers(scanner, project);
-			
-			scanner.close();
+			loadRequirements(tokenizer, project);		
+			loadRequirementDependencies(tokenizer, project);		
+			loadCustomers(tokenizer, project);
 		}
 		catch(IOException e)
 		{
@@ -77,48 +124,46 @@ public class RequirementReader
 	/**
 	 * Load data related to requirements
 	 */
-	private void loadRequirements(Scanner scanner, Project project) throws Exception
+	private void loadRequirements(LineTokenizer tokenizer, ProjectBuilder project) throws Exception
 	{
-		String line = nextLine(scanner);
-		int numberOfLevels = Integer.parseInt(line);
+		nextLine(tokenizer);
+		int numberOfLevels = tokenizer.nextInt();
 
 		for (int i = 0; i < numberOfLevels; i++)
 		{
-			line = nextLine(scanner);
-			int requirementsOnLevel = Integer.parseInt(line);
+			nextLine(tokenizer);
+			int requirementsOnLevel = tokenizer.nextInt();
 
-			line = nextLine(scanner);
-			String[] tokens = line.split(" ");
+			nextLine(tokenizer);
 			
-			if (requirementsOnLevel != tokens.length)
+			if (requirementsOnLevel != tokenizer.countTokens())
 				addError("Invalid number of cost items for level " + (i+1));
 
 			int count = project.getRequirementCount();
 			project.addRequirements(requirementsOnLevel);
 			
 			for (int j = 0; j < requirementsOnLevel; j++)
-				project.setRequirementCost(count + j, Integer.parseInt(tokens[j]));
+				project.setRequirementCost(count + j, tokenizer.nextInt());
 		}
 	}
 
 	/**
 	 * Loads data related to requirement dependencies
 	 */
-	private void loadRequirementDependencies(Scanner scanner, Project project) throws Exception
+	private void loadRequirementDependencies(LineTokenizer tokenizer, ProjectBuilder project) throws Exception
 	{
-		String line = nextLine(scanner);
-		int numberOfDependencies = Integer.parseInt(line);
+		nextLine(tokenizer);
+		int numberOfDependencies = tokenizer.nextInt();
 
 		for (int i = 0; i < numberOfDependencies; i++)
 		{
-			line = nextLine(scanner);
-			String[] tokens = line.split(" ");
+			nextLine(tokenizer);
 			
-			if (tokens.length != 2)
+			if (tokenizer.countTokens() != 2)
 				addError("Invalid format in dependency");
 
-			int source = Integer.parseInt(tokens[0]);
-			int target = Integer.parseInt(tokens[1]);
+			int source = tokenizer.nextInt();
+			int target = tokenizer.nextInt();
 			project.addRequirementDependency(source-1, target-1);
 		}
 	}
@@ -126,32 +171,32 @@ public class RequirementReader
 	/**
 	 * Loads data related to customers
 	 */
-	private void loadCustomers(Scanner scanner, Project project) throws Exception
+	private void loadCustomers(LineTokenizer tokenizer, ProjectBuilder project) throws Exception
 	{
-		String line = nextLine(scanner);
-		int numberOfCustomers = Integer.parseInt(line);
+		nextLine(tokenizer);
+		int numberOfCustomers = tokenizer.nextInt();
 		project.setCustomerCount(numberOfCustomers);
 
 		for (int i = 0; i < numberOfCustomers; i++)
 		{
-			line = nextLine(scanner);
-			String[] tokens = line.split(" ");
+			nextLine(tokenizer);
+			int tokenCount = tokenizer.countTokens();
 			
-			if (tokens.length <= 2)
+			if (tokenCount <= 2)
 				addError("Invalid format in customer - less than 3 fields");
 
-			int profit = Integer.parseInt(tokens[0]);
+			int profit = tokenizer.nextInt();
 			project.setCustomerProfit(i, profit);
 			
-			int requirementCount = Integer.parseInt(tokens[1]);
+			int requirementCount = tokenizer.nextInt();
 			
-			if (tokens.length != 2 + requirementCount)
+			if (tokenCount != 2 + requirementCount)
 				addError("Invalid format in customer - not enough requirement references");
 
 			int[] requirements = new int[requirementCount];
 			
 			for (int j = 0; j < requirementCount; j++)
-				requirements[j] = Integer.parseInt(tokens[j+2])-1;
+				requirements[j] = tokenizer.nextInt()-1;
 			
 			project.setCustomerRequirements(i, requirements);
 		}
@@ -160,22 +205,20 @@ public class RequirementReader
 	/**
 	 * Loads the risk file for a given instance
 	 */
-	private void loadRiskFile(Instance instance, Project project) throws Exception
+	private void loadRiskFile(Instance instance, ProjectBuilder project) throws Exception
 	{
-		String filename = instance.getCategory().getDirectory() + "/" + instance.getName() + "-risk.txt";
+		String filename = instance.getRiskFilename();
 		
 		if (!new File(filename).exists())
 			return;
 		
 		try
 		{
-			Scanner scanner = new Scanner(new FileInputStream(filename));
+			LineTokenizer tokenizer = new LineTokenizer(filename);
 			this.lineCounter = 0;
 			
-			loadRequirementCostEstimates(scanner, project);
-			loadCustomerProfitEstimates(scanner, project);		
-			
-			scanner.close();
+			loadRequirementCostEstimates(tokenizer, project);
+			loadCustomerProfitEstimates(tokenizer, project);
 		}
 		catch(IOException e)
 		{
@@ -186,25 +229,24 @@ public class RequirementReader
 	/**
 	 * Load data related to estimates of the cost of software requirements
 	 */
-	private void loadRequirementCostEstimates(Scanner scanner, Project project) throws Exception
+	private void loadRequirementCostEstimates(LineTokenizer tokenizer, ProjectBuilder project) throws Exception
 	{
-		String line = nextLine(scanner);
-		int numberOfRequirements = Integer.parseInt(line);
+		nextLine(tokenizer);
+		int numberOfRequirements = tokenizer.nextInt();
 		
 		if (numberOfRequirements != project.getRequirementCount())
 			addError("Requirements count different from instance on risk file");
 
 		for (int i = 0; i < numberOfRequirements; i++)
 		{
-			line = nextLine(scanner);
-			String[] tokens = line.split(" ");
+			nextLine(tokenizer);
 			
-			if (tokens.length != 3)
+			if (tokenizer.countTokens() != 3)
 				addError("Invalid number of columns on requirement estimates");
 			
-			int expectedCost = Integer.parseInt(tokens[0]);
-			double minimumCost = Double.parseDouble(tokens[1]);
-			double maximumCost = Double.parseDouble(tokens[2]);
+			int expectedCost = tokenizer.nextInt();
+			double minimumCost = tokenizer.nextDouble();
+			double maximumCost = tokenizer.nextDouble();
 			
 			if (expectedCost != project.getRequirementCost(i))
 				addError("Invalid expected cost for requirement #" + (i+1));
@@ -216,25 +258,24 @@ public class RequirementReader
 	/**
 	 * Load data related to estimates of the profit to be earned from customers
 	 */
-	private void loadCustomerProfitEstimates(Scanner scanner, Project project) throws Exception
+	private void loadCustomerProfitEstimates(LineTokenizer tokenizer, ProjectBuilder project) throws Exception
 	{
-		String line = nextLine(scanner);
-		int numberOfCustomers = Integer.parseInt(line);
+		nextLine(tokenizer);
+		int numberOfCustomers = tokenizer.nextInt();
 		
 		if (numberOfCustomers != project.getCustomerCount())
 			addError("Customer count different from instance on risk file");
 
 		for (int i = 0; i < numberOfCustomers; i++)
 		{
-			line = nextLine(scanner);
-			String[] tokens = line.split(" ");
+			nextLine(tokenizer);
 			
-			if (tokens.length != 3)
+			if (tokenizer.countTokens() != 3)
 				addError("Invalid number of columns on customer estimates");
 			
-			int expectedProfit = Integer.parseInt(tokens[0]);
-			double minimumProfit = Double.parseDouble(tokens[1]);
-			double maximumProfit = Double.parseDouble(tokens[2]);
+			int expectedProfit = tokenizer.nextInt();
+			double minimumProfit = tokenizer.nextDouble();
+			double maximumProfit = tokenizer.nextDouble();
 			
 			if (expectedProfit != project.getCustomerProfit(i))
 				addError("Invalid expected profit for customer #" + (i+1));
@@ -7,6 +7,27 @@ package br.unirio.visualnrp.support;
  */
 public class BetaPert
 {
+	/**
+	 * Random number generator used for sampling
+	 */
+	private PseudoRandom random;
+
+	/**
+	 * Initializes the sampler using a given random number generator
+	 */
+	public BetaPert(PseudoRandom random)
+	{
+		this.random = random;
+	}
+
+	/**
+	 * Initializes the sampler using the random number generator of the current thread
+	 */
+	public BetaPert()
+	{
+		this(PseudoRandom.current());
+	}
+
 	/**
 	 * Samples a gamma distribution
 	 */
@@ -18,7 +39,7 @@ public class BetaPert
 	    {
 	        do
 	        {
-	            y = Math.tan(Math.PI * PseudoRandom.randDouble());
+	            y = Math.tan(Math.PI * random.nextDouble());
 	            am = alfa - 1;
 	            s = Math.sqrt(2 * am + 1);
 	            x = s * y + am;
@@ -27,7 +48,7 @@ public class BetaPert
 	    
 	        e = (1 + y * y) * Math.exp(am * Math.log(x / am) - s * y);
 	        
-	    } while (PseudoRandom.randDouble() > e);
+	    } while (random.nextDouble() > e);
 	    
 	    return x;
 	}
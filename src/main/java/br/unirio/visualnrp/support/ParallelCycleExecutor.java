@@ -0,0 +1,88 @@
+package br.unirio.visualnrp.support;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Class that runs independent optimization cycles on a pool of worker threads,
+ * delivering their results to a single writer in cycle order
+ *
+ * @author marciobarros
+ */
+public class ParallelCycleExecutor
+{
+	/**
+	 * Number of worker threads
+	 */
+	private int workerCount;
+
+	/**
+	 * Initializes the executor
+	 */
+	public ParallelCycleExecutor(int workerCount)
+	{
+		this.workerCount = Math.max(workerCount, 1);
+	}
+
+	/**
+	 * Returns the number of worker threads
+	 */
+	public int getWorkerCount()
+	{
+		return workerCount;
+	}
+
+	/**
+	 * Runs all cycles, writing their results in cycle order
+	 */
+	public <T> void execute(List<Callable<T>> cycles, CycleWriter<T> writer) throws Exception
+	{
+		ExecutorService pool = Executors.newFixedThreadPool(Math.min(workerCount, Math.max(cycles.size(), 1)));
+
+		try
+		{
+			List<Future<T>> results = new ArrayList<Future<T>>(cycles.size());
+
+			for (Callable<T> cycle : cycles)
+				results.add(pool.submit(cycle));
+
+			for (int i = 0; i < results.size(); i++)
+				writer.write(i, getResult(results.get(i)));
+		}
+		finally
+		{
+			pool.shutdownNow();
+		}
+	}
+
+	/**
+	 * Waits for the result of a cycle, unwrapping the exception it may have raised
+	 */
+	private <T> T getResult(Future<T> result) throws Exception
+	{
+		try
+		{
+			return result.get();
+		}
+		catch (ExecutionException e)
+		{
+			if (e.getCause() instanceof Exception)
+				throw (Exception) e.getCause();
+
+			throw e;
+		}
+	}
+
+	/**
+	 * Interface for the writer that receives the results of the cycles, in cycle order
+	 */
+	public interface CycleWriter<T>
+	{
+		void write(int cycle, T result) throws Exception;
+	}
+}
@@ -3,19 +3,20 @@ package br.unirio.visualnrp.support;
 import java.util.Random;
 
 /**
- * This code has been taken from JMetal
+ * This code has been taken from JMetal. Instances are not synchronized: each thread must
+ * use its own generator, either created with a seed or split from another generator.
  */
 public class PseudoRandom
 {
 	private double seed;
 	private double[] oldrand = new double[55];
 	private int jrand;
-	private static PseudoRandom generator = null;
+	private static ThreadLocal<PseudoRandom> generator = new ThreadLocal<PseudoRandom>();
 
 	/**
 	 * Constructor without parameters
 	 */
-	private PseudoRandom()
+	public PseudoRandom()
 	{
 		this(System.nanoTime());
 	}
@@ -23,7 +24,7 @@ public class PseudoRandom
 	/**
 	 * Constructor with seed initialization
 	 */
-	private PseudoRandom(long seedSeed)
+	public PseudoRandom(long seedSeed)
 	{
 		this.seed = (new Random(seedSeed)).nextDouble();
 		this.randomize();
@@ -114,7 +115,7 @@ public class PseudoRandom
 	/**
 	 * Fetch a single random integer between low and high including the bounds 
 	 */
-	private synchronized int rnd(int low, int high)
+	private int rnd(int low, int high)
 	{
 		int res;
 		
@@ -136,17 +137,78 @@ public class PseudoRandom
 	/**
 	 * Fetch a single random real number between low and high including the bounds 
 	 */
-	private synchronized double rndreal(double low, double high)
+	private double rndreal(double low, double high)
 	{
 		return low + (high - low) * randomPercentile();
 	}
 	
 	/**
-	 * Initializes the generator using a given seed
+	 * Returns a random double value between 0.0 and 1.0
+	 */
+	public double nextDouble()
+	{
+		return rndreal(0.0, 1.0);
+	}
+
+	/**
+	 * Returns a random double value between a minimum bound and a maximum bound
+	 */
+	public double nextDouble(double minBound, double maxBound)
+	{
+		return rndreal(minBound, maxBound);
+	}
+
+	/**
+	 * Returns a random integer value between a minimum bound and maximum bound, including the bounds
+	 */
+	public int nextInt(int minBound, int maxBound)
+	{
+		return rnd(minBound, maxBound);
+	}
+
+	/**
+	 * Returns a seed for an independent generator, drawn from this generator
+	 */
+	public long nextSeed()
+	{
+		long high = (long) (randomPercentile() * 4294967296.0);
+		long low = (long) (randomPercentile() * 4294967296.0);
+		long z = (high << 32) ^ low;
+		z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+		z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+		return z ^ (z >>> 31);
+	}
+
+	/**
+	 * Splits the generator, creating an independent substream seeded from its current state
+	 */
+	public PseudoRandom split()
+	{
+		return new PseudoRandom(nextSeed());
+	}
+
+	/**
+	 * Initializes the generator of the current thread using a given seed
 	 */
 	public static void init(long seed)
 	{
-		generator = new PseudoRandom(seed);
+		generator.set(new PseudoRandom(seed));
+	}
+
+	/**
+	 * Returns the generator of the current thread, creating it if required
+	 */
+	public static PseudoRandom current()
+	{
+		PseudoRandom current = generator.get();
+		
+		if (current == null)
+		{
+			current = new PseudoRandom();
+			generator.set(current);
+		}
+		
+		return current;
 	}
 
 	/**
@@ -154,10 +216,7 @@ public class PseudoRandom
 	 */
 	public static double randDouble()
 	{
-		if (generator == null)
-			generator = new PseudoRandom();
-
-		return generator.rndreal(0.0, 1.0);
+		return current().nextDouble();
 	}
 
 	/**
@@ -165,10 +224,7 @@ public class PseudoRandom
 	 */
 	public static int randInt(int minBound, int maxBound)
 	{
-		if (generator == null)
-			generator = new PseudoRandom();
-
-		return generator.rnd(minBound, maxBound);
+		return current().nextInt(minBound, maxBound);
 	}
 
 	/**
@@ -176,9 +232,14 @@ public class PseudoRandom
 	 */
 	public static double randDouble(double minBound, double maxBound)
 	{
-		if (generator == null)
-			generator = new PseudoRandom();
+		return current().nextDouble(minBound, maxBound);
+	}
 
-		return generator.rndreal(minBound, maxBound);
+	/**
+	 * Returns a seed for an independent generator, drawn from the generator of the current thread
+	 */
+	public static long randSeed()
+	{
+		return current().nextSeed();
 	}
 }
\ No newline at end of file
@@ -0,0 +1,191 @@
+package br.unirio.visualnrp.support;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Class that estimates the quantiles of a stream of values in bounded memory. Values are kept in
+ * levels of at most a given capacity, each value in level h standing for 2^h values of the stream.
+ * When a level is full, it is sorted and every other value is promoted to the next level, alternating
+ * the first value promoted to avoid bias. Quantiles are exact while fewer values than the capacity
+ * have been added. Instances are not synchronized.
+ *
+ * @author marciobarros
+ */
+public class QuantileSketch
+{
+	/**
+	 * Default number of values kept per level
+	 */
+	public static final int DEFAULT_CAPACITY = 128;
+
+	private int capacity;
+	private List<Level> levels;
+	private long count;
+
+	/**
+	 * Initializes the sketch, given the number of values kept per level
+	 */
+	public QuantileSketch(int capacity)
+	{
+		this.capacity = Math.max(capacity, 2);
+		this.levels = new ArrayList<Level>();
+		this.count = 0;
+	}
+
+	/**
+	 * Initializes the sketch with the default number of values kept per level
+	 */
+	public QuantileSketch()
+	{
+		this(DEFAULT_CAPACITY);
+	}
+
+	/**
+	 * Returns the number of values added to the sketch
+	 */
+	public long getCount()
+	{
+		return count;
+	}
+
+	/**
+	 * Adds a value to the sketch
+	 */
+	public void add(double value)
+	{
+		getLevel(0).add(value);
+		count++;
+		compress();
+	}
+
+	/**
+	 * Returns the smallest value whose rank reaches a given fraction of the values (nearest rank), or NaN if the sketch is empty
+	 */
+	public double getQuantile(double fraction)
+	{
+		if (count == 0)
+			return Double.NaN;
+
+		int size = 0;
+
+		for (Level level : levels)
+			size += level.size;
+
+		final double[] values = new double[size];
+		long[] weights = new long[size];
+		Integer[] order = new Integer[size];
+		int position = 0;
+
+		for (int h = 0; h < levels.size(); h++)
+		{
+			Level level = levels.get(h);
+
+			for (int i = 0; i < level.size; i++)
+			{
+				values[position] = level.items[i];
+				weights[position] = 1L << h;
+				order[position] = position;
+				position++;
+			}
+		}
+
+		Arrays.sort(order, new Comparator<Integer>()
+		{
+			@Override
+			public int compare(Integer a, Integer b)
+			{
+				return Double.compare(values[a], values[b]);
+			}
+		});
+
+		long rank = Math.max((long) Math.ceil(fraction * count), 1);
+		long cumulative = 0;
+
+		for (int i = 0; i < size; i++)
+		{
+			cumulative += weights[order[i]];
+
+			if (cumulative >= rank)
+				return values[order[i]];
+		}
+
+		return values[order[size - 1]];
+	}
+
+	/**
+	 * Returns a level of the sketch, creating it if required
+	 */
+	private Level getLevel(int h)
+	{
+		while (levels.size() <= h)
+			levels.add(new Level(capacity));
+
+		return levels.get(h);
+	}
+
+	/**
+	 * Compacts the levels that reached their capacity, from the lowest to the highest
+	 */
+	private void compress()
+	{
+		for (int h = 0; h < levels.size(); h++)
+		{
+			Level level = levels.get(h);
+
+			if (level.size >= capacity)
+				level.compact(getLevel(h + 1));
+		}
+	}
+
+	/**
+	 * Class that represents the values kept in a level of the sketch
+	 */
+	private static class Level
+	{
+		private double[] items;
+		private int size;
+		private boolean promoteOdd;
+
+		public Level(int capacity)
+		{
+			this.items = new double[capacity];
+			this.size = 0;
+			this.promoteOdd = false;
+		}
+
+		public void add(double value)
+		{
+			if (size == items.length)
+				items = Arrays.copyOf(items, 2 * items.length);
+
+			items[size++] = value;
+		}
+
+		/**
+		 * Promotes every other value to the next level, keeping the largest one if their number is odd
+		 */
+		public void compact(Level next)
+		{
+			Arrays.sort(items, 0, size);
+			int pairs = size / 2;
+
+			for (int i = 0; i < pairs; i++)
+				next.add(items[2 * i + (promoteOdd ? 1 : 0)]);
+
+			promoteOdd = !promoteOdd;
+
+			if (size % 2 == 1)
+			{
+				items[0] = items[size - 1];
+				size = 1;
+			}
+			else
+			{
+				size = 0;
+			}
+		}
+	}
+}
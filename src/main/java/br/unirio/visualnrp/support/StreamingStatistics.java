@@ -0,0 +1,92 @@
+package br.unirio.visualnrp.support;
+
+/**
+ * Class that summarizes a stream of values without keeping them: count, mean and variance (by
+ * Welford's method), minimum, maximum and approximate quantiles. Instances are not synchronized.
+ *
+ * @author marciobarros
+ */
+public class StreamingStatistics
+{
+	private long count;
+	private double mean;
+	private double squaredDeviations;
+	private double minimum;
+	private double maximum;
+	private QuantileSketch sketch;
+
+	/**
+	 * Initializes an empty summary
+	 */
+	public StreamingStatistics()
+	{
+		this.count = 0;
+		this.mean = 0.0;
+		this.squaredDeviations = 0.0;
+		this.minimum = Double.NaN;
+		this.maximum = Double.NaN;
+		this.sketch = new QuantileSketch();
+	}
+
+	/**
+	 * Adds a value to the summary
+	 */
+	public void add(double value)
+	{
+		count++;
+		double delta = value - mean;
+		mean += delta / count;
+		squaredDeviations += delta * (value - mean);
+		minimum = (count == 1) ? value : Math.min(minimum, value);
+		maximum = (count == 1) ? value : Math.max(maximum, value);
+		sketch.add(value);
+	}
+
+	/**
+	 * Returns the number of values
+	 */
+	public long getCount()
+	{
+		return count;
+	}
+
+	/**
+	 * Returns the mean of the values
+	 */
+	public double getMean()
+	{
+		return (count == 0) ? Double.NaN : mean;
+	}
+
+	/**
+	 * Returns the sample variance of the values
+	 */
+	public double getVariance()
+	{
+		return (count < 2) ? 0.0 : squaredDeviations / (count - 1);
+	}
+
+	/**
+	 * Returns the smallest value
+	 */
+	public double getMinimum()
+	{
+		return minimum;
+	}
+
+	/**
+	 * Returns the largest value
+	 */
+	public double getMaximum()
+	{
+		return maximum;
+	}
+
+	/**
+	 * Returns the approximate quantile of the values for a given fraction (0 to 1)
+	 */
+	public double getQuantile(double fraction)
+	{
+		return sketch.getQuantile(fraction);
+	}
+}
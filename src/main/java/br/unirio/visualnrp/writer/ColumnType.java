@@ -0,0 +1,29 @@
+package br.unirio.visualnrp.writer;
+
+/**
+ * Enumeration of the types of the columns of a result file
+ *
+ * @author marciobarros
+ */
+public enum ColumnType
+{
+	/**
+	 * Integer values (int or long), delta-encoded in columnar files
+	 */
+	INTEGER,
+
+	/**
+	 * Double values, encoded as the bits that differ from the previous value in columnar files
+	 */
+	DOUBLE,
+
+	/**
+	 * Text values, dictionary-encoded in columnar files
+	 */
+	STRING,
+
+	/**
+	 * Selections of customers (boolean arrays), bit-packed in columnar files
+	 */
+	SOLUTION
+}
@@ -0,0 +1,144 @@
+package br.unirio.visualnrp.writer;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.Charset;
+
+/**
+ * Class that holds the layout of columnar result files and the primitives used to encode them.
+ * A file starts with a magic number, a version and the names and types of its columns. It is
+ * followed by blocks of up to BLOCK_ROWS rows, each holding the row count and the encoded bytes of
+ * each column, and ends with an empty block. Columns are encoded independently in each block:
+ * integers as zig-zag deltas from the previous value, doubles as the bits that differ from the
+ * previous value (reversed, so that the trailing zeros of short mantissas become leading zeros),
+ * strings as indexes into a dictionary built along the block, and solutions as bit sets. Numbers
+ * are written as variable-length integers. A file may be compressed as a whole with gzip.
+ *
+ * @author marciobarros
+ */
+public class ColumnarFormat
+{
+	/**
+	 * Magic number found at the beginning of columnar result files
+	 */
+	public static final byte[] MAGIC = { 'V', 'N', 'R', 'C' };
+
+	/**
+	 * Version of the format
+	 */
+	public static final int VERSION = 1;
+
+	/**
+	 * Maximum number of rows per block
+	 */
+	public static final int BLOCK_ROWS = 4096;
+
+	/**
+	 * Extension of columnar result files
+	 */
+	public static final String EXTENSION = ".vnrc";
+
+	/**
+	 * Extension of compressed result files
+	 */
+	public static final String COMPRESSED_EXTENSION = ".gz";
+
+	/**
+	 * Character set used by column names and string values
+	 */
+	public static final Charset CHARSET = Charset.forName("UTF-8");
+
+	/**
+	 * Writes a non-negative number as a variable-length integer, seven bits per byte
+	 */
+	public static void writeVarLong(OutputStream out, long value) throws IOException
+	{
+		while ((value & ~0x7FL) != 0)
+		{
+			out.write((int) ((value & 0x7F) | 0x80));
+			value >>>= 7;
+		}
+
+		out.write((int) value);
+	}
+
+	/**
+	 * Reads a variable-length integer
+	 */
+	public static long readVarLong(InputStream in) throws IOException
+	{
+		long value = 0;
+		int shift = 0;
+
+		while (true)
+		{
+			int b = in.read();
+
+			if (b < 0)
+				throw new EOFException("Unexpected end of columnar result file.");
+
+			value |= (long) (b & 0x7F) << shift;
+
+			if ((b & 0x80) == 0)
+				return value;
+
+			shift += 7;
+		}
+	}
+
+	/**
+	 * Maps signed numbers to non-negative ones, so that small magnitudes use few bytes
+	 */
+	public static long encodeZigZag(long value)
+	{
+		return (value << 1) ^ (value >> 63);
+	}
+
+	/**
+	 * Maps back a number encoded by encodeZigZag
+	 */
+	public static long decodeZigZag(long value)
+	{
+		return (value >>> 1) ^ -(value & 1);
+	}
+
+	/**
+	 * Writes a string, preceded by its length in bytes
+	 */
+	public static void writeString(OutputStream out, String value) throws IOException
+	{
+		byte[] bytes = value.getBytes(CHARSET);
+		writeVarLong(out, bytes.length);
+		out.write(bytes);
+	}
+
+	/**
+	 * Reads a string written by writeString
+	 */
+	public static String readString(InputStream in) throws IOException
+	{
+		byte[] bytes = new byte[(int) readVarLong(in)];
+		readFully(in, bytes);
+		return new String(bytes, CHARSET);
+	}
+
+	/**
+	 * Reads exactly the number of bytes required to fill an array
+	 */
+	public static void readFully(InputStream in, byte[] bytes) throws IOException
+	{
+		int position = 0;
+
+		while (position < bytes.length)
+		{
+			int count = in.read(bytes, position, bytes.length - position);
+
+			if (count < 0)
+				throw new EOFException("Unexpected end of columnar result file.");
+
+			position += count;
+		}
+	}
+}
@@ -0,0 +1,225 @@
+package br.unirio.visualnrp.writer;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Class that writes result rows to a columnar binary file, in the layout described by ColumnarFormat.
+ * Rows are kept column by column until a block is complete, and then the block is written.
+ *
+ * @author marciobarros
+ */
+public class ColumnarResultSink implements ResultSink
+{
+	private OutputStream out;
+	private ColumnEncoder[] encoders;
+	private int rowCount;
+
+	/**
+	 * Initializes the sink, writing the header of the file
+	 */
+	public ColumnarResultSink(OutputStream out, ResultColumn[] columns) throws IOException
+	{
+		this.out = out;
+		this.encoders = new ColumnEncoder[columns.length];
+		this.rowCount = 0;
+
+		out.write(ColumnarFormat.MAGIC);
+		out.write(ColumnarFormat.VERSION);
+		ColumnarFormat.writeVarLong(out, columns.length);
+
+		for (int i = 0; i < columns.length; i++)
+		{
+			ColumnarFormat.writeString(out, columns[i].getName());
+			out.write(columns[i].getType().ordinal());
+			encoders[i] = createEncoder(columns[i].getType());
+		}
+	}
+
+	/**
+	 * Creates the encoder for a type of column
+	 */
+	private static ColumnEncoder createEncoder(ColumnType type)
+	{
+		switch (type)
+		{
+			case INTEGER:
+				return new IntegerEncoder();
+
+			case DOUBLE:
+				return new DoubleEncoder();
+
+			case STRING:
+				return new StringEncoder();
+
+			default:
+				return new SolutionEncoder();
+		}
+	}
+
+	/**
+	 * Writes a row, with one value per column
+	 */
+	@Override
+	public void writeRow(Object... values) throws IOException
+	{
+		for (int i = 0; i < encoders.length; i++)
+			encoders[i].write(values[i]);
+
+		if (++rowCount == ColumnarFormat.BLOCK_ROWS)
+			writeBlock();
+	}
+
+	/**
+	 * Writes the rows of the current block
+	 */
+	private void writeBlock() throws IOException
+	{
+		ColumnarFormat.writeVarLong(out, rowCount);
+
+		for (ColumnEncoder encoder : encoders)
+		{
+			ColumnarFormat.writeVarLong(out, encoder.bytes.size());
+			encoder.bytes.writeTo(out);
+			encoder.reset();
+		}
+
+		rowCount = 0;
+	}
+
+	/**
+	 * Writes the pending rows and the end of the file, and closes the destination
+	 */
+	@Override
+	public void close() throws IOException
+	{
+		if (rowCount > 0)
+			writeBlock();
+
+		ColumnarFormat.writeVarLong(out, 0);
+		out.close();
+	}
+
+	/**
+	 * Class that keeps the encoded values of a column in the current block
+	 */
+	private static abstract class ColumnEncoder
+	{
+		protected ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+
+		public abstract void write(Object value) throws IOException;
+
+		public void reset()
+		{
+			bytes.reset();
+		}
+	}
+
+	/**
+	 * Class that encodes integers as zig-zag deltas from the previous value
+	 */
+	private static class IntegerEncoder extends ColumnEncoder
+	{
+		private long previous = 0;
+
+		@Override
+		public void write(Object value) throws IOException
+		{
+			long current = ((Number) value).longValue();
+			ColumnarFormat.writeVarLong(bytes, ColumnarFormat.encodeZigZag(current - previous));
+			previous = current;
+		}
+
+		@Override
+		public void reset()
+		{
+			super.reset();
+			previous = 0;
+		}
+	}
+
+	/**
+	 * Class that encodes doubles as the reversed bits that differ from the previous value
+	 */
+	private static class DoubleEncoder extends ColumnEncoder
+	{
+		private long previous = 0;
+
+		@Override
+		public void write(Object value) throws IOException
+		{
+			long current = Double.doubleToRawLongBits((Double) value);
+			ColumnarFormat.writeVarLong(bytes, Long.reverse(current ^ previous));
+			previous = current;
+		}
+
+		@Override
+		public void reset()
+		{
+			super.reset();
+			previous = 0;
+		}
+	}
+
+	/**
+	 * Class that encodes strings as indexes into a dictionary: zero for null, one plus the position
+	 * of a known string, or the size of the dictionary plus one followed by a new string
+	 */
+	private static class StringEncoder extends ColumnEncoder
+	{
+		private Map<String, Integer> dictionary = new HashMap<String, Integer>();
+
+		@Override
+		public void write(Object value) throws IOException
+		{
+			if (value == null)
+			{
+				ColumnarFormat.writeVarLong(bytes, 0);
+				return;
+			}
+
+			String text = (String) value;
+			Integer position = dictionary.get(text);
+
+			if (position != null)
+			{
+				ColumnarFormat.writeVarLong(bytes, position + 1);
+				return;
+			}
+
+			ColumnarFormat.writeVarLong(bytes, dictionary.size() + 1);
+			ColumnarFormat.writeString(bytes, text);
+			dictionary.put(text, dictionary.size());
+		}
+
+		@Override
+		public void reset()
+		{
+			super.reset();
+			dictionary.clear();
+		}
+	}
+
+	/**
+	 * Class that encodes solutions as their number of customers followed by a bit per customer
+	 */
+	private static class SolutionEncoder extends ColumnEncoder
+	{
+		@Override
+		public void write(Object value) throws IOException
+		{
+			boolean[] solution = (boolean[]) value;
+			byte[] packed = new byte[(solution.length + 7) / 8];
+
+			for (int i = 0; i < solution.length; i++)
+				if (solution[i])
+					packed[i >> 3] |= 1 << (i & 7);
+
+			ColumnarFormat.writeVarLong(bytes, solution.length);
+			bytes.write(packed);
+		}
+	}
+}
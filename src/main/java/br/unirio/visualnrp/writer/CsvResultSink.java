@@ -0,0 +1,78 @@
+package br.unirio.visualnrp.writer;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.Writer;
+
+import br.unirio.visualnrp.algorithm.search.Solution;
+
+/**
+ * Class that writes result rows as comma-separated text, with a header holding the names of the columns
+ *
+ * @author marciobarros
+ */
+public class CsvResultSink implements ResultSink
+{
+	private PrintWriter out;
+	private ResultColumn[] columns;
+
+	/**
+	 * Initializes the sink, writing the header
+	 */
+	public CsvResultSink(Writer writer, ResultColumn[] columns)
+	{
+		this.out = new PrintWriter(writer);
+		this.columns = columns;
+
+		StringBuilder header = new StringBuilder();
+
+		for (int i = 0; i < columns.length; i++)
+		{
+			if (i > 0)
+				header.append(',');
+
+			header.append(columns[i].getName());
+		}
+
+		out.println(header.toString());
+	}
+
+	/**
+	 * Writes a row, with one value per column
+	 */
+	@Override
+	public void writeRow(Object... values)
+	{
+		StringBuilder sb = new StringBuilder();
+
+		for (int i = 0; i < columns.length; i++)
+		{
+			if (i > 0)
+				sb.append(',');
+
+			if (columns[i].getType() == ColumnType.SOLUTION)
+				sb.append(Solution.printSolution((boolean[]) values[i]));
+			else
+				sb.append(values[i]);
+		}
+
+		out.println(sb.toString());
+	}
+
+	/**
+	 * Writes rows already formatted as text, each one ended by a line separator
+	 */
+	public void writeFormattedRows(String rows)
+	{
+		out.write(rows);
+	}
+
+	/**
+	 * Closes the destination
+	 */
+	@Override
+	public void close() throws IOException
+	{
+		out.close();
+	}
+}
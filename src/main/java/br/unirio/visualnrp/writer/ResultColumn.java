@@ -0,0 +1,37 @@
+package br.unirio.visualnrp.writer;
+
+/**
+ * Class that represents a column of a result file
+ *
+ * @author marciobarros
+ */
+public class ResultColumn
+{
+	private String name;
+	private ColumnType type;
+
+	/**
+	 * Initializes the column
+	 */
+	public ResultColumn(String name, ColumnType type)
+	{
+		this.name = name;
+		this.type = type;
+	}
+
+	/**
+	 * Returns the name of the column
+	 */
+	public String getName()
+	{
+		return name;
+	}
+
+	/**
+	 * Returns the type of the column
+	 */
+	public ColumnType getType()
+	{
+		return type;
+	}
+}
@@ -0,0 +1,23 @@
+package br.unirio.visualnrp.writer;
+
+import java.io.IOException;
+
+/**
+ * Interface for the destinations of the rows produced by the optimizers and landscape reports.
+ * Each row has one value per column: Integer or Long for INTEGER columns, Double for DOUBLE
+ * columns, String for STRING columns and boolean[] for SOLUTION columns.
+ *
+ * @author marciobarros
+ */
+public interface ResultSink
+{
+	/**
+	 * Writes a row, with one value per column
+	 */
+	void writeRow(Object... values) throws IOException;
+
+	/**
+	 * Writes the pending rows and closes the destination
+	 */
+	void close() throws IOException;
+}
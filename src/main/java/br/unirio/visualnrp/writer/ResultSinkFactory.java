@@ -0,0 +1,44 @@
+package br.unirio.visualnrp.writer;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Class that creates the result sink for an output file, choosing the format by its extension:
+ * files ending in ".vnrc" are columnar and any other file is comma-separated text. An additional
+ * ".gz" extension compresses the file with gzip (such as "output.vnrc.gz" or "output.txt.gz").
+ *
+ * @author marciobarros
+ */
+public class ResultSinkFactory
+{
+	/**
+	 * Creates the result sink for a file, given its columns
+	 */
+	public static ResultSink create(String filename, ResultColumn[] columns) throws IOException
+	{
+		File file = new File(filename);
+
+		if (file.getParentFile() != null)
+			file.getParentFile().mkdirs();
+
+		OutputStream out = new BufferedOutputStream(new FileOutputStream(file));
+		String name = filename;
+
+		if (name.endsWith(ColumnarFormat.COMPRESSED_EXTENSION))
+		{
+			out = new GZIPOutputStream(out, 65536);
+			name = name.substring(0, name.length() - ColumnarFormat.COMPRESSED_EXTENSION.length());
+		}
+
+		if (name.endsWith(ColumnarFormat.EXTENSION))
+			return new ColumnarResultSink(out, columns);
+
+		return new CsvResultSink(new OutputStreamWriter(out), columns);
+	}
+}
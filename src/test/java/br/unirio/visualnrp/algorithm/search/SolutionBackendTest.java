@@ -0,0 +1,129 @@
+package br.unirio.visualnrp.algorithm.search;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+
+import org.junit.Test;
+
+import br.unirio.visualnrp.model.Instance;
+import br.unirio.visualnrp.model.Project;
+import br.unirio.visualnrp.model.ProjectBuilder;
+import br.unirio.visualnrp.support.PseudoRandom;
+
+/**
+ * Tests that the requirement accounting backends agree on the values of the solutions
+ * 
+ * @author marciobarros
+ */
+public class SolutionBackendTest
+{
+	private static final int REQUIREMENTS = 40;
+	private static final int CUSTOMERS = 30;
+	private static final int STEPS = 2000;
+
+	/**
+	 * Risks are sums of doubles taken in different orders by each backend, so they may differ in the last bits
+	 */
+	private static final double RISK_TOLERANCE = 1e-9;
+
+	/**
+	 * Creates a random project with shared requirements, dependencies and cost and profit estimates
+	 */
+	private static Project createProject(PseudoRandom random)
+	{
+		ProjectBuilder builder = new ProjectBuilder(Instance.NRP1);
+		builder.addRequirements(REQUIREMENTS);
+
+		for (int i = 0; i < REQUIREMENTS; i++)
+		{
+			int cost = random.nextInt(1, 20);
+			builder.setRequirementCost(i, cost);
+			builder.setRequirementCostEstimates(i, cost * random.nextDouble(0.5, 1.0), cost * random.nextDouble(1.0, 2.0));
+
+			if (i > 0 && random.nextDouble() < 0.5)
+				builder.addRequirementDependency(random.nextInt(0, i - 1), i);
+		}
+
+		builder.setCustomerCount(CUSTOMERS);
+
+		for (int i = 0; i < CUSTOMERS; i++)
+		{
+			int profit = random.nextInt(1, 50);
+			builder.setCustomerProfit(i, profit);
+			builder.setCustomerProfitEstimates(i, profit * random.nextDouble(0.5, 1.0), profit * random.nextDouble(1.0, 2.0));
+
+			int[] requirements = new int[random.nextInt(1, 4)];
+
+			for (int j = 0; j < requirements.length; j++)
+				requirements[j] = random.nextInt(0, REQUIREMENTS - 1);
+
+			builder.setCustomerRequirements(i, requirements);
+		}
+
+		return builder.build();
+	}
+
+	/**
+	 * Checks that two solutions hold the same customers and values, risks within the tolerance
+	 */
+	private static void assertSameValues(String message, Solution expected, Solution actual)
+	{
+		assertTrue(message, Arrays.equals(expected.getSolution(), actual.getSolution()));
+		assertEquals(message, expected.getCost(), actual.getCost());
+		assertEquals(message, expected.getProfit(), actual.getProfit());
+		assertEquals(message, expected.getCostRisk(), actual.getCostRisk(), RISK_TOLERANCE);
+		assertEquals(message, expected.getProfitRisk(), actual.getProfitRisk(), RISK_TOLERANCE);
+		assertEquals(message, expected.getWorstCost(), actual.getWorstCost(), RISK_TOLERANCE);
+	}
+
+	/**
+	 * Applies the same random flips and selections to a solution under each backend, comparing them after every change
+	 */
+	private static void checkBackends(long seed)
+	{
+		PseudoRandom random = new PseudoRandom(seed);
+		Project project = createProject(random);
+		Solution counter = new Solution(project, SolutionBackend.COUNTER);
+		Solution bitset = new Solution(project, SolutionBackend.BITSET);
+		assertSameValues("empty solution", counter, bitset);
+
+		for (int step = 0; step < STEPS; step++)
+		{
+			String message = "seed " + seed + ", step " + step;
+
+			if (step % 50 == 0)
+			{
+				boolean[] selection = new boolean[CUSTOMERS];
+				double density = random.nextDouble();
+
+				for (int i = 0; i < CUSTOMERS; i++)
+					selection[i] = random.nextDouble() < density;
+
+				counter.setAllCustomers(selection);
+				bitset.setAllCustomers(selection);
+			}
+			else
+			{
+				int customer = random.nextInt(0, CUSTOMERS - 1);
+				assertEquals(message, counter.getFlippedCost(customer), bitset.getFlippedCost(customer));
+				assertEquals(message, counter.getFlippedProfit(customer), bitset.getFlippedProfit(customer));
+				assertEquals(message, counter.getFlippedCostRisk(customer), bitset.getFlippedCostRisk(customer), RISK_TOLERANCE);
+				assertEquals(message, counter.getFlippedWorstCost(customer), bitset.getFlippedWorstCost(customer), RISK_TOLERANCE);
+
+				counter.flipCustomer(customer);
+				bitset.flipCustomer(customer);
+			}
+
+			assertSameValues(message, counter, bitset);
+		}
+	}
+
+	@Test
+	public void testBackendsAgree()
+	{
+		for (long seed = 1; seed <= 10; seed++)
+			checkBackends(seed);
+	}
+}
@@ -0,0 +1,152 @@
+package br.unirio.visualnrp.calc.fitness;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import br.unirio.visualnrp.algorithm.search.Solution;
+import br.unirio.visualnrp.algorithm.search.SolutionBackend;
+import br.unirio.visualnrp.model.Instance;
+import br.unirio.visualnrp.model.Project;
+import br.unirio.visualnrp.model.ProjectBuilder;
+import br.unirio.visualnrp.support.PseudoRandom;
+
+/**
+ * Tests that the delta evaluation of a flip matches flipping the customer, evaluating the
+ * solution and flipping the customer back, for every fitness calculator
+ * 
+ * @author marciobarros
+ */
+public class DeltaEvaluationTest
+{
+	private static final int REQUIREMENTS = 16;
+	private static final int CUSTOMERS = 12;
+	private static final int STEPS = 300;
+	private static final double TOLERANCE = 1e-9;
+
+	/**
+	 * Creates a random project with requirement dependencies and cost and profit estimates
+	 */
+	private static Project createProject(PseudoRandom random)
+	{
+		ProjectBuilder builder = new ProjectBuilder(Instance.NRP1);
+		builder.addRequirements(REQUIREMENTS);
+
+		for (int i = 0; i < REQUIREMENTS; i++)
+		{
+			int cost = random.nextInt(1, 20);
+			builder.setRequirementCost(i, cost);
+			builder.setRequirementCostEstimates(i, cost * random.nextDouble(0.5, 1.0), cost * random.nextDouble(1.0, 2.0));
+
+			if (i > 0 && random.nextDouble() < 0.4)
+				builder.addRequirementDependency(random.nextInt(0, i - 1), i);
+		}
+
+		builder.setCustomerCount(CUSTOMERS);
+
+		for (int i = 0; i < CUSTOMERS; i++)
+		{
+			int profit = random.nextInt(1, 50);
+			builder.setCustomerProfit(i, profit);
+			builder.setCustomerProfitEstimates(i, profit * random.nextDouble(0.5, 1.0), profit * random.nextDouble(1.0, 2.0));
+
+			int[] requirements = new int[random.nextInt(1, 3)];
+
+			for (int j = 0; j < requirements.length; j++)
+				requirements[j] = random.nextInt(0, REQUIREMENTS - 1);
+
+			builder.setCustomerRequirements(i, requirements);
+		}
+
+		return builder.build();
+	}
+
+	/**
+	 * Creates the calculators under test, with a budget that some flips exceed
+	 */
+	private static IFitnessCalculator[] createCalculators(Project project)
+	{
+		double budget = 0.4 * project.getTotalCost();
+		int maximumProfit = project.getTotalProfit();
+
+		return new IFitnessCalculator[]
+		{
+			new ProfitFitnessCalculator(project, budget),
+			new CostRiskFitnessCalculator(project, budget, 30, maximumProfit, project.getTotalCostRisk()),
+			new CostCapFitnessCalculator(project, budget, 30),
+			new ProfitRiskFitnessCalculator(project, budget, 30, maximumProfit, project.getTotalProfitRisk()),
+			new CostRiskOnlyFitnessCalculator(project, budget),
+			new ProfitRiskOnlyFitnessCalculator(project, budget)
+		};
+	}
+
+	/**
+	 * Walks randomly over the solutions of a project, comparing the delta evaluation of every flip
+	 * with the evaluation of the flipped solution, and counts the kinds of flips checked
+	 */
+	private static void checkDeltaEvaluation(SolutionBackend backend, long seed)
+	{
+		PseudoRandom random = new PseudoRandom(seed);
+		Project project = createProject(random);
+		IFitnessCalculator[] calculators = createCalculators(project);
+		Solution solution = new Solution(project, backend);
+		double budget = calculators[0].getAvailableBudget();
+		int additions = 0;
+		int removals = 0;
+		int overBudget = 0;
+
+		for (int step = 0; step < STEPS; step++)
+		{
+			for (int customer = 0; customer < CUSTOMERS; customer++)
+			{
+				int flippedCost = solution.getFlippedCost(customer);
+
+				if (solution.isCustomerAttended(customer))
+					removals++;
+				else
+					additions++;
+
+				if (flippedCost > budget)
+					overBudget++;
+
+				for (IFitnessCalculator calculator : calculators)
+				{
+					double delta = calculator.deltaEvaluate(solution, customer);
+					double costDelta = calculator.deltaEvaluate(solution, customer, flippedCost);
+					double current = calculator.evaluate(solution);
+
+					solution.flipCustomer(customer);
+					double expected = calculator.evaluate(solution);
+					assertEquals(flippedCost, solution.getCost());
+					solution.flipCustomer(customer);
+
+					String message = calculator.getClass().getSimpleName() + " flipping customer " + customer + " at step " + step;
+					assertEquals(message, expected, delta, TOLERANCE);
+					assertEquals(message, expected, costDelta, TOLERANCE);
+					assertEquals(message, current, calculator.evaluate(solution), TOLERANCE);
+				}
+			}
+
+			solution.flipCustomer(random.nextInt(0, CUSTOMERS - 1));
+		}
+
+		assertTrue(additions > 0);
+		assertTrue(removals > 0);
+		assertTrue(overBudget > 0);
+	}
+
+	@Test
+	public void testCounterBackend()
+	{
+		for (long seed = 1; seed <= 5; seed++)
+			checkDeltaEvaluation(SolutionBackend.COUNTER, seed);
+	}
+
+	@Test
+	public void testBitsetBackend()
+	{
+		for (long seed = 1; seed <= 5; seed++)
+			checkDeltaEvaluation(SolutionBackend.BITSET, seed);
+	}
+}
@@ -0,0 +1,85 @@
+package br.unirio.visualnrp.calc.landscape;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+import br.unirio.visualnrp.model.Instance;
+import br.unirio.visualnrp.model.Project;
+import br.unirio.visualnrp.model.ProjectBuilder;
+import br.unirio.visualnrp.support.PseudoRandom;
+
+/**
+ * Tests for the landscape sample pool, around the number of sampling blocks
+ * 
+ * @author marciobarros
+ */
+public class LandscapeSamplePoolTest
+{
+	private static final int SAMPLES_PER_CUSTOMER = 10;
+
+	/**
+	 * Creates a project in which each customer asks for its own requirement and has unit profit, so that
+	 * the profit of a sample is the number of customers it attends
+	 */
+	private static Project createProject(int customerCount)
+	{
+		ProjectBuilder builder = new ProjectBuilder(Instance.NRP1);
+		builder.addRequirements(customerCount);
+		builder.setCustomerCount(customerCount);
+
+		for (int i = 0; i < customerCount; i++)
+		{
+			builder.setRequirementCost(i, i + 1);
+			builder.setCustomerProfit(i, 1);
+			builder.setCustomerRequirements(i, new int[] { i });
+		}
+
+		return builder.build();
+	}
+
+	/**
+	 * Samples a project with a given number of customers, checking that each sample is placed with its number of customers
+	 */
+	private static void checkPool(int customerCount, int workerCount) throws Exception
+	{
+		LandscapeSamplePool pool = new LandscapeSamplePool(createProject(customerCount), new PseudoRandom(253958446296927L), SAMPLES_PER_CUSTOMER, workerCount);
+		assertEquals(customerCount * SAMPLES_PER_CUSTOMER, pool.getSampleCount());
+
+		for (int sample = 0; sample < pool.getSampleCount(); sample++)
+			assertEquals(pool.getCustomers(sample), pool.getProfit(sample));
+	}
+
+	@Test
+	public void testNoCustomers() throws Exception
+	{
+		checkPool(0, 1);
+	}
+
+	@Test
+	public void testOneCustomer() throws Exception
+	{
+		checkPool(1, 1);
+	}
+
+	@Test
+	public void testFewerCustomersThanBlocks() throws Exception
+	{
+		checkPool(15, 1);
+		checkPool(15, 4);
+	}
+
+	@Test
+	public void testAsManyCustomersAsBlocks() throws Exception
+	{
+		checkPool(16, 1);
+		checkPool(16, 4);
+	}
+
+	@Test
+	public void testMoreCustomersThanBlocks() throws Exception
+	{
+		checkPool(17, 1);
+		checkPool(17, 4);
+	}
+}
@@ -0,0 +1,210 @@
+package br.unirio.visualnrp.reader;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import br.unirio.visualnrp.command.converter.CommandConvertResults;
+import br.unirio.visualnrp.support.PseudoRandom;
+import br.unirio.visualnrp.writer.ColumnType;
+import br.unirio.visualnrp.writer.ColumnarFormat;
+import br.unirio.visualnrp.writer.ResultColumn;
+import br.unirio.visualnrp.writer.ResultSink;
+import br.unirio.visualnrp.writer.ResultSinkFactory;
+
+/**
+ * Tests for the columnar result files, read back and converted to comma-separated text
+ * 
+ * @author marciobarros
+ */
+public class ColumnarResultReaderTest
+{
+	/**
+	 * Number of rows written to the files, enough to fill more than one block
+	 */
+	private static final int ROWS = ColumnarFormat.BLOCK_ROWS + 1000;
+
+	/**
+	 * Columns of the files
+	 */
+	private static final ResultColumn[] COLUMNS =
+	{
+		new ResultColumn("alg", ColumnType.STRING),
+		new ResultColumn("cycle", ColumnType.INTEGER),
+		new ResultColumn("fit", ColumnType.DOUBLE),
+		new ResultColumn("solution", ColumnType.SOLUTION)
+	};
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	/**
+	 * Creates the rows of the files, with null strings, negative integer deltas, NaN and negative
+	 * doubles, and solutions whose length is not a multiple of eight
+	 */
+	private static List<Object[]> createRows()
+	{
+		PseudoRandom random = new PseudoRandom(253958446296927L);
+		String[] names = { "HC", "ILS", null, "VISILS" };
+		List<Object[]> rows = new ArrayList<Object[]>(ROWS);
+
+		for (int i = 0; i < ROWS; i++)
+		{
+			boolean[] solution = new boolean[1 + i % 21];
+
+			for (int j = 0; j < solution.length; j++)
+				solution[j] = random.nextDouble() < 0.5;
+
+			long cycle = (i % 3 == 0) ? -i : (long) i * 1000003;
+			double fitness = (i % 17 == 0) ? Double.NaN : (i % 2 == 0 ? -1.0 : 1.0) * random.nextDouble() * 1000.0;
+			rows.add(new Object[] { names[i % names.length], cycle, fitness, solution });
+		}
+
+		return rows;
+	}
+
+	/**
+	 * Writes rows to a file, in the format given by its extension
+	 */
+	private static void writeRows(File file, List<Object[]> rows) throws IOException
+	{
+		ResultSink sink = ResultSinkFactory.create(file.getPath(), COLUMNS);
+
+		for (Object[] row : rows)
+			sink.writeRow(row);
+
+		sink.close();
+	}
+
+	/**
+	 * Reads the contents of a text file
+	 */
+	private static String readText(File file) throws IOException
+	{
+		return new String(Files.readAllBytes(file.toPath()), Charset.forName("UTF-8"));
+	}
+
+	/**
+	 * Writes the rows to a columnar file and checks that they are read back and converted to the same text as the comma-separated sink
+	 */
+	private void checkRoundTrip(String filename) throws Exception
+	{
+		List<Object[]> rows = createRows();
+		File columnarFile = new File(folder.getRoot(), filename);
+		File expectedFile = new File(folder.getRoot(), "expected.txt");
+		File convertedFile = new File(folder.getRoot(), "converted.txt");
+		writeRows(columnarFile, rows);
+		writeRows(expectedFile, rows);
+
+		ColumnarResultReader reader = new ColumnarResultReader(columnarFile.getPath());
+		assertEquals(COLUMNS.length, reader.getColumns().length);
+
+		for (int i = 0; i < COLUMNS.length; i++)
+		{
+			assertEquals(COLUMNS[i].getName(), reader.getColumns()[i].getName());
+			assertEquals(COLUMNS[i].getType(), reader.getColumns()[i].getType());
+		}
+
+		for (Object[] row : rows)
+		{
+			Object[] read = reader.readRow();
+			assertEquals(row[0], read[0]);
+			assertEquals(row[1], read[1]);
+			assertEquals(Double.doubleToRawLongBits((Double) row[2]), Double.doubleToRawLongBits((Double) read[2]));
+			assertTrue(Arrays.equals((boolean[]) row[3], (boolean[]) read[3]));
+		}
+
+		assertNull(reader.readRow());
+		reader.close();
+
+		CommandConvertResults command = new CommandConvertResults();
+		command.parseParameters(new String[] { "CONV", "-i", columnarFile.getPath(), "-o", convertedFile.getPath() });
+		command.run();
+		assertEquals(readText(expectedFile), readText(convertedFile));
+	}
+
+	@Test
+	public void testRoundTrip() throws Exception
+	{
+		checkRoundTrip("results.vnrc");
+	}
+
+	@Test
+	public void testCompressedRoundTrip() throws Exception
+	{
+		checkRoundTrip("results.vnrc.gz");
+	}
+
+	@Test
+	public void testEmptyFile() throws Exception
+	{
+		File file = new File(folder.getRoot(), "empty.vnrc");
+		writeRows(file, new ArrayList<Object[]>());
+
+		ColumnarResultReader reader = new ColumnarResultReader(file.getPath());
+		assertNull(reader.readRow());
+		reader.close();
+	}
+
+	/**
+	 * Checks that opening a file fails as not being a columnar result file
+	 */
+	private static void checkRejected(File file)
+	{
+		try
+		{
+			new ColumnarResultReader(file.getPath()).close();
+			fail("File '" + file.getName() + "' was accepted as a columnar result file.");
+		}
+		catch (Exception e)
+		{
+			assertTrue(e.getMessage(), e.getMessage().endsWith("is not a columnar result file."));
+		}
+	}
+
+	@Test
+	public void testInvalidColumnType() throws Exception
+	{
+		File file = new File(folder.getRoot(), "invalid.vnrc");
+		writeRows(file, createRows());
+
+		// the type of the first column follows the magic number, the version, the column count and the column name
+		RandomAccessFile raf = new RandomAccessFile(file, "rw");
+		raf.seek(ColumnarFormat.MAGIC.length + 3 + COLUMNS[0].getName().length());
+		assertEquals(ColumnType.STRING.ordinal(), raf.read());
+		raf.seek(raf.getFilePointer() - 1);
+		raf.write(ColumnType.values().length);
+		raf.close();
+
+		checkRejected(file);
+	}
+
+	@Test
+	public void testMissingColumnType() throws Exception
+	{
+		File file = new File(folder.getRoot(), "truncated.vnrc");
+		FileOutputStream out = new FileOutputStream(file);
+		out.write(ColumnarFormat.MAGIC);
+		out.write(ColumnarFormat.VERSION);
+		ColumnarFormat.writeVarLong(out, 1);
+		ColumnarFormat.writeString(out, "alg");
+		out.close();
+
+		checkRejected(file);
+	}
+}
@@ -0,0 +1,140 @@
+package br.unirio.visualnrp.reader;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.RandomAccessFile;
+import java.util.Arrays;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import br.unirio.visualnrp.model.Instance;
+import br.unirio.visualnrp.model.Project;
+
+/**
+ * Tests for the binary snapshots of the instances, written and read back or corrupted
+ * 
+ * @author marciobarros
+ */
+public class ProjectSnapshotTest
+{
+	/**
+	 * Instance used by the tests, which has a risk file
+	 */
+	private static final Instance INSTANCE = Instance.NRP1;
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	/**
+	 * Parses the text files of the instance, without using snapshots
+	 */
+	private static Project parseProject()
+	{
+		Project project = new RequirementReader(false).execute(INSTANCE);
+		assertNotNull(project);
+		return project;
+	}
+
+	/**
+	 * Checks that two projects hold the same requirements and customers
+	 */
+	private static void assertSameProject(Project expected, Project actual)
+	{
+		assertEquals(expected.getInstance(), actual.getInstance());
+		assertEquals(expected.getRequirementCount(), actual.getRequirementCount());
+		assertEquals(expected.getCustomerCount(), actual.getCustomerCount());
+
+		for (int i = 0; i < expected.getRequirementCount(); i++)
+		{
+			assertEquals(expected.getRequirementCost(i), actual.getRequirementCost(i));
+			assertEquals(expected.getRequirementCostMinimumEstimate(i), actual.getRequirementCostMinimumEstimate(i), 0.0);
+			assertEquals(expected.getRequirementWorstCost(i), actual.getRequirementWorstCost(i), 0.0);
+			assertEquals(expected.getRequirementCostRisk(i), actual.getRequirementCostRisk(i), 0.0);
+			assertTrue(Arrays.equals(expected.getRequirementDependencySources(i), actual.getRequirementDependencySources(i)));
+		}
+
+		for (int i = 0; i < expected.getCustomerCount(); i++)
+		{
+			assertEquals(expected.getCustomerProfit(i), actual.getCustomerProfit(i));
+			assertEquals(expected.getCustomerProfitMinimumEstimate(i), actual.getCustomerProfitMinimumEstimate(i), 0.0);
+			assertEquals(expected.getCustomerProfitMaximumEstimate(i), actual.getCustomerProfitMaximumEstimate(i), 0.0);
+			assertEquals(expected.getCustomerProfitRisk(i), actual.getCustomerProfitRisk(i), 0.0);
+			assertTrue(Arrays.equals(expected.getCustomerRequirements(i), actual.getCustomerRequirements(i)));
+		}
+
+		assertEquals(expected.getTotalCost(), actual.getTotalCost());
+		assertEquals(expected.getTotalProfit(), actual.getTotalProfit());
+	}
+
+	/**
+	 * Writes the snapshot of a project to a temporary file
+	 */
+	private File writeSnapshot(Project project) throws Exception
+	{
+		File file = new File(folder.getRoot(), INSTANCE.getName() + ".snapshot");
+		new ProjectSnapshot().write(project, file.getPath());
+		return file;
+	}
+
+	@Test
+	public void testRoundTrip() throws Exception
+	{
+		Project project = parseProject();
+		File file = writeSnapshot(project);
+
+		Project reloaded = new ProjectSnapshot().read(INSTANCE, file.getPath());
+		assertNotNull(reloaded);
+		assertSameProject(project, reloaded);
+	}
+
+	@Test
+	public void testTruncatedSnapshot() throws Exception
+	{
+		File file = writeSnapshot(parseProject());
+
+		RandomAccessFile raf = new RandomAccessFile(file, "rw");
+		raf.setLength(raf.length() / 2);
+		raf.close();
+
+		assertNull(new ProjectSnapshot().read(INSTANCE, file.getPath()));
+	}
+
+	@Test
+	public void testCorruptedSnapshot() throws Exception
+	{
+		File file = writeSnapshot(parseProject());
+
+		RandomAccessFile raf = new RandomAccessFile(file, "rw");
+		raf.seek(raf.length() - 1);
+		int last = raf.read();
+		raf.seek(raf.length() - 1);
+		raf.write(last ^ 0xFF);
+		raf.close();
+
+		assertNull(new ProjectSnapshot().read(INSTANCE, file.getPath()));
+	}
+
+	@Test
+	public void testFallbackToParsing() throws Exception
+	{
+		Project project = parseProject();
+		File snapshot = new File(INSTANCE.getSnapshotFilename());
+
+		RandomAccessFile raf = new RandomAccessFile(snapshot, "rw");
+		raf.setLength(7);
+		raf.close();
+
+		assertTrue(new ProjectSnapshot().isUpToDate(INSTANCE));
+		assertSameProject(project, new RequirementReader(true).execute(INSTANCE));
+
+		Project saved = new ProjectSnapshot().read(INSTANCE);
+		assertNotNull(saved);
+		assertSameProject(project, saved);
+	}
+}
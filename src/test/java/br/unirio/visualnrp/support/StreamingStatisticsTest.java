@@ -0,0 +1,131 @@
+package br.unirio.visualnrp.support;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+
+import org.junit.Test;
+
+/**
+ * Tests for the streaming statistics and their quantile sketch, against statistics calculated on the whole data
+ * 
+ * @author marciobarros
+ */
+public class StreamingStatisticsTest
+{
+	/**
+	 * Largest distance between the rank of an approximate quantile and the exact rank, as a fraction of the number of values
+	 */
+	private static final double RANK_TOLERANCE = 0.03;
+
+	/**
+	 * Creates values with a large offset, so that a naive calculation of the variance would lose precision
+	 */
+	private static double[] createValues(int count, long seed)
+	{
+		PseudoRandom random = new PseudoRandom(seed);
+		double[] values = new double[count];
+
+		for (int i = 0; i < count; i++)
+			values[i] = 1e9 + random.nextDouble(-100.0, 100.0);
+
+		return values;
+	}
+
+	/**
+	 * Summarizes a set of values
+	 */
+	private static StreamingStatistics summarize(double[] values)
+	{
+		StreamingStatistics statistics = new StreamingStatistics();
+
+		for (double value : values)
+			statistics.add(value);
+
+		return statistics;
+	}
+
+	/**
+	 * Returns the value of nearest rank for a given fraction of the sorted values
+	 */
+	private static double getExactQuantile(double[] sorted, double fraction)
+	{
+		int rank = (int) Math.max(Math.ceil(fraction * sorted.length), 1);
+		return sorted[rank - 1];
+	}
+
+	@Test
+	public void testEmpty()
+	{
+		StreamingStatistics statistics = new StreamingStatistics();
+		assertEquals(0, statistics.getCount());
+		assertTrue(Double.isNaN(statistics.getMean()));
+		assertEquals(0.0, statistics.getVariance(), 0.0);
+		assertTrue(Double.isNaN(statistics.getQuantile(0.5)));
+	}
+
+	@Test
+	public void testMeanAndVariance()
+	{
+		double[] values = createValues(10000, 253958446296927L);
+		StreamingStatistics statistics = summarize(values);
+
+		double sum = 0.0;
+
+		for (double value : values)
+			sum += value;
+
+		// two-pass reference, correcting the mean by the sum of the deviations from the first estimate
+		double mean = sum / values.length;
+		double deviations = 0.0;
+
+		for (double value : values)
+			deviations += value - mean;
+
+		mean += deviations / values.length;
+		double squaredDeviations = 0.0;
+
+		for (double value : values)
+			squaredDeviations += (value - mean) * (value - mean);
+
+		assertEquals(values.length, statistics.getCount());
+		assertEquals(mean, statistics.getMean(), 1e-6);
+		assertEquals(squaredDeviations / (values.length - 1), statistics.getVariance(), 1e-6 * statistics.getVariance());
+
+		double[] sorted = values.clone();
+		Arrays.sort(sorted);
+		assertEquals(sorted[0], statistics.getMinimum(), 0.0);
+		assertEquals(sorted[sorted.length - 1], statistics.getMaximum(), 0.0);
+	}
+
+	@Test
+	public void testExactQuantilesBelowCapacity()
+	{
+		double[] values = createValues(QuantileSketch.DEFAULT_CAPACITY - 1, 42);
+		StreamingStatistics statistics = summarize(values);
+		double[] sorted = values.clone();
+		Arrays.sort(sorted);
+
+		for (int percent = 0; percent <= 100; percent++)
+			assertEquals(getExactQuantile(sorted, percent / 100.0), statistics.getQuantile(percent / 100.0), 0.0);
+	}
+
+	@Test
+	public void testApproximateQuantilesAboveCapacity()
+	{
+		double[] values = createValues(100 * QuantileSketch.DEFAULT_CAPACITY, 42);
+		StreamingStatistics statistics = summarize(values);
+		double[] sorted = values.clone();
+		Arrays.sort(sorted);
+
+		for (int percent = 1; percent < 100; percent++)
+		{
+			double fraction = percent / 100.0;
+			double quantile = statistics.getQuantile(fraction);
+			int rank = Arrays.binarySearch(sorted, quantile) + 1;
+			assertTrue("quantile " + fraction + " was not one of the values", rank > 0);
+			assertEquals("quantile " + fraction, fraction, rank / (double) sorted.length, RANK_TOLERANCE);
+		}
+	}
+}